@@ -29,18 +29,30 @@ public class ClientConfiguration {
     private final Duration requestTimeout;
     private final boolean sslEnabled;
     private final String namespace;
+    private final Duration connectionWarmUpTimeout;
+    private final boolean connectionWarmUpHeartbeatEnabled;
+    private final int startupRouteFetchParallelism;
+    private final Duration startupRouteFetchTimeout;
+    private final boolean lenientStartupEnabled;
 
     /**
      * The caller is supposed to have validated the arguments and handled throwing exceptions or
      * logging warnings already, so we avoid repeating args check here.
      */
     ClientConfiguration(String endpoints, SessionCredentialsProvider sessionCredentialsProvider,
-        Duration requestTimeout, boolean sslEnabled, String namespace) {
+        Duration requestTimeout, boolean sslEnabled, String namespace, Duration connectionWarmUpTimeout,
+        boolean connectionWarmUpHeartbeatEnabled, int startupRouteFetchParallelism, Duration startupRouteFetchTimeout,
+        boolean lenientStartupEnabled) {
         this.endpoints = endpoints;
         this.sessionCredentialsProvider = sessionCredentialsProvider;
         this.requestTimeout = requestTimeout;
         this.sslEnabled = sslEnabled;
         this.namespace = namespace;
+        this.connectionWarmUpTimeout = connectionWarmUpTimeout;
+        this.connectionWarmUpHeartbeatEnabled = connectionWarmUpHeartbeatEnabled;
+        this.startupRouteFetchParallelism = startupRouteFetchParallelism;
+        this.startupRouteFetchTimeout = startupRouteFetchTimeout;
+        this.lenientStartupEnabled = lenientStartupEnabled;
     }
 
     public static ClientConfigurationBuilder newBuilder() {
@@ -66,4 +78,27 @@ public class ClientConfiguration {
     public String getNamespace() {
         return namespace;
     }
+
+    /**
+     * Get the timeout of connection warm-up during client startup, {@link Duration#ZERO} means warm-up is disabled.
+     */
+    public Duration getConnectionWarmUpTimeout() {
+        return connectionWarmUpTimeout;
+    }
+
+    public boolean isConnectionWarmUpHeartbeatEnabled() {
+        return connectionWarmUpHeartbeatEnabled;
+    }
+
+    public int getStartupRouteFetchParallelism() {
+        return startupRouteFetchParallelism;
+    }
+
+    public Duration getStartupRouteFetchTimeout() {
+        return startupRouteFetchTimeout;
+    }
+
+    public boolean isLenientStartupEnabled() {
+        return lenientStartupEnabled;
+    }
 }
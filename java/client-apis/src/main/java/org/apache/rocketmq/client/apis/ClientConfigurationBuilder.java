@@ -17,6 +17,7 @@
 
 package org.apache.rocketmq.client.apis;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.time.Duration;
@@ -32,6 +33,11 @@ public class ClientConfigurationBuilder {
     private Duration requestTimeout = Duration.ofSeconds(3);
     private boolean sslEnabled = true;
     private String namespace = "";
+    private Duration connectionWarmUpTimeout = Duration.ZERO;
+    private boolean connectionWarmUpHeartbeatEnabled = false;
+    private int startupRouteFetchParallelism = 16;
+    private Duration startupRouteFetchTimeout = Duration.ofSeconds(30);
+    private boolean lenientStartupEnabled = false;
 
     /**
      * Configure the access point with which the SDK should communicate.
@@ -93,6 +99,67 @@ public class ClientConfigurationBuilder {
         return this;
     }
 
+    /**
+     * Enable the connection warm-up during client startup, which is disabled by default.
+     *
+     * <p>Once enabled, connections to all brokers in the topic routes are established in parallel before the client
+     * is started, so that the first requests do not pay for DNS resolution, TCP and TLS handshakes. Warm-up is
+     * best-effort, the client is started even if some connections are not ready within the timeout, and the failed
+     * endpoints are logged.
+     *
+     * @param timeout          max duration to wait for all connections to be ready.
+     * @param heartbeatEnabled whether to send a heartbeat through each connection once it is ready.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder enableConnectionWarmUp(Duration timeout, boolean heartbeatEnabled) {
+        checkNotNull(timeout, "timeout should not be null");
+        checkArgument(!timeout.isNegative() && !timeout.isZero(), "timeout should be positive");
+        this.connectionWarmUpTimeout = timeout;
+        this.connectionWarmUpHeartbeatEnabled = heartbeatEnabled;
+        return this;
+    }
+
+    /**
+     * Set the max count of topics whose route are fetched concurrently during client startup, which is 16 by default.
+     *
+     * @param parallelism max count of concurrent route fetches.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder setStartupRouteFetchParallelism(int parallelism) {
+        checkArgument(parallelism > 0, "parallelism should be positive");
+        this.startupRouteFetchParallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Set the max duration to fetch the routes of all topics and establish telemetry sessions to their brokers during
+     * client startup, which is 30 seconds by default.
+     *
+     * @param timeout max duration of route fetch during startup.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder setStartupRouteFetchTimeout(Duration timeout) {
+        checkNotNull(timeout, "timeout should not be null");
+        checkArgument(!timeout.isNegative() && !timeout.isZero(), "timeout should be positive");
+        this.startupRouteFetchTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * Enable or disable the lenient startup, which is disabled by default.
+     *
+     * <p>The client fails to start once the route of any topic could not be fetched during startup. Once the lenient
+     * startup is enabled, the client is started regardless of the failed topics, which are logged and fetched again on
+     * their first use.
+     *
+     * @param enabled whether to enable the lenient startup.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder enableLenientStartup(boolean enabled) {
+        this.lenientStartupEnabled = enabled;
+        return this;
+    }
+
     /**
      * Finalize the build of {@link ClientConfiguration}.
      *
@@ -101,6 +168,8 @@ public class ClientConfigurationBuilder {
     public ClientConfiguration build() {
         checkNotNull(endpoints, "endpoints should not be null");
         checkNotNull(requestTimeout, "requestTimeout should not be null");
-        return new ClientConfiguration(endpoints, sessionCredentialsProvider, requestTimeout, sslEnabled, namespace);
+        return new ClientConfiguration(endpoints, sessionCredentialsProvider, requestTimeout, sslEnabled, namespace,
+            connectionWarmUpTimeout, connectionWarmUpHeartbeatEnabled, startupRouteFetchParallelism,
+            startupRouteFetchTimeout, lenientStartupEnabled);
     }
 }
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.apis.consumer;
+
+import java.util.concurrent.CompletableFuture;
+import org.apache.rocketmq.client.apis.message.MessageView;
+
+/**
+ * AsyncMessageListener is used only for the push consumer to process message consumption asynchronously.
+ *
+ * <p>Refer to {@link PushConsumerBuilder#setAsyncMessageListener(AsyncMessageListener, int)}, the listener is invoked
+ * by the backend thread pool, and the message is acknowledged or retried once the returned future is completed, so
+ * the thread is not occupied while the message is being processed by the non-blocking clients.
+ */
+public interface AsyncMessageListener {
+    /**
+     * The callback interface to consume the message asynchronously.
+     *
+     * <p>You should process the {@link MessageView} and complete the returned future with the corresponding
+     * {@link ConsumeResult}, which is supposed to return immediately without blocking. The consumption is successful
+     * only when the future is completed with {@link ConsumeResult#SUCCESS}, null pointer is returned, the future is
+     * completed exceptionally or exception is thrown would cause message consumption failure too.
+     */
+    CompletableFuture<ConsumeResult> consume(MessageView messageView);
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.apis.consumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of {@link BatchMessageListener}, which is either the result of the whole batch or the result of each message.
+ */
+public class BatchConsumeResult {
+    private static final BatchConsumeResult SUCCESS = new BatchConsumeResult(ConsumeResult.SUCCESS, null);
+    private static final BatchConsumeResult FAILURE = new BatchConsumeResult(ConsumeResult.FAILURE, null);
+
+    private final ConsumeResult batchResult;
+    private final List<ConsumeResult> results;
+
+    private BatchConsumeResult(ConsumeResult batchResult, List<ConsumeResult> results) {
+        this.batchResult = batchResult;
+        this.results = results;
+    }
+
+    /**
+     * All messages in the batch are consumed successfully.
+     */
+    public static BatchConsumeResult success() {
+        return SUCCESS;
+    }
+
+    /**
+     * All messages in the batch are failed to be consumed.
+     */
+    public static BatchConsumeResult failure() {
+        return FAILURE;
+    }
+
+    /**
+     * Result of each message, which is in the same order as the messages in the batch.
+     *
+     * <p>Message without the corresponding result, or whose result is null is regarded as failure.
+     *
+     * @param results result of each message.
+     * @return the batch consume result.
+     */
+    public static BatchConsumeResult of(List<ConsumeResult> results) {
+        checkNotNull(results, "results should not be null");
+        return new BatchConsumeResult(null, Collections.unmodifiableList(new ArrayList<>(results)));
+    }
+
+    /**
+     * Get the result of the message in the batch.
+     *
+     * @param index index of the message in the batch.
+     * @return the consume result of the message.
+     */
+    public ConsumeResult getResult(int index) {
+        if (null != batchResult) {
+            return batchResult;
+        }
+        final ConsumeResult result = index < results.size() ? results.get(index) : null;
+        return null == result ? ConsumeResult.FAILURE : result;
+    }
+
+    @Override
+    public String toString() {
+        return null != batchResult ? batchResult.toString() : results.toString();
+    }
+}
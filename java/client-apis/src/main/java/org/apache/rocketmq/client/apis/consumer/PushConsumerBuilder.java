@@ -17,6 +17,7 @@
 
 package org.apache.rocketmq.client.apis.consumer;
 
+import java.time.Duration;
 import java.util.Map;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
@@ -57,9 +58,41 @@ public interface PushConsumerBuilder {
      */
     PushConsumerBuilder setMessageListener(MessageListener listener);
 
+    /**
+     * Register batch message listener, which is an alternative of {@link #setMessageListener(MessageListener)}.
+     *
+     * <p>Messages from the same message queue are accumulated into one batch, the batch is dispatched once the max
+     * wait duration is elapsed, or the message count of the batch reaches the max batch size. Each message of the
+     * batch is acknowledged or retried separately according to its own result. For FIFO consumption, the listener is
+     * invoked with one message per batch to preserve the order.
+     *
+     * @param listener     batch message listener.
+     * @param maxBatchSize max message count of each batch.
+     * @param maxWait      max duration to wait for more messages before dispatching the batch.
+     * @return the consumer builder instance.
+     */
+    PushConsumerBuilder setBatchMessageListener(BatchMessageListener listener, int maxBatchSize, Duration maxWait);
+
+    /**
+     * Register asynchronous message listener, which is an alternative of {@link #setMessageListener(MessageListener)}.
+     *
+     * <p>The count of messages being processed is bounded by the max in-flight count rather than the consumption
+     * thread count, messages beyond the bound are waiting to be dispatched until any of the previous futures is
+     * completed.
+     *
+     * @param listener    asynchronous message listener.
+     * @param maxInFlight max count of messages being processed by the listener of the consumer.
+     * @return the consumer builder instance.
+     */
+    PushConsumerBuilder setAsyncMessageListener(AsyncMessageListener listener, int maxInFlight);
+
     /**
      * Set the maximum number of messages cached locally.
      *
+     * <p>The budget is shared by all message queues, each message queue is guaranteed an even share of the budget
+     * and could borrow the rest which is not used by others. The messages being received are counted as well, so that
+     * the budget is never exceeded.
+     *
      * @param count message count.
      * @return the consumer builder instance.
      */
@@ -68,6 +101,8 @@ public interface PushConsumerBuilder {
     /**
      * Set the maximum bytes of messages cached locally.
      *
+     * <p>The budget is shared by all message queues in the same way as {@link #setMaxCacheMessageCount(int)}.
+     *
      * @param bytes message size.
      * @return the consumer builder instance.
      */
@@ -99,6 +134,72 @@ public interface PushConsumerBuilder {
      */
     PushConsumerBuilder setEnableMessageInterceptorFiltering(boolean enableMessageInterceptorFiltering);
 
+    /**
+     * Set the linger duration of ack aggregation.
+     *
+     * <p>Ack aggregation is disabled by default, once the linger duration is positive, acknowledgements of messages
+     * with the same topic from the same broker would be coalesced into one request. The batch is sent once the linger
+     * duration is elapsed, or the message count of the batch reaches the threshold. Messages failed to be acknowledged
+     * are retried individually.
+     *
+     * @param lingerDuration max duration to wait for more acknowledgements before sending the batch.
+     * @return the consumer builder instance.
+     */
+    PushConsumerBuilder setAckBatchLingerDuration(Duration lingerDuration);
+
+    /**
+     * Set the max message count of each batch for ack aggregation, which is 32 by default.
+     *
+     * @param maxAckBatchMessageCount max message count of each batch.
+     * @return the consumer builder instance.
+     * @see #setAckBatchLingerDuration(Duration)
+     */
+    PushConsumerBuilder setMaxAckBatchMessageCount(int maxAckBatchMessageCount);
+
+    /**
+     * Set the linger duration of nack aggregation.
+     *
+     * <p>Nack aggregation is disabled by default, once the linger duration is positive, the invisible duration
+     * changes of messages failed to be consumed are batched by the broker and the next delivery delay. The batch is
+     * sent once the linger duration is elapsed, or the message count of the batch reaches the threshold, and messages
+     * of the batch failed to be changed are retried together later.
+     *
+     * @param lingerDuration max duration to wait for more messages failed to be consumed before sending the batch.
+     * @return the consumer builder instance.
+     */
+    PushConsumerBuilder setNackBatchLingerDuration(Duration lingerDuration);
+
+    /**
+     * Set the max message count of each batch for nack aggregation, which is 32 by default.
+     *
+     * @param maxNackBatchMessageCount max message count of each batch.
+     * @return the consumer builder instance.
+     * @see #setNackBatchLingerDuration(Duration)
+     */
+    PushConsumerBuilder setMaxNackBatchMessageCount(int maxNackBatchMessageCount);
+
+    /**
+     * Set the max count of in-flight requests shared by all batches for nack aggregation, which is 16 by default.
+     *
+     * @param maxNackConcurrentRequests max count of in-flight requests to change the invisible duration.
+     * @return the consumer builder instance.
+     * @see #setNackBatchLingerDuration(Duration)
+     */
+    PushConsumerBuilder setMaxNackConcurrentRequests(int maxNackConcurrentRequests);
+
+    /**
+     * Set the max batch size of message reception for each message queue, which is the batch size suggested by the
+     * server by default.
+     *
+     * <p>The batch size of each message queue is adapted by the history of reception: it grows up to the max batch
+     * size once the batch comes back full and the consumption keeps up with the reception, and shrinks once the
+     * cache is full. The max batch size is not supposed to exceed the limit of the server.
+     *
+     * @param maxReceiveBatchSize max batch size of message reception.
+     * @return the consumer builder instance.
+     */
+    PushConsumerBuilder setMaxReceiveBatchSize(int maxReceiveBatchSize);
+
     /**
      * Finalize the build of {@link PushConsumer} and start.
      *
@@ -17,6 +17,8 @@
 
 package org.apache.rocketmq.client.apis.message;
 
+import java.nio.ByteBuffer;
+
 /**
  * Builder to config {@link Message}.
  */
@@ -40,6 +42,31 @@ public interface MessageBuilder {
      */
     MessageBuilder setBody(byte[] body);
 
+    /**
+     * Set the body for the message without copy, which transfers the ownership of the body to the message.
+     *
+     * <p>Different from {@link #setBody(byte[])}, the body is not deep-copied, so the caller <strong>must not</strong>
+     * modify it any more, otherwise the content to send is undefined. It is recommended for large payloads to save
+     * the allocation of copy.
+     *
+     * @param body the body for the message.
+     * @return the message builder instance.
+     */
+    MessageBuilder transferBody(byte[] body);
+
+    /**
+     * Set the remaining bytes of the buffer as the body for the message, which transfers the ownership of the body to
+     * the message.
+     *
+     * <p>The backing array is taken without copy if the remaining bytes of the heap buffer cover the whole array,
+     * otherwise the remaining bytes are copied once. The position of the buffer is not changed, and the caller
+     * <strong>must not</strong> modify its content any more.
+     *
+     * @param body the body for the message.
+     * @return the message builder instance.
+     */
+    MessageBuilder transferBody(ByteBuffer body);
+
     /**
      * Set the tag for the message, which is optional.
      *
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.apis.producer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.message.Message;
+
+/**
+ * Exception raised by {@link Producer#send(List)} or {@link Producer#sendAsync(List)} while only part of the messages
+ * in the batch are sent successfully.
+ *
+ * <p>Both the receipts and the causes are indexed by the position of the message in the original batch, so that the
+ * caller could figure out which message(s) should be sent once again.
+ */
+public class BatchSendException extends ClientException {
+    private final List<SendReceipt> sendReceipts;
+    private final Map<Integer, Throwable> causes;
+
+    /**
+     * @param message      the detail message.
+     * @param sendReceipts receipts indexed by message position, {@code null} if the message is not sent successfully.
+     * @param causes       causes of failure indexed by message position.
+     */
+    public BatchSendException(String message, List<SendReceipt> sendReceipts, Map<Integer, Throwable> causes) {
+        super(message, causes.isEmpty() ? null : causes.values().iterator().next());
+        this.sendReceipts = Collections.unmodifiableList(sendReceipts);
+        this.causes = Collections.unmodifiableMap(causes);
+    }
+
+    /**
+     * Get the receipts of the batch, whose size is the same as the batch and the receipt is {@code null} for the
+     * message which is not sent successfully.
+     *
+     * @return the receipts indexed by the position of message in the batch.
+     */
+    public List<SendReceipt> getSendReceipts() {
+        return sendReceipts;
+    }
+
+    /**
+     * Get the causes of failure, the key is the position of the {@link Message} in the batch.
+     *
+     * @return the causes of failure indexed by the position of message in the batch.
+     */
+    public Map<Integer, Throwable> getCauses() {
+        return causes;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.apis.producer;
+
+/**
+ * Strategy to map the message group to message queue.
+ */
+public enum MessageGroupQueueSelectionStrategy {
+    /**
+     * Take the message queue by the hash of message group modulo the count of message queues, which is compatible
+     * with clients in other languages.
+     *
+     * <p>Almost all message groups are remapped once the count of message queues changes.
+     */
+    HASH_MODULO,
+    /**
+     * Take the message queue with the highest hash of the message group combined with each message queue, which is
+     * also known as rendezvous hashing.
+     *
+     * <p>Once a message queue is added or removed, only the message groups mapped to it, about 1/N of all message
+     * groups, are remapped.
+     */
+    RENDEZVOUS_HASH
+}
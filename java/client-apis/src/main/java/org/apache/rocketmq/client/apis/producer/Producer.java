@@ -19,6 +19,7 @@ package org.apache.rocketmq.client.apis.producer;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.message.Message;
@@ -60,6 +61,32 @@ public interface Producer extends Closeable {
      */
     CompletableFuture<SendReceipt> sendAsync(Message message);
 
+    /**
+     * Sends a batch of messages synchronously, all messages are carried by one request.
+     *
+     * <p>Messages in the batch should have the same topic and the same message type, FIFO messages should belong to
+     * the same message group besides. Transactional messages are not supported.
+     *
+     * <p>The receipts are in the same order as the messages. If only part of the messages are sent successfully
+     * after all attempts, a {@link BatchSendException} is thrown, which holds the receipt or the cause of failure of
+     * each message.
+     *
+     * @param messages the messages to send.
+     * @return the returned receipts.
+     */
+    List<SendReceipt> send(List<Message> messages) throws ClientException;
+
+    /**
+     * Sends a batch of messages asynchronously, all messages are carried by one request.
+     *
+     * <p>This method returns immediately, the result is included in the {@link CompletableFuture}, see
+     * {@link #send(List)} for more details about the batch.
+     *
+     * @param messages the messages to send.
+     * @return a future that indicates the send receipts.
+     */
+    CompletableFuture<List<SendReceipt>> sendAsync(List<Message> messages);
+
     /**
      * Begins a transaction.
      *
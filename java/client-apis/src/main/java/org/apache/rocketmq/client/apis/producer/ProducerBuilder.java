@@ -17,6 +17,7 @@
 
 package org.apache.rocketmq.client.apis.producer;
 
+import java.time.Duration;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.message.Message;
@@ -74,6 +75,195 @@ public interface ProducerBuilder {
      */
     ProducerBuilder setTransactionChecker(TransactionChecker checker);
 
+    /**
+     * Set the linger duration of auto-batching.
+     *
+     * <p>Auto-batching is disabled by default, once the linger duration is positive, messages sent by
+     * {@link Producer#sendAsync(Message)} with the same topic and the same message type would be coalesced into one
+     * request. The batch is sent once the linger duration is elapsed, or the message count/bytes of the batch reaches
+     * the threshold.
+     *
+     * @param lingerDuration max duration to wait for more messages before sending the batch.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setBatchLingerDuration(Duration lingerDuration);
+
+    /**
+     * Set the max message count of each batch for auto-batching, which is 128 by default.
+     *
+     * @param maxBatchMessageCount max message count of each batch.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setMaxBatchMessageCount(int maxBatchMessageCount);
+
+    /**
+     * Set the max size of message bodies in bytes of each batch for auto-batching, which is 1MB by default.
+     *
+     * @param maxBatchSizeInBytes max size of message bodies in bytes of each batch.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setMaxBatchSizeInBytes(int maxBatchSizeInBytes);
+
+    /**
+     * Set the compression of message body for all topics, which is disabled by default.
+     *
+     * <p>Message body whose size is not less than the threshold would be compressed before sending, and would be sent
+     * as it is if the compression does not make it smaller.
+     *
+     * @param type           compression algorithm.
+     * @param level          compression level, see {@link CompressionType} for the valid range of each algorithm.
+     * @param thresholdBytes min size of message body in bytes to compress.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setCompression(CompressionType type, int level, int thresholdBytes);
+
+    /**
+     * Set the compression of message body for the specified topic, which overrides
+     * {@link #setCompression(CompressionType, int, int)}.
+     *
+     * <p>Use {@link CompressionType#NONE} to disable the compression for the topic.
+     *
+     * @param topic          topic to override the compression.
+     * @param type           compression algorithm.
+     * @param level          compression level, see {@link CompressionType} for the valid range of each algorithm.
+     * @param thresholdBytes min size of message body in bytes to compress.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setCompression(String topic, CompressionType type, int level, int thresholdBytes);
+
+    /**
+     * Set the max count of in-flight send invocations of the producer, which is unlimited by default.
+     *
+     * <p>Each invocation of send occupies the in-flight window until its result is returned, no matter how many
+     * messages it carries. Once the window is full, the behavior of the following sending is decided by
+     * {@link #setBackpressurePolicy(BackpressurePolicy)}.
+     *
+     * @param maxInFlightRequests max count of in-flight send invocations.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setMaxInFlightRequests(int maxInFlightRequests);
+
+    /**
+     * Set the max size of in-flight message bodies in bytes of the producer, which is unlimited by default.
+     *
+     * @param maxInFlightSizeInBytes max size of in-flight message bodies in bytes.
+     * @return the producer builder instance.
+     * @see #setMaxInFlightRequests(int)
+     */
+    ProducerBuilder setMaxInFlightSizeInBytes(int maxInFlightSizeInBytes);
+
+    /**
+     * Set the behavior of sending once the in-flight window is full, which is {@link BackpressurePolicy#BLOCK} by
+     * default.
+     *
+     * @param policy backpressure policy.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setBackpressurePolicy(BackpressurePolicy policy);
+
+    /**
+     * Set the max duration to wait for the room of in-flight window, which only takes effect for
+     * {@link BackpressurePolicy#TIMEOUT} and is 3 seconds by default.
+     *
+     * @param timeout max duration to wait.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setBackpressureTimeout(Duration timeout);
+
+    /**
+     * Set the strategy to select message queue for messages without message group, which is
+     * {@link QueueSelectionStrategy#ROUND_ROBIN} by default.
+     *
+     * @param strategy queue selection strategy.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setQueueSelectionStrategy(QueueSelectionStrategy strategy);
+
+    /**
+     * Set the strategy to map the message group to message queue for FIFO messages, which is
+     * {@link MessageGroupQueueSelectionStrategy#HASH_MODULO} by default.
+     *
+     * <p>Producers which send messages of the same message group are supposed to use the same strategy, otherwise
+     * the messages could be sent to different message queues.
+     *
+     * @param strategy message group queue selection strategy.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setMessageGroupQueueSelectionStrategy(MessageGroupQueueSelectionStrategy strategy);
+
+    /**
+     * Set the circuit breaker of each broker for message publishing.
+     *
+     * <p>The circuit of a broker is opened once at least {@code failureRateThreshold} of its recent
+     * {@code windowSize} sending fail, with at least {@code minRequests} sending recorded, and the broker is skipped
+     * by message publishing while other brokers are available. After {@code openDuration}, the circuit turns half-open
+     * and permits {@code halfOpenTrials} trial sending, it is closed if all of them succeed, otherwise it is opened
+     * again. Throttling by the broker and the partial failure of batch sending are not counted as failures.
+     *
+     * <p>By default, the circuit is opened once at least half of the recent 10 sending fail, with at least 3 sending
+     * recorded, it stays open for 500ms and permits 1 trial sending while half-open.
+     *
+     * @param windowSize           count of the recent sending to calculate the failure rate.
+     * @param minRequests          min count of the recorded sending before the circuit could be opened, which is no
+     *                             more than {@code windowSize}.
+     * @param failureRateThreshold failure rate to open the circuit, which is in the range of (0, 1].
+     * @param openDuration         duration before the opened circuit turns half-open.
+     * @param halfOpenTrials       count of the trial sending permitted while half-open.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setCircuitBreaker(int windowSize, int minRequests, double failureRateThreshold,
+        Duration openDuration, int halfOpenTrials);
+
+    /**
+     * Set the retry budget of the producer, which is unlimited by default.
+     *
+     * <p>Each successful send earns {@code ratio} token, and each internal retry of message publishing costs one
+     * token. Once the tokens run out, the failure is returned without retrying even if there are remaining attempts
+     * of {@link #setMaxAttempts(int)}, which keeps retries at a fraction of traffic when the brokers are in trouble.
+     *
+     * @param ratio     tokens earned by each successful send, which is in the range of (0, 1].
+     * @param maxTokens max tokens to accumulate, which is also the initial tokens of the budget.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setRetryBudget(double ratio, int maxTokens);
+
+    /**
+     * Set the max count of concurrent invocations of {@link TransactionChecker}, which is 1 by default.
+     *
+     * <p>Transaction checks are executed by the dedicated threads of the producer, checks of the same transaction are
+     * merged if the previous one is not finished yet.
+     *
+     * @param parallelism max count of concurrent transaction checks.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setTransactionCheckParallelism(int parallelism);
+
+    /**
+     * Set the duration to cache the commit/rollback resolution of transaction check, which is 10 seconds by default.
+     *
+     * <p>Checks of the same transaction within the duration are answered by the cached resolution without invoking
+     * {@link TransactionChecker} again, {@link Duration#ZERO} disables the cache.
+     *
+     * @param duration duration to cache the resolution.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setTransactionResolutionCacheDuration(Duration duration);
+
+    /**
+     * Set whether to keep the order of FIFO messages sent by {@link Producer#sendAsync(Message)}, which is disabled by
+     * default.
+     *
+     * <p>Once enabled, FIFO messages with the same message group are sent in the order of invocations without
+     * waiting for the previous result by the caller. Messages sent while the previous request of the message group is
+     * in flight are coalesced into the next request, which is bounded by {@link #setMaxBatchMessageCount(int)} and
+     * {@link #setMaxBatchSizeInBytes(int)}. The next request is not sent until the previous one is completed,
+     * including its retries, and different message groups are sent in parallel.
+     *
+     * @param enabled whether to keep the order of FIFO messages sent asynchronously.
+     * @return the producer builder instance.
+     */
+    ProducerBuilder setOrderedFifoSendAsync(boolean enabled);
+
     /**
      * Finalize the build of {@link Producer} instance and start.
      *
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.apis.producer;
+
+/**
+ * Strategy to select the message queue for messages without message group.
+ */
+public enum QueueSelectionStrategy {
+    /**
+     * Select message queues of different brokers in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * Prefer the broker with lower latency and error rate, which are tracked from the result of previous sending.
+     *
+     * <p>For each sending, the broker in turn competes with another one picked randomly and the better one wins.
+     * Brokers which have not been sent to for a while are probed again.
+     */
+    LATENCY_AWARE
+}
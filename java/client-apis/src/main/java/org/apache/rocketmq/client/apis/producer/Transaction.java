@@ -17,6 +17,7 @@
 
 package org.apache.rocketmq.client.apis.producer;
 
+import java.util.concurrent.CompletableFuture;
 import org.apache.rocketmq.client.apis.ClientException;
 
 /**
@@ -44,4 +45,25 @@ public interface Transaction {
      * <p>What you should pay more attention to is that the roll-back may be successful even exception is thrown.
      */
     void rollback() throws ClientException;
+
+    /**
+     * Commit the transaction asynchronously, the requests of all messages in the transaction are sent concurrently.
+     *
+     * <p>This method returns immediately, the future is completed once the commitment of all messages is done, see
+     * {@link #commit()} for more details.
+     *
+     * @return future of the commitment.
+     */
+    CompletableFuture<Void> commitAsync();
+
+    /**
+     * Roll back the transaction asynchronously, the requests of all messages in the transaction are sent
+     * concurrently.
+     *
+     * <p>This method returns immediately, the future is completed once the roll-back of all messages is done, see
+     * {@link #rollback()} for more details.
+     *
+     * @return future of the roll-back.
+     */
+    CompletableFuture<Void> rollbackAsync();
 }
\ No newline at end of file
@@ -56,8 +56,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -66,6 +68,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -107,8 +110,6 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
     protected final ClientConfiguration clientConfiguration;
     protected final Endpoints endpoints;
     protected final Set<String> topics;
-    // Thread-safe set.
-    protected final Set<Endpoints> isolated;
     protected final ExecutorService clientCallbackExecutor;
     protected final ClientMeterManager clientMeterManager;
     /**
@@ -131,6 +132,10 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
 
     private final CompositedMessageInterceptor compositedMessageInterceptor;
     private boolean receiveReconnect = false;
+    /**
+     * Endpoints which failed to warm up during startup and the cause.
+     */
+    private volatile Map<Endpoints, Throwable> connectionWarmUpFailures = Collections.emptyMap();
 
     public ClientImpl(ClientConfiguration clientConfiguration, Set<String> topics) {
         this.clientConfiguration = checkNotNull(clientConfiguration, "clientConfiguration should not be null");
@@ -147,8 +152,6 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
         this.sessionsTable = new HashMap<>();
         this.sessionsLock = new ReentrantReadWriteLock();
 
-        this.isolated = Collections.newSetFromMap(new ConcurrentHashMap<>());
-
         this.clientManager = new ClientManagerImpl(this);
 
         final long clientIdIndex = clientId.getIndex();
@@ -186,12 +189,33 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
         // Fetch topic route from remote.
         log.info("Begin to fetch topic(s) route data from remote during client startup, clientId={}, topics={}",
             clientId, topics);
-        for (String topic : topics) {
-            final ListenableFuture<TopicRouteData> future = fetchTopicRoute(topic);
-            future.get();
+        final Map<String, Throwable> routeFailures = fetchTopicRoutes(topics,
+            clientConfiguration.getStartupRouteFetchParallelism(), clientConfiguration.getStartupRouteFetchTimeout());
+        if (!routeFailures.isEmpty()) {
+            if (!clientConfiguration.isLenientStartupEnabled()) {
+                throw new ClientException("Failed to fetch topic route during startup, topics="
+                    + routeFailures.keySet(), routeFailures.values().iterator().next());
+            }
+            routeFailures.forEach((topic, t) -> log.error("Failed to fetch topic route during startup, ignore it "
+                + "because of lenient startup, clientId={}, topic={}", clientId, topic, t));
+        }
+        log.info("Fetch topic route data from remote successfully during startup, clientId={}, topics={}, "
+            + "failedTopics={}", clientId, topics, routeFailures.keySet());
+        final Duration warmUpTimeout = clientConfiguration.getConnectionWarmUpTimeout();
+        if (!warmUpTimeout.isZero()) {
+            final Set<Endpoints> totalRouteEndpoints = getTotalRouteEndpoints();
+            log.info("Begin to warm up connections during startup, clientId={}, endpoints={}, timeout={}",
+                clientId, totalRouteEndpoints, warmUpTimeout);
+            this.connectionWarmUpFailures = warmUpConnections(totalRouteEndpoints, warmUpTimeout,
+                clientConfiguration.isConnectionWarmUpHeartbeatEnabled());
+            if (connectionWarmUpFailures.isEmpty()) {
+                log.info("Warm up connections successfully during startup, clientId={}", clientId);
+            } else {
+                log.warn("Failed to warm up part of connections during startup, clientId={}, failed={}/{}, "
+                        + "failures={}", clientId, connectionWarmUpFailures.size(), totalRouteEndpoints.size(),
+                    connectionWarmUpFailures);
+            }
         }
-        log.info("Fetch topic route data from remote successfully during startup, clientId={}, topics={}",
-            clientId, topics);
         // Update route cache periodically.
         final ScheduledExecutorService scheduler = clientManager.getScheduler();
         this.updateRouteCacheFuture = scheduler.scheduleWithFixedDelay(() -> {
@@ -204,6 +228,166 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
         log.info("The rocketmq client starts successfully, clientId={}", clientId);
     }
 
+    /**
+     * Fetch the routes of topics concurrently, and then establish telemetry sessions to the union of their endpoints
+     * concurrently. Route of the topic is cached once the sessions to all its endpoints are established.
+     *
+     * @param topicSet    topics to fetch route.
+     * @param parallelism max count of concurrent route fetches.
+     * @param timeout     max duration to fetch routes and establish sessions.
+     * @return topics which failed to fetch route within the timeout and the cause.
+     */
+    Map<String, Throwable> fetchTopicRoutes(Set<String> topicSet, int parallelism, Duration timeout)
+        throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        final Queue<String> pendingTopics = new ConcurrentLinkedQueue<>(topicSet);
+        final Map<String, ListenableFuture<TopicRouteData>> routeFutures = new ConcurrentHashMap<>();
+        final List<ListenableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(parallelism, topicSet.size()); i++) {
+            workers.add(fetchTopicRoutes0(pendingTopics, routeFutures));
+        }
+        try {
+            Futures.allAsList(workers).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | TimeoutException ignore) {
+            // Failures are collected by each topic.
+        }
+        // Stop fetching the remaining topics once timeout.
+        pendingTopics.clear();
+        final Map<String, Throwable> failures = new HashMap<>();
+        final Map<String, TopicRouteData> routes = new HashMap<>();
+        for (String topic : topicSet) {
+            final ListenableFuture<TopicRouteData> future = routeFutures.get(topic);
+            if (null == future || !future.isDone()) {
+                if (null != future) {
+                    future.cancel(false);
+                }
+                failures.put(topic, new TimeoutException("Topic route is not fetched within " + timeout));
+                continue;
+            }
+            try {
+                routes.put(topic, Futures.getDone(future));
+            } catch (ExecutionException e) {
+                failures.put(topic, e.getCause());
+            }
+        }
+        final Map<Endpoints, ListenableFuture<?>> sessionFutures = new HashMap<>();
+        for (TopicRouteData topicRouteData : routes.values()) {
+            for (Endpoints endpoints : topicRouteData.getTotalEndpoints()) {
+                if (!sessionFutures.containsKey(endpoints)) {
+                    sessionFutures.put(endpoints, establishClientSession(endpoints));
+                }
+            }
+        }
+        final Map<Endpoints, Throwable> sessionFailures = new HashMap<>();
+        for (Map.Entry<Endpoints, ListenableFuture<?>> entry : sessionFutures.entrySet()) {
+            try {
+                entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                sessionFailures.put(entry.getKey(), e.getCause());
+            } catch (TimeoutException e) {
+                sessionFailures.put(entry.getKey(), new TimeoutException("Telemetry session is not established "
+                    + "within " + timeout));
+            }
+        }
+        for (Map.Entry<String, TopicRouteData> entry : routes.entrySet()) {
+            final String topic = entry.getKey();
+            final TopicRouteData topicRouteData = entry.getValue();
+            Throwable sessionFailure = null;
+            for (Endpoints endpoints : topicRouteData.getTotalEndpoints()) {
+                sessionFailure = sessionFailures.get(endpoints);
+                if (null != sessionFailure) {
+                    break;
+                }
+            }
+            if (null != sessionFailure) {
+                failures.put(topic, sessionFailure);
+                continue;
+            }
+            topicRouteCache.put(topic, topicRouteData);
+            onTopicRouteDataUpdate0(topic, topicRouteData);
+            log.info("Fetch topic route successfully, clientId={}, topic={}, topicRouteData={}", clientId, topic,
+                topicRouteData);
+        }
+        return failures;
+    }
+
+    private ListenableFuture<Void> fetchTopicRoutes0(Queue<String> pendingTopics,
+        Map<String, ListenableFuture<TopicRouteData>> routeFutures) {
+        final String topic = pendingTopics.poll();
+        if (null == topic) {
+            return Futures.immediateVoidFuture();
+        }
+        final ListenableFuture<TopicRouteData> future = fetchTopicRoute0(topic);
+        routeFutures.put(topic, future);
+        // Fetch the next topic once the current one is completed, regardless of its result.
+        return Futures.transformAsync(Futures.catching(future, Throwable.class, t -> null,
+                MoreExecutors.directExecutor()), topicRouteData -> fetchTopicRoutes0(pendingTopics, routeFutures),
+            MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Establish the telemetry session to the endpoints and sync settings through it.
+     */
+    ListenableFuture<?> establishClientSession(Endpoints endpoints) {
+        try {
+            return getClientSession(endpoints).syncSettings();
+        } catch (Throwable t) {
+            return Futures.immediateFailedFuture(t);
+        }
+    }
+
+    /**
+     * Establish connections to the endpoints in parallel and optionally send heartbeat through them, which is
+     * best-effort and never fails the startup.
+     *
+     * @param endpointsSet     endpoints to connect.
+     * @param timeout          max duration to wait for all connections.
+     * @param heartbeatEnabled whether to send heartbeat once the connection is ready.
+     * @return endpoints which failed to warm up within the timeout and the cause.
+     */
+    Map<Endpoints, Throwable> warmUpConnections(Set<Endpoints> endpointsSet, Duration timeout,
+        boolean heartbeatEnabled) throws InterruptedException {
+        final ClientManager manager = getClientManager();
+        final HeartbeatRequest request = heartbeatEnabled ? wrapHeartbeatRequest() : null;
+        final Map<Endpoints, ListenableFuture<Void>> futures = new HashMap<>();
+        for (Endpoints endpoints : endpointsSet) {
+            ListenableFuture<Void> future = manager.connect(endpoints);
+            if (null != request) {
+                future = Futures.transformAsync(future, v -> {
+                    final RpcFuture<HeartbeatRequest, HeartbeatResponse> heartbeatFuture =
+                        manager.heartbeat(endpoints, request, clientConfiguration.getRequestTimeout());
+                    return Futures.transformAsync(heartbeatFuture, response -> {
+                        StatusChecker.check(response.getStatus(), heartbeatFuture);
+                        return Futures.immediateVoidFuture();
+                    }, MoreExecutors.directExecutor());
+                }, MoreExecutors.directExecutor());
+            }
+            futures.put(endpoints, future);
+        }
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        final Map<Endpoints, Throwable> failures = new HashMap<>();
+        for (Map.Entry<Endpoints, ListenableFuture<Void>> entry : futures.entrySet()) {
+            final ListenableFuture<Void> future = entry.getValue();
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                failures.put(entry.getKey(), e.getCause());
+            } catch (TimeoutException e) {
+                future.cancel(false);
+                failures.put(entry.getKey(), new TimeoutException("Connection is not ready within " + timeout));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Get the endpoints which failed to warm up during startup and the cause, which is empty if warm-up is disabled
+     * or all connections are warmed up.
+     */
+    public Map<Endpoints, Throwable> getConnectionWarmUpFailures() {
+        return connectionWarmUpFailures;
+    }
+
     /**
      * Shutdown the rocketmq client and release related resources.
      */
@@ -590,11 +774,6 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
                         return;
                     }
                     log.info("Send heartbeat successfully, endpoints={}, clientId={}", endpoints, clientId);
-                    final boolean removed = isolated.remove(endpoints);
-                    if (removed) {
-                        log.info("Rejoin endpoints which is isolated before, clientId={}, endpoints={}", clientId,
-                            endpoints);
-                    }
                 }
 
                 @Override
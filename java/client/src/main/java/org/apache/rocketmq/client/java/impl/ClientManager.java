@@ -43,6 +43,8 @@ import apache.rocketmq.v2.SyncLiteSubscriptionRequest;
 import apache.rocketmq.v2.SyncLiteSubscriptionResponse;
 import apache.rocketmq.v2.TelemetryCommand;
 import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.Metadata;
 import io.grpc.stub.StreamObserver;
 import java.time.Duration;
 import java.util.List;
@@ -62,6 +64,14 @@ public abstract class ClientManager extends AbstractIdleService {
      */
     public abstract ScheduledExecutorService getScheduler();
 
+    /**
+     * Establish the connection to the endpoints ahead of the first RPC, the method ensures no throwable.
+     *
+     * @param endpoints requested endpoints.
+     * @return future which is completed once the connection is ready.
+     */
+    public abstract ListenableFuture<Void> connect(Endpoints endpoints);
+
     /**
      * Query topic route asynchronously, the method ensures no throwable.
      *
@@ -128,6 +138,21 @@ public abstract class ClientManager extends AbstractIdleService {
     public abstract RpcFuture<AckMessageRequest, AckMessageResponse> ackMessage(Endpoints endpoints,
         AckMessageRequest request, Duration duration);
 
+    /**
+     * Ack message asynchronously with the metadata signed in advance, the method ensures no throwable.
+     *
+     * <p>It is useful when the request id is supposed to be known before the request is sent, such as the request
+     * which is aggregated from acknowledgements of different messages.
+     *
+     * @param endpoints requested endpoints.
+     * @param metadata  signed metadata of the request.
+     * @param request   ack message request.
+     * @param duration  request max duration.
+     * @return invocation of response future.
+     */
+    public abstract RpcFuture<AckMessageRequest, AckMessageResponse> ackMessage(Endpoints endpoints,
+        Metadata metadata, AckMessageRequest request, Duration duration);
+
     /**
      * Nack message asynchronously after the failure of consumption, the method ensures no throwable.
      *
@@ -42,6 +42,7 @@ import apache.rocketmq.v2.SendMessageResponse;
 import apache.rocketmq.v2.SyncLiteSubscriptionRequest;
 import apache.rocketmq.v2.SyncLiteSubscriptionResponse;
 import apache.rocketmq.v2.TelemetryCommand;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.grpc.Metadata;
@@ -196,6 +197,16 @@ public class ClientManagerImpl extends ClientManager {
         }
     }
 
+    @Override
+    public ListenableFuture<Void> connect(Endpoints endpoints) {
+        try {
+            final RpcClient rpcClient = getRpcClient(endpoints);
+            return rpcClient.connect();
+        } catch (Throwable t) {
+            return Futures.immediateFailedFuture(t);
+        }
+    }
+
     @Override
     public RpcFuture<QueryRouteRequest, QueryRouteResponse> queryRoute(Endpoints endpoints, QueryRouteRequest request,
         Duration duration) {
@@ -275,6 +286,16 @@ public class ClientManagerImpl extends ClientManager {
         Duration duration) {
         try {
             final Metadata metadata = client.sign();
+            return ackMessage(endpoints, metadata, request, duration);
+        } catch (Throwable t) {
+            return new RpcFuture<>(t);
+        }
+    }
+
+    @Override
+    public RpcFuture<AckMessageRequest, AckMessageResponse> ackMessage(Endpoints endpoints, Metadata metadata,
+        AckMessageRequest request, Duration duration) {
+        try {
             final Context context = new Context(endpoints, metadata);
             final RpcClient rpcClient = getRpcClient(endpoints);
             final ListenableFuture<AckMessageResponse> future =
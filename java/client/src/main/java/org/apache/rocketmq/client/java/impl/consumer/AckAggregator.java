@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import apache.rocketmq.v2.AckMessageEntry;
+import apache.rocketmq.v2.AckMessageRequest;
+import apache.rocketmq.v2.AckMessageResponse;
+import apache.rocketmq.v2.AckMessageResultEntry;
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.Resource;
+import apache.rocketmq.v2.Status;
+import com.google.common.base.Objects;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.grpc.Metadata;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.rpc.Context;
+import org.apache.rocketmq.client.java.rpc.RpcFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregator to coalesce acknowledgements of different messages into one {@link AckMessageRequest}.
+ *
+ * <p>Requests with the same endpoints, topic and consumer group are appended into the same batch, the batch is
+ * flushed once the linger duration is elapsed or the entry count threshold is reached. Each appended request is
+ * supposed to carry exactly one entry, and its future is completed by the result entry of the batch response, so the
+ * caller could retry the failed acknowledgement only.
+ */
+@SuppressWarnings({"UnstableApiUsage", "NullableProblems"})
+class AckAggregator {
+    private static final Logger log = LoggerFactory.getLogger(AckAggregator.class);
+
+    private final ConsumerImpl consumer;
+    private final Duration lingerDuration;
+    private final int maxBatchEntryCount;
+
+    @GuardedBy("batchesLock")
+    private final Map<BatchKey, Batch> batches;
+    private final Lock batchesLock;
+
+    AckAggregator(ConsumerImpl consumer, Duration lingerDuration, int maxBatchEntryCount) {
+        this.consumer = consumer;
+        this.lingerDuration = lingerDuration;
+        this.maxBatchEntryCount = maxBatchEntryCount;
+        this.batches = new HashMap<>();
+        this.batchesLock = new ReentrantLock();
+    }
+
+    /**
+     * Append the request into the batch, the context of returned future is shared by all requests of the batch.
+     */
+    RpcFuture<AckMessageRequest, AckMessageResponse> append(Endpoints endpoints, AckMessageRequest request) {
+        final SettableFuture<AckMessageResponse> future = SettableFuture.create();
+        final BatchKey key = new BatchKey(endpoints, request);
+        Batch ready = null;
+        Batch created = null;
+        Context context;
+        batchesLock.lock();
+        try {
+            Batch batch = batches.get(key);
+            if (null == batch) {
+                final Metadata metadata;
+                try {
+                    metadata = consumer.sign();
+                } catch (Throwable t) {
+                    return new RpcFuture<>(t);
+                }
+                batch = new Batch(new Context(endpoints, metadata), metadata);
+                batches.put(key, batch);
+                created = batch;
+            }
+            batch.add(request, future);
+            context = batch.context;
+            if (batch.isFull()) {
+                batches.remove(key);
+                ready = batch;
+            }
+        } finally {
+            batchesLock.unlock();
+        }
+        final RpcFuture<AckMessageRequest, AckMessageResponse> rpcFuture = new RpcFuture<>(context, request, future);
+        if (null != ready) {
+            flush(key, ready);
+            return rpcFuture;
+        }
+        if (null != created) {
+            scheduleLingerFlush(key, created);
+        }
+        return rpcFuture;
+    }
+
+    /**
+     * Flush all batches regardless of the linger duration, which is supposed to be invoked before shutdown.
+     */
+    void flushAll() {
+        final Map<BatchKey, Batch> drained;
+        batchesLock.lock();
+        try {
+            drained = new HashMap<>(batches);
+            batches.clear();
+        } finally {
+            batchesLock.unlock();
+        }
+        drained.forEach(this::flush);
+    }
+
+    private void scheduleLingerFlush(BatchKey key, Batch batch) {
+        final ScheduledExecutorService scheduler = consumer.getScheduler();
+        try {
+            scheduler.schedule(() -> flushIfPresent(key, batch), lingerDuration.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (Throwable t) {
+            log.error("[Bug] Failed to schedule the flush of ack batch, flush it right now, clientId={}",
+                consumer.getClientId(), t);
+            flushIfPresent(key, batch);
+        }
+    }
+
+    private void flushIfPresent(BatchKey key, Batch batch) {
+        batchesLock.lock();
+        try {
+            // The batch has been flushed already.
+            if (batch != batches.get(key)) {
+                return;
+            }
+            batches.remove(key);
+        } finally {
+            batchesLock.unlock();
+        }
+        flush(key, batch);
+    }
+
+    private void flush(BatchKey key, Batch batch) {
+        final AckMessageRequest.Builder builder = AckMessageRequest.newBuilder().setGroup(key.group)
+            .setTopic(key.topic);
+        for (AckMessageRequest request : batch.requests) {
+            builder.addAllEntries(request.getEntriesList());
+        }
+        final Duration requestTimeout = consumer.getClientConfiguration().getRequestTimeout();
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future =
+            consumer.getClientManager().ackMessage(key.endpoints, batch.metadata, builder.build(), requestTimeout);
+        Futures.addCallback(future, new FutureCallback<AckMessageResponse>() {
+            @Override
+            public void onSuccess(AckMessageResponse response) {
+                for (int i = 0; i < batch.requests.size(); i++) {
+                    batch.futures.get(i).set(extractResponse(response, batch.requests.get(i)));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                batch.futures.forEach(f -> f.setException(t));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Extract the response of single request from the response of batch, the result entry is matched by the receipt
+     * handle at first, and then by the message id.
+     */
+    static AckMessageResponse extractResponse(AckMessageResponse response, AckMessageRequest request) {
+        final Status status = response.getStatus();
+        final AckMessageEntry entry = request.getEntries(0);
+        AckMessageResultEntry matched = null;
+        for (AckMessageResultEntry resultEntry : response.getEntriesList()) {
+            if (resultEntry.getReceiptHandle().equals(entry.getReceiptHandle())) {
+                matched = resultEntry;
+                break;
+            }
+            if (null == matched && resultEntry.getMessageId().equals(entry.getMessageId())) {
+                matched = resultEntry;
+            }
+        }
+        if (null != matched) {
+            return AckMessageResponse.newBuilder().setStatus(matched.getStatus()).addEntries(matched).build();
+        }
+        // The result of entry is unknown if only part of entries are acknowledged successfully.
+        if (Code.MULTIPLE_RESULTS.equals(status.getCode())) {
+            final Status unknown = Status.newBuilder().setCode(Code.INTERNAL_SERVER_ERROR)
+                .setMessage("result entry is missing in the response of multiple results").build();
+            return AckMessageResponse.newBuilder().setStatus(unknown).build();
+        }
+        return AckMessageResponse.newBuilder().setStatus(status).build();
+    }
+
+    private class Batch {
+        private final Context context;
+        private final Metadata metadata;
+        private final List<AckMessageRequest> requests = new ArrayList<>();
+        private final List<SettableFuture<AckMessageResponse>> futures = new ArrayList<>();
+        private int entryCount = 0;
+
+        Batch(Context context, Metadata metadata) {
+            this.context = context;
+            this.metadata = metadata;
+        }
+
+        void add(AckMessageRequest request, SettableFuture<AckMessageResponse> future) {
+            requests.add(request);
+            futures.add(future);
+            entryCount += request.getEntriesCount();
+        }
+
+        boolean isFull() {
+            return entryCount >= maxBatchEntryCount;
+        }
+    }
+
+    private static class BatchKey {
+        private final Endpoints endpoints;
+        private final Resource topic;
+        private final Resource group;
+
+        BatchKey(Endpoints endpoints, AckMessageRequest request) {
+            this.endpoints = endpoints;
+            this.topic = request.getTopic();
+            this.group = request.getGroup();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey that = (BatchKey) o;
+            return Objects.equal(endpoints, that.endpoints) && Objects.equal(topic, that.topic) &&
+                Objects.equal(group, that.group);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(endpoints, topic, group);
+        }
+    }
+}
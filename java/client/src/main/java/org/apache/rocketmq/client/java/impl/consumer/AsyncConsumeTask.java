@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.apache.rocketmq.client.java.impl.consumer.ConsumeTask.CONSUME_ERROR_CONTEXT_KEY;
+import static org.apache.rocketmq.client.java.impl.consumer.ConsumeTask.MESSAGE_VIEW_CONTEXT_KEY;
+import static org.apache.rocketmq.client.java.impl.consumer.ConsumeTask.REMOTE_ADDR_CONTEXT_KEY;
+
+import com.google.common.util.concurrent.AsyncCallable;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.apache.rocketmq.client.apis.consumer.AsyncMessageListener;
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.java.hook.Attribute;
+import org.apache.rocketmq.client.java.hook.MessageHookPoints;
+import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
+import org.apache.rocketmq.client.java.hook.MessageInterceptor;
+import org.apache.rocketmq.client.java.hook.MessageInterceptorContextImpl;
+import org.apache.rocketmq.client.java.message.GeneralMessage;
+import org.apache.rocketmq.client.java.message.GeneralMessageImpl;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.rpc.LoggingInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class AsyncConsumeTask implements AsyncCallable<ConsumeResult> {
+    private static final Logger log = LoggerFactory.getLogger(AsyncConsumeTask.class);
+
+    private final ClientId clientId;
+    private final AsyncMessageListener asyncMessageListener;
+    private final MessageViewImpl messageView;
+    private final MessageInterceptor messageInterceptor;
+
+    public AsyncConsumeTask(ClientId clientId, AsyncMessageListener asyncMessageListener, MessageViewImpl messageView,
+        MessageInterceptor messageInterceptor) {
+        this.clientId = clientId;
+        this.asyncMessageListener = asyncMessageListener;
+        this.messageView = messageView;
+        this.messageInterceptor = messageInterceptor;
+    }
+
+    /**
+     * Invoke {@link AsyncMessageListener} to consume message, the interceptor is completed once the future returned
+     * by the listener is completed, so the consumption duration is measured end to end.
+     *
+     * @return future of the consume result, which is never completed exceptionally.
+     */
+    @Override
+    public ListenableFuture<ConsumeResult> call() {
+        final List<GeneralMessage> generalMessages = Collections.singletonList(new GeneralMessageImpl(messageView));
+        final MessageInterceptorContextImpl context = new MessageInterceptorContextImpl(MessageHookPoints.CONSUME);
+
+        // Add remoteAddr to context.
+        String remoteAddr = LoggingInterceptor.getInstance().getRemoteAddr();
+        context.putAttribute(REMOTE_ADDR_CONTEXT_KEY, Attribute.create(remoteAddr));
+        // Add message view to context.
+        context.putAttribute(MESSAGE_VIEW_CONTEXT_KEY, Attribute.create(messageView));
+
+        messageInterceptor.doBefore(context, generalMessages);
+        final SettableFuture<ConsumeResult> future = SettableFuture.create();
+        CompletableFuture<ConsumeResult> future0;
+        try {
+            future0 = asyncMessageListener.consume(messageView);
+            if (null == future0) {
+                future0 = new CompletableFuture<>();
+                future0.completeExceptionally(new NullPointerException("async message listener returned null"));
+            }
+        } catch (Throwable t) {
+            future0 = new CompletableFuture<>();
+            future0.completeExceptionally(t);
+        }
+        future0.whenComplete((consumeResult, t) -> {
+            if (t instanceof CompletionException && null != t.getCause()) {
+                t = t.getCause();
+            }
+            if (null != t) {
+                log.error("Async message listener raised an exception while consuming messages, clientId={}, mq={}, "
+                    + "messageId={}", clientId, messageView.getMessageQueue(), messageView.getMessageId(), t);
+            }
+            // If exception was thrown during the period of message consumption, mark it as failure.
+            final ConsumeResult result = null == t && ConsumeResult.SUCCESS.equals(consumeResult) ?
+                ConsumeResult.SUCCESS : ConsumeResult.FAILURE;
+            MessageHookPointsStatus status = ConsumeResult.SUCCESS.equals(result) ? MessageHookPointsStatus.OK :
+                MessageHookPointsStatus.ERROR;
+            final MessageInterceptorContextImpl context0 = new MessageInterceptorContextImpl(context, status);
+            if (null != t) {
+                // Add consume error to context.
+                context0.putAttribute(CONSUME_ERROR_CONTEXT_KEY, Attribute.create(t));
+            }
+            try {
+                messageInterceptor.doAfter(context0, generalMessages);
+            } finally {
+                future.set(result);
+            }
+        });
+        return future;
+    }
+}
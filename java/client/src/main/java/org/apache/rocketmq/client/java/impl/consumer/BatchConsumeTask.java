@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.apache.rocketmq.client.java.impl.consumer.ConsumeTask.CONSUME_ERROR_CONTEXT_KEY;
+import static org.apache.rocketmq.client.java.impl.consumer.ConsumeTask.REMOTE_ADDR_CONTEXT_KEY;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.apache.rocketmq.client.apis.consumer.BatchConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.BatchMessageListener;
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.apis.message.MessageView;
+import org.apache.rocketmq.client.java.hook.Attribute;
+import org.apache.rocketmq.client.java.hook.MessageHookPoints;
+import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
+import org.apache.rocketmq.client.java.hook.MessageInterceptor;
+import org.apache.rocketmq.client.java.hook.MessageInterceptorContextImpl;
+import org.apache.rocketmq.client.java.message.GeneralMessage;
+import org.apache.rocketmq.client.java.message.GeneralMessageImpl;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.rpc.LoggingInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class BatchConsumeTask implements Callable<BatchConsumeResult> {
+    private static final Logger log = LoggerFactory.getLogger(BatchConsumeTask.class);
+
+    private final ClientId clientId;
+    private final BatchMessageListener batchMessageListener;
+    private final List<MessageViewImpl> messageViews;
+    private final MessageInterceptor messageInterceptor;
+
+    public BatchConsumeTask(ClientId clientId, BatchMessageListener batchMessageListener,
+        List<MessageViewImpl> messageViews, MessageInterceptor messageInterceptor) {
+        this.clientId = clientId;
+        this.batchMessageListener = batchMessageListener;
+        this.messageViews = messageViews;
+        this.messageInterceptor = messageInterceptor;
+    }
+
+    /**
+     * Invoke {@link BatchMessageListener} to consume messages.
+     *
+     * @return result of the batch, which is never null.
+     */
+    @Override
+    public BatchConsumeResult call() {
+        BatchConsumeResult batchConsumeResult;
+        final List<GeneralMessage> generalMessages = new ArrayList<>(messageViews.size());
+        for (MessageViewImpl messageView : messageViews) {
+            generalMessages.add(new GeneralMessageImpl(messageView));
+        }
+        MessageInterceptorContextImpl context = new MessageInterceptorContextImpl(MessageHookPoints.CONSUME);
+
+        // Add remoteAddr to context.
+        String remoteAddr = LoggingInterceptor.getInstance().getRemoteAddr();
+        context.putAttribute(REMOTE_ADDR_CONTEXT_KEY, Attribute.create(remoteAddr));
+
+        messageInterceptor.doBefore(context, generalMessages);
+        Throwable throwable = null;
+        try {
+            batchConsumeResult = batchMessageListener.consume(new ArrayList<MessageView>(messageViews));
+            if (null == batchConsumeResult) {
+                log.error("Batch message listener returned null, clientId={}, mq={}, messageCount={}", clientId,
+                    messageViews.get(0).getMessageQueue(), messageViews.size());
+                batchConsumeResult = BatchConsumeResult.failure();
+            }
+        } catch (Throwable t) {
+            log.error("Batch message listener raised an exception while consuming messages, clientId={}, mq={}, "
+                + "messageCount={}", clientId, messageViews.get(0).getMessageQueue(), messageViews.size(), t);
+            // If exception was thrown during the period of message consumption, mark all of them as failure.
+            batchConsumeResult = BatchConsumeResult.failure();
+            throwable = t;
+        }
+        boolean ok = true;
+        for (int i = 0; i < messageViews.size(); i++) {
+            ok &= ConsumeResult.SUCCESS.equals(batchConsumeResult.getResult(i));
+        }
+        MessageHookPointsStatus status = ok ? MessageHookPointsStatus.OK : MessageHookPointsStatus.ERROR;
+        context = new MessageInterceptorContextImpl(context, status);
+        if (null != throwable) {
+            // Add consume error to context.
+            context.putAttribute(CONSUME_ERROR_CONTEXT_KEY, Attribute.create(throwable));
+        }
+        messageInterceptor.doAfter(context, generalMessages);
+        return batchConsumeResult;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Cache budget of messages shared by all process queues of the push consumer.
+ *
+ * <p>The budget works as a token pool, each process queue reserves tokens for the batch size before receiving
+ * messages, releases the unused tokens once the messages are received, and releases the rest once the messages are
+ * evicted from the cache. Each process queue is guaranteed an even share of the budget and could borrow the rest which
+ * is not used by others, but borrowers always leave a share of the budget free, so that the process queue beneath
+ * its share is able to take it back. Both reservation and release are O(1) regardless of the count of process
+ * queues.
+ *
+ * <p>The message count never exceeds the budget as long as the server respects the batch size. The message bytes are
+ * unknown before reception, so they are only checked before reception, which means the total bytes could exceed the
+ * budget by at most a batch per process queue.
+ */
+class CacheBudget {
+    private final long maxCount;
+    private final long maxBytes;
+    private final IntSupplier queueSize;
+
+    private final AtomicLong usedCount;
+    private final AtomicLong usedBytes;
+
+    CacheBudget(long maxCount, long maxBytes, IntSupplier queueSize) {
+        this.maxCount = maxCount;
+        this.maxBytes = maxBytes;
+        this.queueSize = queueSize;
+        this.usedCount = new AtomicLong(0);
+        this.usedBytes = new AtomicLong(0);
+    }
+
+    Account newAccount() {
+        return new Account();
+    }
+
+    long getUsedCount() {
+        return usedCount.get();
+    }
+
+    long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    private long share(long max) {
+        return Math.max(1, max / Math.max(1, queueSize.getAsInt()));
+    }
+
+    /**
+     * Get the headroom of the account, which is the rest of its share, or the free budget beyond a share.
+     */
+    private static long headroom(long max, long used, long share, long owned) {
+        final long free = max - used;
+        return Math.max(Math.min(free, share - owned), free - share);
+    }
+
+    /**
+     * Usage of the budget by a process queue, the remaining usage is released once the account is closed.
+     */
+    class Account {
+        @GuardedBy("this")
+        private long count = 0;
+        @GuardedBy("this")
+        private long bytes = 0;
+        @GuardedBy("this")
+        private boolean closed = false;
+
+        /**
+         * Try to reserve the message count before reception.
+         *
+         * @param quantity the expected message count.
+         * @return the reserved message count, which is 0 if the budget is used up.
+         */
+        synchronized int tryReserve(int quantity) {
+            if (closed) {
+                return 0;
+            }
+            final long share = share(maxCount);
+            while (true) {
+                final long used = usedCount.get();
+                final long reserved = Math.min(quantity, headroom(maxCount, used, share, count));
+                if (reserved <= 0) {
+                    return 0;
+                }
+                if (usedCount.compareAndSet(used, used + reserved)) {
+                    count += reserved;
+                    return (int) reserved;
+                }
+            }
+        }
+
+        /**
+         * Charge the account for the cached messages, regardless of the budget.
+         */
+        synchronized void charge(long quantity, long size) {
+            if (closed) {
+                return;
+            }
+            count += quantity;
+            bytes += size;
+            usedCount.addAndGet(quantity);
+            usedBytes.addAndGet(size);
+        }
+
+        void release(long quantity, long size) {
+            charge(-quantity, -size);
+        }
+
+        synchronized long getCount() {
+            return count;
+        }
+
+        synchronized long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Get the message count which could be reserved.
+         */
+        synchronized long getHeadroom() {
+            return headroom(maxCount, usedCount.get(), share(maxCount), count);
+        }
+
+        synchronized boolean isFull() {
+            return headroom(maxCount, usedCount.get(), share(maxCount), count) <= 0
+                || headroom(maxBytes, usedBytes.get(), share(maxBytes), bytes) <= 0;
+        }
+
+        /**
+         * Check whether the usage falls below the low watermark, which means that the headroom is no less than the
+         * rest of the share above the low watermark.
+         *
+         * @param ratio ratio of the low watermark to the share.
+         */
+        synchronized boolean isBelowLowWatermark(double ratio) {
+            final long countShare = share(maxCount);
+            final long bytesShare = share(maxBytes);
+            return headroom(maxCount, usedCount.get(), countShare, count) >= countShare * (1 - ratio)
+                && headroom(maxBytes, usedBytes.get(), bytesShare, bytes) >= bytesShare * (1 - ratio);
+        }
+
+        /**
+         * Close the account and release the remaining usage, any operation after closing is ignored.
+         */
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            usedCount.addAndGet(-count);
+            usedBytes.addAndGet(-bytes);
+            count = 0;
+            bytes = 0;
+        }
+    }
+}
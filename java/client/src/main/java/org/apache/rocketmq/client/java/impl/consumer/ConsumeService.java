@@ -23,11 +23,20 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.rocketmq.client.apis.consumer.AsyncMessageListener;
+import org.apache.rocketmq.client.apis.consumer.BatchConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.BatchMessageListener;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.MessageListener;
 import org.apache.rocketmq.client.java.hook.MessageInterceptor;
@@ -41,18 +50,40 @@ public abstract class ConsumeService {
     private static final Logger log = LoggerFactory.getLogger(ConsumeService.class);
 
     protected final ClientId clientId;
+    protected final ScheduledExecutorService scheduler;
     private final MessageListener messageListener;
     private final ThreadPoolExecutor consumptionExecutor;
     private final MessageInterceptor messageInterceptor;
-    private final ScheduledExecutorService scheduler;
+    private final AsyncMessageListener asyncMessageListener;
+    private final int maxAsyncInFlight;
+
+    @GuardedBy("asyncLock")
+    private final Queue<Runnable> pendingAsyncTasks;
+    @GuardedBy("asyncLock")
+    private int asyncInFlight;
+    private final Lock asyncLock;
 
     public ConsumeService(ClientId clientId, MessageListener messageListener, ThreadPoolExecutor consumptionExecutor,
+        MessageInterceptor messageInterceptor, ScheduledExecutorService scheduler) {
+        this(clientId, messageListener, null, Integer.MAX_VALUE, consumptionExecutor, messageInterceptor, scheduler);
+    }
+
+    /**
+     * Messages are consumed by the async message listener if it is not null, otherwise by the message listener.
+     */
+    public ConsumeService(ClientId clientId, MessageListener messageListener,
+        AsyncMessageListener asyncMessageListener, int maxAsyncInFlight, ThreadPoolExecutor consumptionExecutor,
         MessageInterceptor messageInterceptor, ScheduledExecutorService scheduler) {
         this.clientId = clientId;
         this.messageListener = messageListener;
         this.consumptionExecutor = consumptionExecutor;
         this.messageInterceptor = messageInterceptor;
         this.scheduler = scheduler;
+        this.asyncMessageListener = asyncMessageListener;
+        this.maxAsyncInFlight = maxAsyncInFlight;
+        this.pendingAsyncTasks = new ArrayDeque<>();
+        this.asyncInFlight = 0;
+        this.asyncLock = new ReentrantLock();
     }
 
     public abstract void consume(ProcessQueue pq, List<MessageViewImpl> messageViews);
@@ -62,15 +93,13 @@ public abstract class ConsumeService {
     }
 
     public ListenableFuture<ConsumeResult> consume(MessageViewImpl messageView, Duration delay) {
-        final ListeningExecutorService executorService = MoreExecutors.listeningDecorator(consumptionExecutor);
-        final ConsumeTask task = new ConsumeTask(clientId, messageListener, messageView, messageInterceptor);
         // Consume message with no delay.
         if (Duration.ZERO.compareTo(delay) >= 0) {
-            return executorService.submit(task);
+            return submit(messageView);
         }
         final SettableFuture<ConsumeResult> future0 = SettableFuture.create();
         scheduler.schedule(() -> {
-            final ListenableFuture<ConsumeResult> future = executorService.submit(task);
+            final ListenableFuture<ConsumeResult> future = submit(messageView);
             Futures.addCallback(future, new FutureCallback<ConsumeResult>() {
                 @Override
                 public void onSuccess(ConsumeResult consumeResult) {
@@ -87,4 +116,89 @@ public abstract class ConsumeService {
         }, delay.toNanos(), TimeUnit.NANOSECONDS);
         return future0;
     }
+
+    private ListenableFuture<ConsumeResult> submit(MessageViewImpl messageView) {
+        if (null == asyncMessageListener) {
+            final ListeningExecutorService executorService = MoreExecutors.listeningDecorator(consumptionExecutor);
+            return executorService.submit(new ConsumeTask(clientId, messageListener, messageView,
+                messageInterceptor));
+        }
+        final AsyncConsumeTask task = new AsyncConsumeTask(clientId, asyncMessageListener, messageView,
+            messageInterceptor);
+        final SettableFuture<ConsumeResult> future0 = SettableFuture.create();
+        asyncLock.lock();
+        try {
+            pendingAsyncTasks.add(() -> {
+                final ListenableFuture<ConsumeResult> future;
+                try {
+                    future = Futures.submitAsync(task, consumptionExecutor);
+                } catch (RejectedExecutionException e) {
+                    log.error("Failed to submit async consumption task, messageId={}, clientId={}",
+                        messageView.getMessageId(), clientId, e);
+                    releaseAsyncInFlight();
+                    future0.setException(e);
+                    return;
+                }
+                future.addListener(this::onAsyncTaskCompleted, MoreExecutors.directExecutor());
+                future0.setFuture(future);
+            });
+        } finally {
+            asyncLock.unlock();
+        }
+        dispatchAsyncTasks();
+        return future0;
+    }
+
+    private void onAsyncTaskCompleted() {
+        releaseAsyncInFlight();
+        dispatchAsyncTasks();
+    }
+
+    private void releaseAsyncInFlight() {
+        asyncLock.lock();
+        try {
+            asyncInFlight--;
+        } finally {
+            asyncLock.unlock();
+        }
+    }
+
+    /**
+     * Dispatch the pending async tasks until the in-flight count reaches the threshold.
+     */
+    private void dispatchAsyncTasks() {
+        while (true) {
+            final Runnable next;
+            asyncLock.lock();
+            try {
+                if (asyncInFlight >= maxAsyncInFlight) {
+                    return;
+                }
+                next = pendingAsyncTasks.poll();
+                if (null == next) {
+                    return;
+                }
+                asyncInFlight++;
+            } finally {
+                asyncLock.unlock();
+            }
+            next.run();
+        }
+    }
+
+    int getAsyncInFlight() {
+        asyncLock.lock();
+        try {
+            return asyncInFlight;
+        } finally {
+            asyncLock.unlock();
+        }
+    }
+
+    public ListenableFuture<BatchConsumeResult> consume(List<MessageViewImpl> messageViews,
+        BatchMessageListener batchMessageListener) {
+        final ListeningExecutorService executorService = MoreExecutors.listeningDecorator(consumptionExecutor);
+        return executorService.submit(new BatchConsumeTask(clientId, batchMessageListener, messageViews,
+            messageInterceptor));
+    }
 }
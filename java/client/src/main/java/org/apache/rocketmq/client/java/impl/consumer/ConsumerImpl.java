@@ -161,7 +161,7 @@ abstract class ConsumerImpl extends ClientImpl {
         try {
             final AckMessageRequest request = wrapAckMessageRequest(messageView);
             final Duration requestTimeout = clientConfiguration.getRequestTimeout();
-            future = this.getClientManager().ackMessage(endpoints, request, requestTimeout);
+            future = ackMessage0(endpoints, request, requestTimeout);
         } catch (Throwable t) {
             future = new RpcFuture<>(t);
         }
@@ -186,6 +186,14 @@ abstract class ConsumerImpl extends ClientImpl {
         return future;
     }
 
+    /**
+     * Send the ack message request, which could be overridden to aggregate requests of different messages.
+     */
+    RpcFuture<AckMessageRequest, AckMessageResponse> ackMessage0(Endpoints endpoints, AckMessageRequest request,
+        Duration requestTimeout) {
+        return this.getClientManager().ackMessage(endpoints, request, requestTimeout);
+    }
+
     RpcFuture<ChangeInvisibleDurationRequest, ChangeInvisibleDurationResponse> changeInvisibleDuration(
         MessageViewImpl messageView, Duration invisibleDuration) {
         final Endpoints endpoints = messageView.getEndpoints();
@@ -17,17 +17,19 @@
 
 package org.apache.rocketmq.client.java.impl.consumer;
 
+import com.google.common.base.Objects;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
+import org.apache.rocketmq.client.apis.consumer.AsyncMessageListener;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.MessageListener;
 import org.apache.rocketmq.client.java.hook.MessageInterceptor;
@@ -41,54 +43,136 @@ class FifoConsumeService extends ConsumeService {
     private static final Logger log = LoggerFactory.getLogger(FifoConsumeService.class);
     private final boolean enableFifoConsumeAccelerator;
 
+    /**
+     * Messages waiting for the completion of the previous message of the same message group, the head of each message
+     * group which is being consumed is not contained.
+     */
+    private final ConcurrentMap<BacklogKey, Queue<MessageViewImpl>> backlogs;
+
     public FifoConsumeService(ClientId clientId, MessageListener messageListener,
         ThreadPoolExecutor consumptionExecutor, MessageInterceptor messageInterceptor,
         ScheduledExecutorService scheduler, boolean enableFifoConsumeAccelerator) {
-        super(clientId, messageListener, consumptionExecutor, messageInterceptor, scheduler);
+        this(clientId, messageListener, consumptionExecutor, messageInterceptor, scheduler,
+            enableFifoConsumeAccelerator, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Messages are consumed by the async message listener if it is not null, otherwise by the message listener.
+     */
+    public FifoConsumeService(ClientId clientId, MessageListener messageListener,
+        ThreadPoolExecutor consumptionExecutor, MessageInterceptor messageInterceptor,
+        ScheduledExecutorService scheduler, boolean enableFifoConsumeAccelerator,
+        AsyncMessageListener asyncMessageListener, int maxAsyncInFlight) {
+        super(clientId, messageListener, asyncMessageListener, maxAsyncInFlight, consumptionExecutor,
+            messageInterceptor, scheduler);
         this.enableFifoConsumeAccelerator = enableFifoConsumeAccelerator;
+        this.backlogs = new ConcurrentHashMap<>();
     }
 
+    /**
+     * Append messages into the backlogs of their message groups, and dispatch the head of each idle message group.
+     *
+     * <p>Messages of different receptions are appended into the same backlog as long as they belong to the same
+     * message group of the same process queue, the next message of the message group is not dispatched until the
+     * previous one is erased, including its redeliveries. Messages without message group belong to the same backlog,
+     * and all messages of the process queue belong to the same backlog if the FIFO consume accelerator is disabled.
+     */
     @Override
     public void consume(ProcessQueue pq, List<MessageViewImpl> messageViews) {
-        if (!enableFifoConsumeAccelerator || messageViews.size() <= 1) {
-            consumeIteratively(pq, messageViews.iterator());
-            return;
-        }
-        Map<String, List<MessageViewImpl>> messageViewsGroupByMessageGroup = new HashMap<>();
-        List<MessageViewImpl> messageViewsWithoutMessageGroup = new ArrayList<>();
+        final List<MessageViewImpl> heads = new ArrayList<>();
         for (MessageViewImpl messageView : messageViews) {
-            Optional<String> messageGroup = messageView.getMessageGroup();
-            if (messageGroup.isPresent()) {
-                messageViewsGroupByMessageGroup.computeIfAbsent(messageGroup.get(), k -> new ArrayList<>())
-                    .add(messageView);
-            } else {
-                messageViewsWithoutMessageGroup.add(messageView);
+            final String messageGroup = enableFifoConsumeAccelerator ? messageView.getMessageGroup().orElse(null) :
+                null;
+            final BacklogKey key = new BacklogKey(pq, messageGroup);
+            // Whether the message group is idle, which means no message of the message group is being consumed.
+            final boolean[] idle = {false};
+            backlogs.compute(key, (k, backlog) -> {
+                if (null == backlog) {
+                    idle[0] = true;
+                    return new ArrayDeque<>();
+                }
+                backlog.add(messageView);
+                return backlog;
+            });
+            if (idle[0]) {
+                heads.add(messageView);
+            }
+        }
+        log.debug("FifoConsumeService dispatch message groups, messageViewsNum={}, idleGroupNum={}, mq={}",
+            messageViews.size(), heads.size(), pq.getMessageQueue());
+        for (MessageViewImpl head : heads) {
+            dispatch(pq, head);
+        }
+    }
+
+    private void dispatch(ProcessQueue pq, MessageViewImpl messageView) {
+        final BacklogKey key = new BacklogKey(pq, enableFifoConsumeAccelerator ?
+            messageView.getMessageGroup().orElse(null) : null);
+        MessageViewImpl head = messageView;
+        // Discard corrupted messages one by one until the head is able to be consumed.
+        while (head.isCorrupted()) {
+            log.error("Message is corrupted for FIFO consumption, prepare to discard it, mq={}, messageId={}, "
+                + "clientId={}", pq.getMessageQueue(), head.getMessageId(), clientId);
+            pq.discardFifoMessage(head);
+            head = next(key);
+            if (null == head) {
+                return;
             }
         }
+        final MessageViewImpl current = head;
+        final ListenableFuture<ConsumeResult> future0 = consume(current);
+        // The future is done once the message is acknowledged or forwarded to DLQ finally, redeliveries included.
+        ListenableFuture<Void> future = Futures.transformAsync(future0, result -> pq.eraseFifoMessage(current,
+            result), MoreExecutors.directExecutor());
+        future.addListener(() -> {
+            final MessageViewImpl next = next(key);
+            if (null != next) {
+                dispatch(pq, next);
+            }
+        }, MoreExecutors.directExecutor());
+    }
 
-        log.debug("FifoConsumeService parallel consume, messageViewsNum={}, groupNum={}", messageViews.size(),
-            messageViewsGroupByMessageGroup.size() + (messageViewsWithoutMessageGroup.isEmpty() ? 0 : 1));
+    /**
+     * Take the next message of the message group, the backlog is removed if there is no message left, which means
+     * the message group becomes idle.
+     */
+    private MessageViewImpl next(BacklogKey key) {
+        final MessageViewImpl[] next = {null};
+        backlogs.computeIfPresent(key, (k, backlog) -> {
+            next[0] = backlog.poll();
+            return null == next[0] ? null : backlog;
+        });
+        return next[0];
+    }
 
-        messageViewsGroupByMessageGroup.values().forEach(list -> consumeIteratively(pq, list.iterator()));
-        consumeIteratively(pq, messageViewsWithoutMessageGroup.iterator());
+    int getBacklogCount() {
+        return backlogs.size();
     }
 
-    public void consumeIteratively(ProcessQueue pq, Iterator<MessageViewImpl> iterator) {
-        if (!iterator.hasNext()) {
-            return;
+    private static class BacklogKey {
+        private final ProcessQueue pq;
+        private final String messageGroup;
+
+        BacklogKey(ProcessQueue pq, String messageGroup) {
+            this.pq = pq;
+            this.messageGroup = messageGroup;
         }
-        final MessageViewImpl messageView = iterator.next();
-        if (messageView.isCorrupted()) {
-            // Discard corrupted message.
-            log.error("Message is corrupted for FIFO consumption, prepare to discard it, mq={}, messageId={}, "
-                + "clientId={}", pq.getMessageQueue(), messageView.getMessageId(), clientId);
-            pq.discardFifoMessage(messageView);
-            consumeIteratively(pq, iterator);
-            return;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BacklogKey that = (BacklogKey) o;
+            return Objects.equal(pq, that.pq) && Objects.equal(messageGroup, that.messageGroup);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(pq, messageGroup);
         }
-        final ListenableFuture<ConsumeResult> future0 = consume(messageView);
-        ListenableFuture<Void> future = Futures.transformAsync(future0, result -> pq.eraseFifoMessage(messageView,
-            result), MoreExecutors.directExecutor());
-        future.addListener(() -> consumeIteratively(pq, iterator), MoreExecutors.directExecutor());
     }
 }
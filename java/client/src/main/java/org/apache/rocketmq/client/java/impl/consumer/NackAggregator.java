@@ -0,0 +1,406 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import apache.rocketmq.v2.ChangeInvisibleDurationRequest;
+import apache.rocketmq.v2.ChangeInvisibleDurationResponse;
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.Status;
+import com.google.common.base.Objects;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.rocketmq.client.java.exception.BadRequestException;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.rpc.RpcFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregator to coalesce the invisible duration changes of messages failed to be consumed.
+ *
+ * <p>Messages with the same endpoints and the same invisible duration are appended into the same batch, the batch is
+ * flushed once the linger duration is elapsed or the message count threshold is reached. Requests of all batches
+ * share the bounded count of in-flight requests, and messages of the batch failed to be changed are retried together
+ * by one schedule, which prevents the flood of requests once all messages fail to be consumed at the same time.
+ */
+@SuppressWarnings({"UnstableApiUsage", "NullableProblems"})
+class NackAggregator {
+    static final Duration FAILURE_BACKOFF_DELAY = ProcessQueueImpl.CHANGE_INVISIBLE_DURATION_FAILURE_BACKOFF_DELAY;
+
+    private static final Logger log = LoggerFactory.getLogger(NackAggregator.class);
+
+    private final PushConsumerImpl consumer;
+    private final Duration lingerDuration;
+    private final int maxBatchMessageCount;
+    private final int maxConcurrentRequests;
+
+    @GuardedBy("batchesLock")
+    private final Map<BatchKey, Batch> batches;
+    private final Lock batchesLock;
+
+    @GuardedBy("requestsLock")
+    private final Queue<Request> pendingRequests;
+    @GuardedBy("requestsLock")
+    private int inFlightRequests;
+    @GuardedBy("requestsLock")
+    private boolean dispatching;
+    private final Lock requestsLock;
+
+    NackAggregator(PushConsumerImpl consumer, Duration lingerDuration, int maxBatchMessageCount,
+        int maxConcurrentRequests) {
+        this.consumer = consumer;
+        this.lingerDuration = lingerDuration;
+        this.maxBatchMessageCount = maxBatchMessageCount;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.batches = new HashMap<>();
+        this.batchesLock = new ReentrantLock();
+        this.pendingRequests = new ArrayDeque<>();
+        this.inFlightRequests = 0;
+        this.dispatching = false;
+        this.requestsLock = new ReentrantLock();
+    }
+
+    /**
+     * Append the message into the batch, the returned future is completed once the invisible duration is changed
+     * successfully, or the receipt handle is invalid.
+     */
+    ListenableFuture<Void> append(MessageViewImpl messageView, Duration invisibleDuration) {
+        final SettableFuture<Void> future = SettableFuture.create();
+        final BatchKey key = new BatchKey(messageView.getEndpoints(), invisibleDuration);
+        Batch ready = null;
+        Batch created = null;
+        batchesLock.lock();
+        try {
+            Batch batch = batches.get(key);
+            if (null == batch) {
+                batch = new Batch(key, 1);
+                batches.put(key, batch);
+                created = batch;
+            }
+            batch.add(messageView, future);
+            if (batch.messageViews.size() >= maxBatchMessageCount) {
+                batches.remove(key);
+                ready = batch;
+            }
+        } finally {
+            batchesLock.unlock();
+        }
+        if (null != ready) {
+            flush(ready);
+            return future;
+        }
+        if (null != created) {
+            scheduleLingerFlush(created);
+        }
+        return future;
+    }
+
+    /**
+     * Flush all batches regardless of the linger duration, which is supposed to be invoked before shutdown.
+     */
+    void flushAll() {
+        final List<Batch> drained;
+        batchesLock.lock();
+        try {
+            drained = new ArrayList<>(batches.values());
+            batches.clear();
+        } finally {
+            batchesLock.unlock();
+        }
+        drained.forEach(this::flush);
+    }
+
+    private void scheduleLingerFlush(Batch batch) {
+        final ScheduledExecutorService scheduler = consumer.getScheduler();
+        try {
+            scheduler.schedule(() -> flushIfPresent(batch), lingerDuration.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (Throwable t) {
+            log.error("[Bug] Failed to schedule the flush of nack batch, flush it right now, clientId={}",
+                consumer.getClientId(), t);
+            flushIfPresent(batch);
+        }
+    }
+
+    private void flushIfPresent(Batch batch) {
+        batchesLock.lock();
+        try {
+            // The batch has been flushed already.
+            if (batch != batches.get(batch.key)) {
+                return;
+            }
+            batches.remove(batch.key);
+        } finally {
+            batchesLock.unlock();
+        }
+        flush(batch);
+    }
+
+    private void flush(Batch batch) {
+        final AtomicInteger remaining = new AtomicInteger(batch.messageViews.size());
+        final List<Integer> failedIndexes = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < batch.messageViews.size(); i++) {
+            final int index = i;
+            final FailureListener listener = failed -> {
+                if (failed) {
+                    failedIndexes.add(index);
+                }
+                if (0 == remaining.decrementAndGet() && !failedIndexes.isEmpty()) {
+                    retryLater(batch, failedIndexes);
+                }
+            };
+            submit(new Request(() -> changeInvisibleDuration(batch, index, listener), listener));
+        }
+    }
+
+    private void changeInvisibleDuration(Batch batch, int index, FailureListener listener) {
+        final MessageViewImpl messageView = batch.messageViews.get(index);
+        final SettableFuture<Void> future0 = batch.futures.get(index);
+        final RpcFuture<ChangeInvisibleDurationRequest, ChangeInvisibleDurationResponse> future =
+            consumer.changeInvisibleDuration(messageView, batch.key.invisibleDuration);
+        Futures.addCallback(future, new FutureCallback<ChangeInvisibleDurationResponse>() {
+            @Override
+            public void onSuccess(ChangeInvisibleDurationResponse response) {
+                final Status status = response.getStatus();
+                final Code code = status.getCode();
+                if (Code.INVALID_RECEIPT_HANDLE.equals(code)) {
+                    final String requestId = future.getContext().getRequestId();
+                    log.error("Failed to change invisible duration due to the invalid receipt handle, forgive to "
+                            + "retry, clientId={}, consumerGroup={}, messageId={}, attempt={}, endpoints={}, "
+                            + "requestId={}, status message=[{}]", consumer.getClientId(),
+                        consumer.getConsumerGroup(), messageView.getMessageId(), batch.attempt,
+                        batch.key.endpoints, requestId, status.getMessage());
+                    future0.setException(new BadRequestException(code.getNumber(), requestId, status.getMessage()));
+                    onRequestCompleted(listener, false);
+                    return;
+                }
+                if (!Code.OK.equals(code)) {
+                    log.error("Failed to change invisible duration, would retry later, clientId={}, "
+                            + "consumerGroup={}, messageId={}, attempt={}, endpoints={}, requestId={}, code={}, "
+                            + "status message=[{}]", consumer.getClientId(), consumer.getConsumerGroup(),
+                        messageView.getMessageId(), batch.attempt, batch.key.endpoints,
+                        future.getContext().getRequestId(), code, status.getMessage());
+                    onRequestCompleted(listener, true);
+                    return;
+                }
+                future0.set(null);
+                onRequestCompleted(listener, false);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                log.error("Exception raised while changing invisible duration, would retry later, clientId={}, "
+                        + "consumerGroup={}, messageId={}, attempt={}, endpoints={}", consumer.getClientId(),
+                    consumer.getConsumerGroup(), messageView.getMessageId(), batch.attempt, batch.key.endpoints, t);
+                onRequestCompleted(listener, true);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void retryLater(Batch batch, List<Integer> failedIndexes) {
+        final Batch retried = new Batch(batch.key, 1 + batch.attempt);
+        synchronized (failedIndexes) {
+            for (int index : failedIndexes) {
+                retried.add(batch.messageViews.get(index), batch.futures.get(index));
+            }
+        }
+        log.error("Failed to change invisible duration of part of the batch, would retry later, clientId={}, "
+                + "consumerGroup={}, endpoints={}, failed={}, total={}, attempt={}", consumer.getClientId(),
+            consumer.getConsumerGroup(), batch.key.endpoints, retried.messageViews.size(), batch.messageViews.size(),
+            batch.attempt);
+        scheduleRetry(retried);
+    }
+
+    private void scheduleRetry(Batch batch) {
+        final ScheduledExecutorService scheduler = consumer.getScheduler();
+        try {
+            scheduler.schedule(() -> flush(batch), FAILURE_BACKOFF_DELAY.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (Throwable t) {
+            if (scheduler.isShutdown()) {
+                return;
+            }
+            // Should never reach here.
+            log.error("[Bug] Failed to schedule the retry of nack batch, clientId={}", consumer.getClientId(), t);
+            scheduleRetry(batch);
+        }
+    }
+
+    private void submit(Request request) {
+        requestsLock.lock();
+        try {
+            pendingRequests.add(request);
+        } finally {
+            requestsLock.unlock();
+        }
+        dispatch();
+    }
+
+    private void onRequestCompleted(FailureListener listener, boolean failed) {
+        requestsLock.lock();
+        try {
+            inFlightRequests--;
+        } finally {
+            requestsLock.unlock();
+        }
+        listener.onCompleted(failed);
+        dispatch();
+    }
+
+    /**
+     * Send pending requests until the in-flight requests reach the threshold, requests completed immediately during
+     * dispatching are handed over to the current dispatching loop rather than recursion. The request which fails to
+     * be sent is regarded as failed, so that it is retried along with its batch.
+     */
+    private void dispatch() {
+        requestsLock.lock();
+        try {
+            if (dispatching) {
+                return;
+            }
+            dispatching = true;
+        } finally {
+            requestsLock.unlock();
+        }
+        boolean drained = false;
+        try {
+            while (true) {
+                final Request next;
+                requestsLock.lock();
+                try {
+                    next = inFlightRequests < maxConcurrentRequests ? pendingRequests.poll() : null;
+                    if (null == next) {
+                        dispatching = false;
+                        drained = true;
+                        return;
+                    }
+                    inFlightRequests++;
+                } finally {
+                    requestsLock.unlock();
+                }
+                try {
+                    next.task.run();
+                } catch (Throwable t) {
+                    log.error("Exception raised while sending the nack request, would retry later, clientId={}",
+                        consumer.getClientId(), t);
+                    requestsLock.lock();
+                    try {
+                        inFlightRequests--;
+                    } finally {
+                        requestsLock.unlock();
+                    }
+                    next.listener.onCompleted(true);
+                }
+            }
+        } finally {
+            // Release the dispatching flag if the loop is broken unexpectedly, otherwise no one would dispatch again.
+            if (!drained) {
+                requestsLock.lock();
+                try {
+                    dispatching = false;
+                } finally {
+                    requestsLock.unlock();
+                }
+            }
+        }
+    }
+
+    int getInFlightRequests() {
+        requestsLock.lock();
+        try {
+            return inFlightRequests;
+        } finally {
+            requestsLock.unlock();
+        }
+    }
+
+    private interface FailureListener {
+        void onCompleted(boolean failed);
+    }
+
+    private static class Request {
+        private final Runnable task;
+        private final FailureListener listener;
+
+        Request(Runnable task, FailureListener listener) {
+            this.task = task;
+            this.listener = listener;
+        }
+    }
+
+    private static class Batch {
+        private final BatchKey key;
+        private final int attempt;
+        private final List<MessageViewImpl> messageViews = new ArrayList<>();
+        private final List<SettableFuture<Void>> futures = new ArrayList<>();
+
+        Batch(BatchKey key, int attempt) {
+            this.key = key;
+            this.attempt = attempt;
+        }
+
+        void add(MessageViewImpl messageView, SettableFuture<Void> future) {
+            messageViews.add(messageView);
+            futures.add(future);
+        }
+    }
+
+    private static class BatchKey {
+        private final Endpoints endpoints;
+        private final Duration invisibleDuration;
+
+        BatchKey(Endpoints endpoints, Duration invisibleDuration) {
+            this.endpoints = endpoints;
+            this.invisibleDuration = invisibleDuration;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey that = (BatchKey) o;
+            return Objects.equal(endpoints, that.endpoints) && Objects.equal(invisibleDuration,
+                that.invisibleDuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(endpoints, invisibleDuration);
+        }
+    }
+}
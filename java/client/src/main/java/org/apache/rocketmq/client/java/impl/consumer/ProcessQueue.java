@@ -18,6 +18,7 @@
 package org.apache.rocketmq.client.java.impl.consumer;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import java.time.Duration;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.PushConsumer;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
@@ -80,6 +81,13 @@ public interface ProcessQueue {
      */
     void drop();
 
+    /**
+     * Check if the process queue has been dropped.
+     *
+     * @return if it is dropped.
+     */
+    boolean isDropped();
+
     /**
      * {@link ProcessQueue} would be regarded as expired if no fetch message for a long time.
      *
@@ -136,6 +144,20 @@ public interface ProcessQueue {
      */
     long getCachedMessageBytes();
 
+    /**
+     * Get the batch size of the next message reception, which is adapted by the history of reception.
+     *
+     * @return batch size of the next message reception.
+     */
+    int getReceiveBatchSize();
+
+    /**
+     * Get the long-polling timeout of the next message reception, which is adapted by the history of reception.
+     *
+     * @return long-polling timeout of the next message reception.
+     */
+    Duration getLongPollingTimeout();
+
     /**
      * Do some stats work.
      */
@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 import org.apache.rocketmq.client.java.metrics.GaugeEnum;
 import org.apache.rocketmq.client.java.metrics.GaugeObserver;
 import org.apache.rocketmq.client.java.metrics.MetricLabels;
@@ -43,6 +44,8 @@ public class ProcessQueueGaugeObserver implements GaugeObserver {
         this.gauges = new ArrayList<>();
         gauges.add(GaugeEnum.CONSUMER_CACHED_MESSAGES);
         gauges.add(GaugeEnum.CONSUMER_CACHED_BYTES);
+        gauges.add(GaugeEnum.CONSUMER_RECEIVE_BATCH_SIZE);
+        gauges.add(GaugeEnum.CONSUMER_LONG_POLLING_TIMEOUT);
     }
 
     @Override
@@ -83,8 +86,29 @@ public class ProcessQueueGaugeObserver implements GaugeObserver {
                     cachedMessageBytesMap.put(attributes, bytes);
                 }
                 return cachedMessageBytesMap;
+            case CONSUMER_RECEIVE_BATCH_SIZE:
+                return average(pq -> (double) pq.getReceiveBatchSize());
+            case CONSUMER_LONG_POLLING_TIMEOUT:
+                return average(pq -> (double) pq.getLongPollingTimeout().toMillis());
             default:
                 return new HashMap<>();
         }
     }
+
+    private Map<Attributes, Double> average(Function<ProcessQueue, Double> valueFunction) {
+        Map<Attributes, Double> sumMap = new HashMap<>();
+        Map<Attributes, Integer> countMap = new HashMap<>();
+        for (ProcessQueue pq : processQueueTable.values()) {
+            final String topic = pq.getMessageQueue().getTopic();
+            Attributes attributes = Attributes.builder()
+                .put(MetricLabels.TOPIC, topic)
+                .put(MetricLabels.CONSUMER_GROUP, consumerGroup)
+                .put(MetricLabels.CLIENT_ID, clientId.toString())
+                .build();
+            sumMap.merge(attributes, valueFunction.apply(pq), Double::sum);
+            countMap.merge(attributes, 1, Integer::sum);
+        }
+        sumMap.replaceAll((attributes, sum) -> sum / countMap.get(attributes));
+        return sumMap;
+    }
 }
@@ -31,7 +31,6 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
-import com.google.errorprone.annotations.concurrent.GuardedBy;
 import io.grpc.StatusRuntimeException;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -39,11 +38,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
@@ -84,7 +85,16 @@ class ProcessQueueImpl implements ProcessQueue {
 
     private static final Duration RECEIVING_FLOW_CONTROL_BACKOFF_DELAY = Duration.ofMillis(20);
     private static final Duration RECEIVING_FAILURE_BACKOFF_DELAY = Duration.ofSeconds(1);
+    /**
+     * Reception suspended due to the full cache is resumed by the eviction of messages once the cache falls below the
+     * low watermark, the delay is only a safety net in case that no eviction happens.
+     */
     private static final Duration RECEIVING_BACKOFF_DELAY_WHEN_CACHE_IS_FULL = Duration.ofSeconds(1);
+    /**
+     * Ratio of the low watermark to the share of the cache budget, the gap between them avoids resuming reception for
+     * every single eviction.
+     */
+    private static final double CACHE_LOW_WATERMARK_RATIO = 0.5;
 
     private final PushConsumerImpl consumer;
 
@@ -97,16 +107,31 @@ class ProcessQueueImpl implements ProcessQueue {
 
     /**
      * Messages which is pending means have been cached, but are not taken by consumer dispatcher yet.
+     *
+     * <p>{@link MessageViewImpl} does not override {@link Object#equals(Object)}, so the map is keyed by identity,
+     * which makes both caching and eviction O(1) without any lock. The value is the times that the message view is
+     * cached, which is always 1 unless the same instance is cached repeatedly.
      */
-    @GuardedBy("cachedMessageLock")
-    private final List<MessageViewImpl> cachedMessages;
-    private final ReadWriteLock cachedMessageLock;
+    private final ConcurrentMap<MessageViewImpl, Integer> cachedMessages;
 
+    private final AtomicInteger cachedMessagesQuantity;
     private final AtomicLong cachedMessagesBytes;
 
     private final AtomicLong receptionTimes;
     private final AtomicLong receivedMessagesQuantity;
 
+    private final ReceptionController receptionController;
+
+    /**
+     * Usage of the cache budget, which covers both the cached messages and the messages being received.
+     */
+    private final CacheBudget.Account cacheAccount;
+
+    /**
+     * Indicates that the reception is suspended because the cache is full, whoever resets it takes over the reception.
+     */
+    private final AtomicBoolean receptionSuspended;
+
     private volatile long activityNanoTime = System.nanoTime();
     private volatile long cacheFullNanoTime = Long.MIN_VALUE;
 
@@ -115,11 +140,14 @@ class ProcessQueueImpl implements ProcessQueue {
         this.dropped = false;
         this.mq = mq;
         this.filterExpression = filterExpression;
-        this.cachedMessages = new ArrayList<>();
-        this.cachedMessageLock = new ReentrantReadWriteLock();
+        this.cachedMessages = new ConcurrentHashMap<>();
+        this.cachedMessagesQuantity = new AtomicInteger();
         this.cachedMessagesBytes = new AtomicLong();
         this.receptionTimes = new AtomicLong(0);
         this.receivedMessagesQuantity = new AtomicLong(0);
+        this.receptionController = new ReceptionController();
+        this.cacheAccount = consumer.getCacheBudget().newAccount();
+        this.receptionSuspended = new AtomicBoolean(false);
     }
 
     @Override
@@ -130,6 +158,12 @@ class ProcessQueueImpl implements ProcessQueue {
     @Override
     public void drop() {
         this.dropped = true;
+        cacheAccount.close();
+    }
+
+    @Override
+    public boolean isDropped() {
+        return dropped;
     }
 
     @Override
@@ -151,21 +185,31 @@ class ProcessQueueImpl implements ProcessQueue {
     }
 
     void cacheMessages(List<MessageViewImpl> messageList) {
-        cachedMessageLock.writeLock().lock();
-        try {
-            for (MessageViewImpl messageView : messageList) {
-                cachedMessages.add(messageView);
-                cachedMessagesBytes.addAndGet(messageView.getBody().remaining());
-            }
-        } finally {
-            cachedMessageLock.writeLock().unlock();
+        for (MessageViewImpl messageView : messageList) {
+            cachedMessages.merge(messageView, 1, Integer::sum);
+            cachedMessagesQuantity.incrementAndGet();
+            cachedMessagesBytes.addAndGet(messageView.getBody().remaining());
+            cacheAccount.charge(1, messageView.getBody().remaining());
         }
     }
 
-    private int getReceptionBatchSize() {
-        int bufferSize = consumer.cacheMessageCountThresholdPerQueue() - this.cachedMessagesCount();
-        bufferSize = Math.max(bufferSize, 1);
-        return Math.min(bufferSize, consumer.getSettings().getReceiveBatchSize());
+    /**
+     * Reserve the cache budget for the batch size before reception.
+     *
+     * @return the batch size, which is 0 if the cache budget is used up.
+     */
+    private int reserveReceptionBatchSize() {
+        final int batchSize = receptionController.getBatchSize(consumer.getSettings().getReceiveBatchSize(),
+            consumer.getMaxReceiveBatchSize());
+        return cacheAccount.tryReserve(batchSize);
+    }
+
+    private void adaptReception(int batchSize, int receivedQuantity) {
+        // The reserved batch size is not released yet, which would be replaced by the received messages.
+        final long headroom = cacheAccount.getHeadroom() + batchSize - receivedQuantity;
+        final boolean keepUp = headroom >= 2L * batchSize;
+        receptionController.onReceived(consumer.getSettings().getReceiveBatchSize(),
+            consumer.getMaxReceiveBatchSize(), batchSize, receivedQuantity, keepUp);
     }
 
     @Override
@@ -200,6 +244,48 @@ class ProcessQueueImpl implements ProcessQueue {
         }
     }
 
+    private void resumeReceptionLater(String attemptId) {
+        final ClientId clientId = consumer.getClientId();
+        final ScheduledExecutorService scheduler = consumer.getScheduler();
+        try {
+            scheduler.schedule(() -> {
+                // Reception has been resumed by the eviction already.
+                if (!receptionSuspended.compareAndSet(true, false)) {
+                    return;
+                }
+                receiveMessage(attemptId);
+            }, RECEIVING_BACKOFF_DELAY_WHEN_CACHE_IS_FULL.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (Throwable t) {
+            if (scheduler.isShutdown()) {
+                return;
+            }
+            // Should never reach here.
+            log.error("[Bug] Failed to schedule the resumption of message reception, mq={}, clientId={}", mq,
+                clientId, t);
+            if (receptionSuspended.compareAndSet(true, false)) {
+                onReceiveMessageException(t, attemptId);
+            }
+        }
+    }
+
+    /**
+     * Resume the suspended reception once the cache falls below the low watermark.
+     */
+    private void tryResumeReception() {
+        if (!receptionSuspended.get()) {
+            return;
+        }
+        if (!cacheAccount.isBelowLowWatermark(CACHE_LOW_WATERMARK_RATIO)) {
+            return;
+        }
+        if (!receptionSuspended.compareAndSet(true, false)) {
+            return;
+        }
+        log.info("Process queue cache falls below the low watermark, resume message reception, mq={}, clientId={}",
+            mq, consumer.getClientId());
+        receiveMessage();
+    }
+
     private String generateAttemptId() {
         return UUID.randomUUID().toString();
     }
@@ -216,12 +302,21 @@ class ProcessQueueImpl implements ProcessQueue {
         }
         if (this.isCacheFull()) {
             log.warn("Process queue cache is full, would receive message later, mq={}, clientId={}", mq, clientId);
-            receiveMessageLater(RECEIVING_BACKOFF_DELAY_WHEN_CACHE_IS_FULL, attemptId);
+            suspendReception(attemptId);
             return;
         }
         receiveMessageImmediately(attemptId);
     }
 
+    private void suspendReception(String attemptId) {
+        receptionController.onCacheFull(consumer.getSettings().getReceiveBatchSize(),
+            consumer.getMaxReceiveBatchSize());
+        receptionSuspended.set(true);
+        resumeReceptionLater(attemptId);
+        // The eviction may happen before the flag is set, which would not resume the reception, check it again.
+        tryResumeReception();
+    }
+
     private void receiveMessageImmediately() {
         receiveMessageImmediately(this.generateAttemptId());
     }
@@ -232,10 +327,18 @@ class ProcessQueueImpl implements ProcessQueue {
             log.info("Stop to receive message because consumer is not running, mq={}, clientId={}", mq, clientId);
             return;
         }
+        final int batchSize = this.reserveReceptionBatchSize();
+        if (batchSize <= 0) {
+            log.warn("Process queue cache budget is used up, would receive message later, mq={}, clientId={}", mq,
+                clientId);
+            cacheFullNanoTime = System.nanoTime();
+            suspendReception(attemptId);
+            return;
+        }
         try {
             final Endpoints endpoints = mq.getBroker().getEndpoints();
-            final int batchSize = this.getReceptionBatchSize();
-            final Duration longPollingTimeout = consumer.getSettings().getLongPollingTimeout();
+            final Duration longPollingTimeout =
+                receptionController.getLongPollingTimeout(consumer.getSettings().getLongPollingTimeout());
             final ReceiveMessageRequest request = consumer.wrapReceiveMessageRequest(batchSize, mq, filterExpression,
                 longPollingTimeout, attemptId);
             activityNanoTime = System.nanoTime();
@@ -246,9 +349,13 @@ class ProcessQueueImpl implements ProcessQueue {
 
             final ListenableFuture<ReceiveMessageResult> future = consumer.receiveMessage(request, mq,
                 longPollingTimeout);
+            receptionTimes.getAndIncrement();
+            consumer.getReceptionTimes().getAndIncrement();
+            // The reservation is released by the callback from now on.
             Futures.addCallback(future, new FutureCallback<ReceiveMessageResult>() {
                     @Override
                     public void onSuccess(ReceiveMessageResult result) {
+                        adaptReception(batchSize, result.getMessageViewImpls().size());
                         // Intercept after message reception.
                         final List<GeneralMessage> generalMessages = result.getMessageViewImpls().stream()
                             .map((Function<MessageView, GeneralMessage>) GeneralMessageImpl::new)
@@ -296,7 +403,7 @@ class ProcessQueueImpl implements ProcessQueue {
                                 // Create new ReceiveMessageResult with filtered messages.
                                 ReceiveMessageResult filteredResult =
                                     ReceiveMessageResult.createFilteredResult(result, remainingMessages);
-                                onReceiveMessageResult(filteredResult);
+                                onReceiveMessageResult(filteredResult, batchSize);
                             } catch (Throwable t) {
                                 // Should never reach here.
                                 log.error("[Bug] Exception raised while handling receive result, mq={}, endpoints={}, "
@@ -306,7 +413,7 @@ class ProcessQueueImpl implements ProcessQueue {
                         } else {
                             // When filtering is disabled, use original result directly to avoid performance overhead.
                             try {
-                                onReceiveMessageResult(result);
+                                onReceiveMessageResult(result, batchSize);
                             } catch (Throwable t) {
                                 // Should never reach here.
                                 log.error("[Bug] Exception raised while handling receive result, mq={}, endpoints={}, "
@@ -318,6 +425,7 @@ class ProcessQueueImpl implements ProcessQueue {
 
                     @Override
                     public void onFailure(Throwable t) {
+                        cacheAccount.release(batchSize, 0);
                         String nextAttemptId = null;
                         if (t instanceof StatusRuntimeException) {
                             StatusRuntimeException exception = (StatusRuntimeException) t;
@@ -336,34 +444,21 @@ class ProcessQueueImpl implements ProcessQueue {
                         onReceiveMessageException(t, nextAttemptId);
                     }
                 }, MoreExecutors.directExecutor());
-            receptionTimes.getAndIncrement();
-            consumer.getReceptionTimes().getAndIncrement();
         } catch (Throwable t) {
             log.error("Exception raised during message reception, mq={}, clientId={}", mq, clientId, t);
+            cacheAccount.release(batchSize, 0);
             onReceiveMessageException(t, attemptId);
         }
     }
 
     public boolean isCacheFull() {
-        final int cacheMessageCountThresholdPerQueue = consumer.cacheMessageCountThresholdPerQueue();
-        final long actualMessagesQuantity = this.cachedMessagesCount();
-        final ClientId clientId = consumer.getClientId();
-        if (cacheMessageCountThresholdPerQueue <= actualMessagesQuantity) {
-            log.warn("Process queue total cached messages quantity exceeds the threshold, threshold={}, actual={}," +
-                " mq={}, clientId={}", cacheMessageCountThresholdPerQueue, actualMessagesQuantity, mq, clientId);
-            cacheFullNanoTime = System.nanoTime();
-            return true;
-        }
-        final int cacheMessageBytesThresholdPerQueue = consumer.cacheMessageBytesThresholdPerQueue();
-        final long actualCachedMessagesBytes = this.cachedMessageBytes();
-        if (cacheMessageBytesThresholdPerQueue <= actualCachedMessagesBytes) {
-            log.warn("Process queue total cached messages memory exceeds the threshold, threshold={} bytes," +
-                    " actual={} bytes, mq={}, clientId={}", cacheMessageBytesThresholdPerQueue,
-                actualCachedMessagesBytes, mq, clientId);
-            cacheFullNanoTime = System.nanoTime();
-            return true;
+        if (!cacheAccount.isFull()) {
+            return false;
         }
-        return false;
+        log.warn("Process queue cache budget is used up, count={}, bytes={}, mq={}, clientId={}",
+            cacheAccount.getCount(), cacheAccount.getBytes(), mq, consumer.getClientId());
+        cacheFullNanoTime = System.nanoTime();
+        return true;
     }
 
     @Override
@@ -383,22 +478,19 @@ class ProcessQueueImpl implements ProcessQueue {
     }
 
     public int cachedMessagesCount() {
-        cachedMessageLock.readLock().lock();
-        try {
-            return cachedMessages.size();
-        } finally {
-            cachedMessageLock.readLock().unlock();
-        }
+        return cachedMessagesQuantity.get();
     }
 
     public long cachedMessageBytes() {
         return cachedMessagesBytes.get();
     }
 
-    private void onReceiveMessageResult(ReceiveMessageResult result) {
+    private void onReceiveMessageResult(ReceiveMessageResult result, int reservedQuantity) {
         final List<MessageViewImpl> messages = result.getMessageViewImpls();
+        // Cache messages before releasing the reservation, so that the budget is never taken by others in between.
+        cacheMessages(messages);
+        cacheAccount.release(reservedQuantity, 0);
         if (!messages.isEmpty()) {
-            cacheMessages(messages);
             receivedMessagesQuantity.getAndAdd(messages.size());
             consumer.getReceivedMessagesQuantity().getAndAdd(messages.size());
             consumer.getConsumeService().consume(this, messages);
@@ -407,13 +499,20 @@ class ProcessQueueImpl implements ProcessQueue {
     }
 
     private void evictCache(MessageViewImpl messageView) {
-        cachedMessageLock.writeLock().lock();
-        try {
-            if (cachedMessages.remove(messageView)) {
+        while (true) {
+            final Integer times = cachedMessages.get(messageView);
+            if (null == times) {
+                return;
+            }
+            final boolean evicted = 1 == times ? cachedMessages.remove(messageView, times) :
+                cachedMessages.replace(messageView, times, times - 1);
+            if (evicted) {
+                cachedMessagesQuantity.decrementAndGet();
                 cachedMessagesBytes.addAndGet(-messageView.getBody().remaining());
+                cacheAccount.release(1, messageView.getBody().remaining());
+                tryResumeReception();
+                return;
             }
-        } finally {
-            cachedMessageLock.writeLock().unlock();
         }
     }
 
@@ -436,6 +535,10 @@ class ProcessQueueImpl implements ProcessQueue {
     private ListenableFuture<Void> nackMessage(final MessageViewImpl messageView) {
         final int deliveryAttempt = messageView.getDeliveryAttempt();
         final Duration duration = consumer.getRetryPolicy().getNextAttemptDelay(deliveryAttempt);
+        final NackAggregator nackAggregator = consumer.getNackAggregator();
+        if (null != nackAggregator) {
+            return nackAggregator.append(messageView, duration);
+        }
         final SettableFuture<Void> future0 = SettableFuture.create();
         changeInvisibleDuration(messageView, duration, 1, future0);
         return future0;
@@ -697,12 +800,7 @@ class ProcessQueueImpl implements ProcessQueue {
 
     @Override
     public long getCachedMessageCount() {
-        cachedMessageLock.readLock().lock();
-        try {
-            return cachedMessages.size();
-        } finally {
-            cachedMessageLock.readLock().unlock();
-        }
+        return cachedMessagesQuantity.get();
     }
 
     @Override
@@ -710,12 +808,24 @@ class ProcessQueueImpl implements ProcessQueue {
         return cachedMessagesBytes.get();
     }
 
+    @Override
+    public int getReceiveBatchSize() {
+        return receptionController.getBatchSize(consumer.getSettings().getReceiveBatchSize(),
+            consumer.getMaxReceiveBatchSize());
+    }
+
+    @Override
+    public Duration getLongPollingTimeout() {
+        return receptionController.getLongPollingTimeout(consumer.getSettings().getLongPollingTimeout());
+    }
+
     @ExcludeFromJacocoGeneratedReport
     public void doStats() {
         final long receptionTimes = this.receptionTimes.getAndSet(0);
         final long receivedMessagesQuantity = this.receivedMessagesQuantity.getAndSet(0);
         log.info("Process queue stats: clientId={}, mq={}, receptionTimes={}, receivedMessageQuantity={}, "
-            + "cachedMessageCount={}, cachedMessageBytes={}", consumer.getClientId(), mq, receptionTimes,
-            receivedMessagesQuantity, this.getCachedMessageCount(), this.getCachedMessageBytes());
+            + "cachedMessageCount={}, cachedMessageBytes={}, receiveBatchSize={}, longPollingTimeout={}",
+            consumer.getClientId(), mq, receptionTimes, receivedMessagesQuantity, this.getCachedMessageCount(),
+            this.getCachedMessageBytes(), this.getReceiveBatchSize(), this.getLongPollingTimeout());
     }
 }
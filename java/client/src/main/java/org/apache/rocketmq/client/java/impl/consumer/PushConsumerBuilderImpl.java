@@ -21,10 +21,13 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.apache.rocketmq.client.java.impl.consumer.ConsumerImpl.CONSUMER_GROUP_PATTERN;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.consumer.AsyncMessageListener;
+import org.apache.rocketmq.client.apis.consumer.BatchMessageListener;
 import org.apache.rocketmq.client.apis.consumer.FilterExpression;
 import org.apache.rocketmq.client.apis.consumer.MessageListener;
 import org.apache.rocketmq.client.apis.consumer.PushConsumer;
@@ -43,6 +46,7 @@ public class PushConsumerBuilderImpl implements PushConsumerBuilder {
     private int consumptionThreadCount = 20;
     private boolean enableFifoConsumeAccelerator = false;
     private boolean enableMessageInterceptorFiltering = false;
+    private final PushConsumerOptions options = new PushConsumerOptions();
 
     /**
      * @see PushConsumerBuilder#setClientConfiguration(ClientConfiguration)
@@ -85,6 +89,31 @@ public class PushConsumerBuilderImpl implements PushConsumerBuilder {
         return this;
     }
 
+    /**
+     * @see PushConsumerBuilder#setBatchMessageListener(BatchMessageListener, int, Duration)
+     */
+    @Override
+    public PushConsumerBuilder setBatchMessageListener(BatchMessageListener listener, int maxBatchSize,
+        Duration maxWait) {
+        checkNotNull(listener, "listener should not be null");
+        checkArgument(maxBatchSize > 0, "maxBatchSize should be positive");
+        checkNotNull(maxWait, "maxWait should not be null");
+        checkArgument(!maxWait.isNegative(), "maxWait should not be negative");
+        options.setBatchMessageListener(listener, maxBatchSize, maxWait);
+        return this;
+    }
+
+    /**
+     * @see PushConsumerBuilder#setAsyncMessageListener(AsyncMessageListener, int)
+     */
+    @Override
+    public PushConsumerBuilder setAsyncMessageListener(AsyncMessageListener listener, int maxInFlight) {
+        checkNotNull(listener, "listener should not be null");
+        checkArgument(maxInFlight > 0, "maxInFlight should be positive");
+        options.setAsyncMessageListener(listener, maxInFlight);
+        return this;
+    }
+
     /**
      * @see PushConsumerBuilder#setMaxCacheMessageCount(int)
      */
@@ -132,6 +161,68 @@ public class PushConsumerBuilderImpl implements PushConsumerBuilder {
         return this;
     }
 
+    /**
+     * @see PushConsumerBuilder#setAckBatchLingerDuration(Duration)
+     */
+    @Override
+    public PushConsumerBuilder setAckBatchLingerDuration(Duration lingerDuration) {
+        checkNotNull(lingerDuration, "lingerDuration should not be null");
+        checkArgument(!lingerDuration.isNegative(), "lingerDuration should not be negative");
+        options.setAckBatchLingerDuration(lingerDuration);
+        return this;
+    }
+
+    /**
+     * @see PushConsumerBuilder#setMaxAckBatchMessageCount(int)
+     */
+    @Override
+    public PushConsumerBuilder setMaxAckBatchMessageCount(int maxAckBatchMessageCount) {
+        checkArgument(maxAckBatchMessageCount > 0, "maxAckBatchMessageCount should be positive");
+        options.setMaxAckBatchEntryCount(maxAckBatchMessageCount);
+        return this;
+    }
+
+    /**
+     * @see PushConsumerBuilder#setNackBatchLingerDuration(Duration)
+     */
+    @Override
+    public PushConsumerBuilder setNackBatchLingerDuration(Duration lingerDuration) {
+        checkNotNull(lingerDuration, "lingerDuration should not be null");
+        checkArgument(!lingerDuration.isNegative(), "lingerDuration should not be negative");
+        options.setNackBatchLingerDuration(lingerDuration);
+        return this;
+    }
+
+    /**
+     * @see PushConsumerBuilder#setMaxNackBatchMessageCount(int)
+     */
+    @Override
+    public PushConsumerBuilder setMaxNackBatchMessageCount(int maxNackBatchMessageCount) {
+        checkArgument(maxNackBatchMessageCount > 0, "maxNackBatchMessageCount should be positive");
+        options.setMaxNackBatchMessageCount(maxNackBatchMessageCount);
+        return this;
+    }
+
+    /**
+     * @see PushConsumerBuilder#setMaxNackConcurrentRequests(int)
+     */
+    @Override
+    public PushConsumerBuilder setMaxNackConcurrentRequests(int maxNackConcurrentRequests) {
+        checkArgument(maxNackConcurrentRequests > 0, "maxNackConcurrentRequests should be positive");
+        options.setMaxNackConcurrentRequests(maxNackConcurrentRequests);
+        return this;
+    }
+
+    /**
+     * @see PushConsumerBuilder#setMaxReceiveBatchSize(int)
+     */
+    @Override
+    public PushConsumerBuilder setMaxReceiveBatchSize(int maxReceiveBatchSize) {
+        checkArgument(maxReceiveBatchSize > 0, "maxReceiveBatchSize should be positive");
+        options.setMaxReceiveBatchSize(maxReceiveBatchSize);
+        return this;
+    }
+
     /**
      * @see PushConsumerBuilder#build()
      */
@@ -139,11 +230,15 @@ public class PushConsumerBuilderImpl implements PushConsumerBuilder {
     public PushConsumer build() throws ClientException {
         checkNotNull(clientConfiguration, "clientConfiguration has not been set yet");
         checkNotNull(consumerGroup, "consumerGroup has not been set yet");
-        checkNotNull(messageListener, "messageListener has not been set yet");
+        final int listenerCount = (null == messageListener ? 0 : 1)
+            + (null == options.getBatchMessageListener() ? 0 : 1) + (null == options.getAsyncMessageListener() ? 0 : 1);
+        checkArgument(listenerCount > 0, "messageListener has not been set yet");
+        checkArgument(listenerCount == 1, "only one of messageListener, batchMessageListener and "
+            + "asyncMessageListener could be set");
         checkArgument(!subscriptionExpressions.isEmpty(), "subscriptionExpressions have not been set yet");
         final PushConsumerImpl pushConsumer = new PushConsumerImpl(clientConfiguration, consumerGroup,
             subscriptionExpressions, messageListener, maxCacheMessageCount, maxCacheMessageSizeInBytes,
-            consumptionThreadCount, enableFifoConsumeAccelerator, enableMessageInterceptorFiltering);
+            consumptionThreadCount, enableFifoConsumeAccelerator, enableMessageInterceptorFiltering, options);
         pushConsumer.startAsync().awaitRunning();
         return pushConsumer;
     }
@@ -17,6 +17,8 @@
 
 package org.apache.rocketmq.client.java.impl.consumer;
 
+import apache.rocketmq.v2.AckMessageRequest;
+import apache.rocketmq.v2.AckMessageResponse;
 import apache.rocketmq.v2.Code;
 import apache.rocketmq.v2.ForwardMessageToDeadLetterQueueRequest;
 import apache.rocketmq.v2.ForwardMessageToDeadLetterQueueResponse;
@@ -50,6 +52,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.consumer.AsyncMessageListener;
+import org.apache.rocketmq.client.apis.consumer.BatchMessageListener;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.FilterExpression;
 import org.apache.rocketmq.client.apis.consumer.MessageListener;
@@ -97,11 +101,18 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer {
     private final Map<String /* topic */, FilterExpression> subscriptionExpressions;
     private final ConcurrentMap<String /* topic */, Assignments> cacheAssignments;
     private final MessageListener messageListener;
-    private final int maxCacheMessageCount;
-    private final int maxCacheMessageSizeInBytes;
+    private final BatchMessageListener batchMessageListener;
+    private final int maxBatchConsumeSize;
+    private final Duration maxBatchConsumeWait;
+    private final AsyncMessageListener asyncMessageListener;
+    private final int maxAsyncConsumeInFlight;
+    private final int maxReceiveBatchSize;
+    private final CacheBudget cacheBudget;
     private final boolean enableFifoConsumeAccelerator;
     private final boolean enableMessageInterceptorFiltering;
     private final InflightRequestCountInterceptor inflightRequestCountInterceptor;
+    private final AckAggregator ackAggregator;
+    private final NackAggregator nackAggregator;
 
     /**
      * Indicates the times of message reception.
@@ -134,15 +145,35 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer {
         Map<String, FilterExpression> subscriptionExpressions, MessageListener messageListener,
         int maxCacheMessageCount, int maxCacheMessageSizeInBytes, int consumptionThreadCount,
         boolean enableFifoConsumeAccelerator, boolean enableMessageInterceptorFiltering) {
+        this(clientConfiguration, consumerGroup, subscriptionExpressions, messageListener, maxCacheMessageCount,
+            maxCacheMessageSizeInBytes, consumptionThreadCount, enableFifoConsumeAccelerator,
+            enableMessageInterceptorFiltering, new PushConsumerOptions());
+    }
+
+    /**
+     * The message listener is ignored if the batch or async message listener of options is not null.
+     */
+    PushConsumerImpl(ClientConfiguration clientConfiguration, String consumerGroup,
+        Map<String, FilterExpression> subscriptionExpressions, MessageListener messageListener,
+        int maxCacheMessageCount, int maxCacheMessageSizeInBytes, int consumptionThreadCount,
+        boolean enableFifoConsumeAccelerator, boolean enableMessageInterceptorFiltering,
+        PushConsumerOptions options) {
         super(clientConfiguration, consumerGroup, subscriptionExpressions.keySet());
         this.pushSubscriptionSettings = new PushSubscriptionSettings(clientConfiguration, clientId,
             ClientType.PUSH_CONSUMER, endpoints, consumerGroup, subscriptionExpressions);
         this.consumerGroup = consumerGroup;
         this.subscriptionExpressions = subscriptionExpressions;
         this.cacheAssignments = new ConcurrentHashMap<>();
-        this.messageListener = messageListener;
-        this.maxCacheMessageCount = maxCacheMessageCount;
-        this.maxCacheMessageSizeInBytes = maxCacheMessageSizeInBytes;
+        // FIFO messages are consumed one by one by the batch message listener to preserve the order.
+        final BatchMessageListener batchMessageListener = options.getBatchMessageListener();
+        this.messageListener = null == batchMessageListener ? messageListener :
+            messageView -> batchMessageListener.consume(Collections.singletonList(messageView)).getResult(0);
+        this.batchMessageListener = batchMessageListener;
+        this.maxBatchConsumeSize = options.getMaxBatchConsumeSize();
+        this.maxBatchConsumeWait = options.getMaxBatchConsumeWait();
+        this.asyncMessageListener = options.getAsyncMessageListener();
+        this.maxAsyncConsumeInFlight = options.getMaxAsyncConsumeInFlight();
+        this.maxReceiveBatchSize = options.getMaxReceiveBatchSize();
         this.enableFifoConsumeAccelerator = enableFifoConsumeAccelerator;
         this.enableMessageInterceptorFiltering = enableMessageInterceptorFiltering;
 
@@ -152,6 +183,7 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer {
         this.consumptionErrorQuantity = new AtomicLong(0);
 
         this.processQueueTable = new ConcurrentHashMap<>();
+        this.cacheBudget = new CacheBudget(maxCacheMessageCount, maxCacheMessageSizeInBytes, this::getQueueSize);
 
         this.consumptionExecutor = new ThreadPoolExecutor(
             consumptionThreadCount,
@@ -163,6 +195,12 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer {
 
         this.inflightRequestCountInterceptor = new InflightRequestCountInterceptor();
         this.addMessageInterceptor(inflightRequestCountInterceptor);
+        final Duration ackBatchLingerDuration = options.getAckBatchLingerDuration();
+        this.ackAggregator = ackBatchLingerDuration.isZero() ? null : new AckAggregator(this,
+            ackBatchLingerDuration, options.getMaxAckBatchEntryCount());
+        final Duration nackBatchLingerDuration = options.getNackBatchLingerDuration();
+        this.nackAggregator = nackBatchLingerDuration.isZero() ? null : new NackAggregator(this,
+            nackBatchLingerDuration, options.getMaxNackBatchMessageCount(), options.getMaxNackConcurrentRequests());
     }
 
     public PushConsumerImpl(ClientConfiguration clientConfiguration, String consumerGroup,
@@ -218,6 +256,12 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer {
         log.info("Begin to Shutdown consumption executor, clientId={}", clientId);
         this.consumptionExecutor.shutdown();
         ExecutorServices.awaitTerminated(consumptionExecutor);
+        if (null != ackAggregator) {
+            ackAggregator.flushAll();
+        }
+        if (null != nackAggregator) {
+            nackAggregator.flushAll();
+        }
         TimeUnit.SECONDS.sleep(1);
         super.shutDown();
         log.info("Shutdown the rocketmq {} successfully, clientId={}", getSettings().getClientType(), clientId);
@@ -246,16 +290,35 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer {
         }
     }
 
+    @Override
+    RpcFuture<AckMessageRequest, AckMessageResponse> ackMessage0(Endpoints endpoints, AckMessageRequest request,
+        Duration requestTimeout) {
+        if (null == ackAggregator) {
+            return super.ackMessage0(endpoints, request, requestTimeout);
+        }
+        return ackAggregator.append(endpoints, request);
+    }
+
+    NackAggregator getNackAggregator() {
+        return nackAggregator;
+    }
+
+    int getMaxReceiveBatchSize() {
+        return maxReceiveBatchSize;
+    }
+
     protected ConsumeService createConsumeService() {
         final ScheduledExecutorService scheduler = this.getClientManager().getScheduler();
         if (getSettings().isFifo()) {
             log.info("Create FIFO consume service, consumerGroup={}, clientId={}, enableFifoConsumeAccelerator={}",
                 consumerGroup, clientId, enableFifoConsumeAccelerator);
             return new FifoConsumeService(clientId, messageListener, consumptionExecutor, this,
-                scheduler, enableFifoConsumeAccelerator);
+                scheduler, enableFifoConsumeAccelerator, asyncMessageListener, maxAsyncConsumeInFlight);
         }
         log.info("Create standard consume service, consumerGroup={}, clientId={}", consumerGroup, clientId);
-        return new StandardConsumeService(clientId, messageListener, consumptionExecutor, this, scheduler);
+        return new StandardConsumeService(clientId, messageListener, consumptionExecutor, this, scheduler,
+            batchMessageListener, maxBatchConsumeSize, maxBatchConsumeWait, asyncMessageListener,
+            maxAsyncConsumeInFlight);
     }
 
     /**
@@ -486,22 +549,8 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer {
         return processQueueTable.size();
     }
 
-    int cacheMessageBytesThresholdPerQueue() {
-        final int size = this.getQueueSize();
-        // ALl process queues are removed, no need to cache messages.
-        if (size <= 0) {
-            return 0;
-        }
-        return Math.max(1, maxCacheMessageSizeInBytes / size);
-    }
-
-    int cacheMessageCountThresholdPerQueue() {
-        final int size = this.getQueueSize();
-        // All process queues are removed, no need to cache messages.
-        if (size <= 0) {
-            return 0;
-        }
-        return Math.max(1, maxCacheMessageCount / size);
+    CacheBudget getCacheBudget() {
+        return cacheBudget;
     }
 
     public AtomicLong getReceptionTimes() {
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import java.time.Duration;
+import org.apache.rocketmq.client.apis.consumer.AsyncMessageListener;
+import org.apache.rocketmq.client.apis.consumer.BatchMessageListener;
+
+/**
+ * Options of {@link PushConsumerImpl} apart from the basic ones, which are set by {@link PushConsumerBuilderImpl} and
+ * take the default value otherwise.
+ *
+ * <p>The caller is supposed to have validated the options already, {@link PushConsumerImpl} only reads them during
+ * its construction.
+ */
+class PushConsumerOptions {
+    // Aggregation of ack, which is disabled if the linger duration is zero.
+    private Duration ackBatchLingerDuration = Duration.ZERO;
+    private int maxAckBatchEntryCount = 32;
+
+    // Aggregation of nack, which is disabled if the linger duration is zero.
+    private Duration nackBatchLingerDuration = Duration.ZERO;
+    private int maxNackBatchMessageCount = 32;
+    private int maxNackConcurrentRequests = 16;
+
+    // Batch message listener, which overrides the message listener if it is not null.
+    private BatchMessageListener batchMessageListener = null;
+    private int maxBatchConsumeSize = 1;
+    private Duration maxBatchConsumeWait = Duration.ZERO;
+
+    // Async message listener, which overrides the message listener if it is not null.
+    private AsyncMessageListener asyncMessageListener = null;
+    private int maxAsyncConsumeInFlight = Integer.MAX_VALUE;
+
+    // Max batch size of message reception, the one suggested by the server is used if it is not positive.
+    private int maxReceiveBatchSize = 0;
+
+    Duration getAckBatchLingerDuration() {
+        return ackBatchLingerDuration;
+    }
+
+    PushConsumerOptions setAckBatchLingerDuration(Duration ackBatchLingerDuration) {
+        this.ackBatchLingerDuration = ackBatchLingerDuration;
+        return this;
+    }
+
+    int getMaxAckBatchEntryCount() {
+        return maxAckBatchEntryCount;
+    }
+
+    PushConsumerOptions setMaxAckBatchEntryCount(int maxAckBatchEntryCount) {
+        this.maxAckBatchEntryCount = maxAckBatchEntryCount;
+        return this;
+    }
+
+    Duration getNackBatchLingerDuration() {
+        return nackBatchLingerDuration;
+    }
+
+    PushConsumerOptions setNackBatchLingerDuration(Duration nackBatchLingerDuration) {
+        this.nackBatchLingerDuration = nackBatchLingerDuration;
+        return this;
+    }
+
+    int getMaxNackBatchMessageCount() {
+        return maxNackBatchMessageCount;
+    }
+
+    PushConsumerOptions setMaxNackBatchMessageCount(int maxNackBatchMessageCount) {
+        this.maxNackBatchMessageCount = maxNackBatchMessageCount;
+        return this;
+    }
+
+    int getMaxNackConcurrentRequests() {
+        return maxNackConcurrentRequests;
+    }
+
+    PushConsumerOptions setMaxNackConcurrentRequests(int maxNackConcurrentRequests) {
+        this.maxNackConcurrentRequests = maxNackConcurrentRequests;
+        return this;
+    }
+
+    BatchMessageListener getBatchMessageListener() {
+        return batchMessageListener;
+    }
+
+    int getMaxBatchConsumeSize() {
+        return maxBatchConsumeSize;
+    }
+
+    Duration getMaxBatchConsumeWait() {
+        return maxBatchConsumeWait;
+    }
+
+    PushConsumerOptions setBatchMessageListener(BatchMessageListener listener, int maxBatchSize, Duration maxWait) {
+        this.batchMessageListener = listener;
+        this.maxBatchConsumeSize = maxBatchSize;
+        this.maxBatchConsumeWait = maxWait;
+        return this;
+    }
+
+    AsyncMessageListener getAsyncMessageListener() {
+        return asyncMessageListener;
+    }
+
+    int getMaxAsyncConsumeInFlight() {
+        return maxAsyncConsumeInFlight;
+    }
+
+    PushConsumerOptions setAsyncMessageListener(AsyncMessageListener listener, int maxInFlight) {
+        this.asyncMessageListener = listener;
+        this.maxAsyncConsumeInFlight = maxInFlight;
+        return this;
+    }
+
+    int getMaxReceiveBatchSize() {
+        return maxReceiveBatchSize;
+    }
+
+    PushConsumerOptions setMaxReceiveBatchSize(int maxReceiveBatchSize) {
+        this.maxReceiveBatchSize = maxReceiveBatchSize;
+        return this;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import java.time.Duration;
+
+/**
+ * Controller to adapt the batch size and the long-polling timeout of message reception for each process queue.
+ *
+ * <p>The batch size starts from the one suggested by the server. It is doubled once the batch comes back full while
+ * the cache still has room for a bigger one, which means the consumption keeps up with the reception, and is halved
+ * once the cache is full. The long-polling timeout is halved for each consecutive full batch, because the hot queue is
+ * expected to find messages right away, and is restored once the batch comes back not full, so that the idle queue
+ * keeps the long polling as long as possible instead of spinning on empty responses.
+ *
+ * <p>There is at most one reception in flight for each process queue, so the decisions are made serially, and the
+ * volatile fields are only for the observation from other threads.
+ */
+class ReceptionController {
+    /**
+     * Max divisor of the long-polling timeout, which means the timeout is never shortened below a quarter.
+     */
+    static final int MAX_LONG_POLLING_TIMEOUT_DIVISOR = 4;
+
+    /**
+     * Zero means that the batch size suggested by the server is used.
+     */
+    private volatile int batchSize = 0;
+    private volatile int longPollingTimeoutDivisor = 1;
+
+    /**
+     * Get the batch size for the next reception.
+     *
+     * @param baseBatchSize batch size suggested by the server.
+     * @param maxBatchSize  max batch size of reception, which is not less than the base batch size.
+     * @return the batch size for the next reception.
+     */
+    int getBatchSize(int baseBatchSize, int maxBatchSize) {
+        final int size = batchSize;
+        final int ceiling = Math.max(baseBatchSize, maxBatchSize);
+        return Math.max(1, Math.min(0 == size ? baseBatchSize : size, ceiling));
+    }
+
+    /**
+     * Get the long-polling timeout for the next reception.
+     *
+     * @param baseLongPollingTimeout long-polling timeout suggested by the server.
+     * @return the long-polling timeout for the next reception.
+     */
+    Duration getLongPollingTimeout(Duration baseLongPollingTimeout) {
+        return baseLongPollingTimeout.dividedBy(longPollingTimeoutDivisor);
+    }
+
+    /**
+     * Adapt to the result of reception.
+     *
+     * @param baseBatchSize batch size suggested by the server.
+     * @param maxBatchSize  max batch size of reception.
+     * @param requested     batch size of the reception.
+     * @param received      quantity of received messages.
+     * @param keepUp        whether the cache still has room for a bigger batch after caching the received messages.
+     */
+    void onReceived(int baseBatchSize, int maxBatchSize, int requested, int received, boolean keepUp) {
+        final int current = getBatchSize(baseBatchSize, maxBatchSize);
+        if (received < requested) {
+            longPollingTimeoutDivisor = 1;
+            // Fall back to the suggested batch size once the queue becomes idle.
+            if (0 == received) {
+                batchSize = Math.min(current, baseBatchSize);
+            }
+            return;
+        }
+        longPollingTimeoutDivisor = Math.min(MAX_LONG_POLLING_TIMEOUT_DIVISOR, longPollingTimeoutDivisor * 2);
+        if (keepUp) {
+            final int ceiling = Math.max(baseBatchSize, maxBatchSize);
+            batchSize = (int) Math.min(ceiling, 2L * current);
+        }
+    }
+
+    /**
+     * Shrink the batch size once the cache is full, which means the consumption falls behind the reception.
+     *
+     * @param baseBatchSize batch size suggested by the server.
+     * @param maxBatchSize  max batch size of reception.
+     */
+    void onCacheFull(int baseBatchSize, int maxBatchSize) {
+        batchSize = Math.max(1, getBatchSize(baseBatchSize, maxBatchSize) / 2);
+        longPollingTimeoutDivisor = 1;
+    }
+}
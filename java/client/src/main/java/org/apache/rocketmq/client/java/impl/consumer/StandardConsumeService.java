@@ -21,9 +21,17 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.rocketmq.client.apis.consumer.AsyncMessageListener;
+import org.apache.rocketmq.client.apis.consumer.BatchConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.BatchMessageListener;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.MessageListener;
 import org.apache.rocketmq.client.java.hook.MessageInterceptor;
@@ -36,14 +44,44 @@ import org.slf4j.LoggerFactory;
 public class StandardConsumeService extends ConsumeService {
     private static final Logger log = LoggerFactory.getLogger(StandardConsumeService.class);
 
+    private final BatchMessageListener batchMessageListener;
+    private final int maxBatchSize;
+    private final Duration maxBatchWait;
+    private final ConcurrentMap<ProcessQueue, PendingBatch> pendingBatches;
+
     public StandardConsumeService(ClientId clientId, MessageListener messageListener,
         ThreadPoolExecutor consumptionExecutor, MessageInterceptor messageInterceptor,
         ScheduledExecutorService scheduler) {
-        super(clientId, messageListener, consumptionExecutor, messageInterceptor, scheduler);
+        this(clientId, messageListener, consumptionExecutor, messageInterceptor, scheduler, null, 1, Duration.ZERO);
+    }
+
+    public StandardConsumeService(ClientId clientId, MessageListener messageListener,
+        ThreadPoolExecutor consumptionExecutor, MessageInterceptor messageInterceptor,
+        ScheduledExecutorService scheduler, BatchMessageListener batchMessageListener, int maxBatchSize,
+        Duration maxBatchWait) {
+        this(clientId, messageListener, consumptionExecutor, messageInterceptor, scheduler, batchMessageListener,
+            maxBatchSize, maxBatchWait, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Messages are consumed by the batch message listener if it is not null, otherwise by the async message listener
+     * if it is not null, otherwise by the message listener.
+     */
+    public StandardConsumeService(ClientId clientId, MessageListener messageListener,
+        ThreadPoolExecutor consumptionExecutor, MessageInterceptor messageInterceptor,
+        ScheduledExecutorService scheduler, BatchMessageListener batchMessageListener, int maxBatchSize,
+        Duration maxBatchWait, AsyncMessageListener asyncMessageListener, int maxAsyncInFlight) {
+        super(clientId, messageListener, asyncMessageListener, maxAsyncInFlight, consumptionExecutor,
+            messageInterceptor, scheduler);
+        this.batchMessageListener = batchMessageListener;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchWait = maxBatchWait;
+        this.pendingBatches = new ConcurrentHashMap<>();
     }
 
     @Override
     public void consume(ProcessQueue pq, List<MessageViewImpl> messageViews) {
+        final List<MessageViewImpl> validMessageViews = new ArrayList<>(messageViews.size());
         for (MessageViewImpl messageView : messageViews) {
             // Discard corrupted message.
             if (messageView.isCorrupted()) {
@@ -52,6 +90,10 @@ public class StandardConsumeService extends ConsumeService {
                 pq.discardMessage(messageView);
                 continue;
             }
+            if (null != batchMessageListener) {
+                validMessageViews.add(messageView);
+                continue;
+            }
             final ListenableFuture<ConsumeResult> future = consume(messageView);
             Futures.addCallback(future, new FutureCallback<ConsumeResult>() {
                 @Override
@@ -66,5 +108,112 @@ public class StandardConsumeService extends ConsumeService {
                 }
             }, MoreExecutors.directExecutor());
         }
+        if (!validMessageViews.isEmpty()) {
+            accumulate(pq, validMessageViews);
+        }
+    }
+
+    /**
+     * Accumulate messages into the pending batch of the process queue, full batches are dispatched right now, and the
+     * rest is dispatched once the max wait duration is elapsed.
+     */
+    private void accumulate(ProcessQueue pq, List<MessageViewImpl> messageViews) {
+        final List<List<MessageViewImpl>> batches = new ArrayList<>();
+        while (true) {
+            final PendingBatch pending = pendingBatches.computeIfAbsent(pq, k -> new PendingBatch());
+            synchronized (pending) {
+                // The pending batch has been removed by the timed dispatching, try again.
+                if (pending.removed) {
+                    continue;
+                }
+                pending.messageViews.addAll(messageViews);
+                while (pending.messageViews.size() >= maxBatchSize) {
+                    final List<MessageViewImpl> head = pending.messageViews.subList(0, maxBatchSize);
+                    batches.add(new ArrayList<>(head));
+                    head.clear();
+                }
+                if (!pending.messageViews.isEmpty() && !pending.scheduled) {
+                    pending.scheduled = true;
+                    scheduleDispatch(pq, pending);
+                }
+            }
+            break;
+        }
+        for (List<MessageViewImpl> batch : batches) {
+            dispatch(pq, batch);
+        }
+    }
+
+    private void scheduleDispatch(ProcessQueue pq, PendingBatch pending) {
+        try {
+            scheduler.schedule(() -> dispatchPending(pq, pending), maxBatchWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (Throwable t) {
+            if (scheduler.isShutdown()) {
+                return;
+            }
+            // Should never reach here.
+            log.error("[Bug] Failed to schedule the dispatching of batch, dispatch it right now, mq={}, clientId={}",
+                pq.getMessageQueue(), clientId, t);
+            dispatchPending(pq, pending);
+        }
+    }
+
+    private void dispatchPending(ProcessQueue pq, PendingBatch pending) {
+        final List<MessageViewImpl> batch;
+        synchronized (pending) {
+            batch = new ArrayList<>(pending.messageViews);
+            pending.messageViews.clear();
+            pending.removed = true;
+            pendingBatches.remove(pq, pending);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Messages of the dropped process queue would be delivered again once they become visible.
+        if (pq.isDropped()) {
+            log.info("Process queue has been dropped, discard the pending batch, mq={}, count={}, clientId={}",
+                pq.getMessageQueue(), batch.size(), clientId);
+            return;
+        }
+        dispatch(pq, batch);
+    }
+
+    private void dispatch(ProcessQueue pq, List<MessageViewImpl> batch) {
+        final ListenableFuture<BatchConsumeResult> future;
+        try {
+            future = consume(batch, batchMessageListener);
+        } catch (Throwable t) {
+            log.error("Failed to submit the batch consumption, regard it as failure, mq={}, count={}, clientId={}",
+                pq.getMessageQueue(), batch.size(), clientId, t);
+            eraseBatch(pq, batch, ConsumeResult.FAILURE);
+            return;
+        }
+        Futures.addCallback(future, new FutureCallback<BatchConsumeResult>() {
+            @Override
+            public void onSuccess(BatchConsumeResult batchConsumeResult) {
+                for (int i = 0; i < batch.size(); i++) {
+                    pq.eraseMessage(batch.get(i), batchConsumeResult.getResult(i));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                // Should never reach here.
+                log.error("[Bug] Exception raised in batch consumption callback, clientId={}", clientId, t);
+                eraseBatch(pq, batch, ConsumeResult.FAILURE);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void eraseBatch(ProcessQueue pq, List<MessageViewImpl> batch, ConsumeResult consumeResult) {
+        for (MessageViewImpl messageView : batch) {
+            pq.eraseMessage(messageView, consumeResult);
+        }
+    }
+
+    private static class PendingBatch {
+        private final List<MessageViewImpl> messageViews = new ArrayList<>();
+        private boolean scheduled = false;
+        private boolean removed = false;
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import org.apache.rocketmq.client.apis.producer.CompressionType;
+import org.apache.rocketmq.client.java.misc.ExcludeFromJacocoGeneratedReport;
+import org.apache.rocketmq.client.java.misc.Utilities;
+
+/**
+ * Compression of message body, which is applied while the publishing message is prepared.
+ */
+public class Compression {
+    public static final Compression DISABLED = new Compression(CompressionType.NONE, 0, 0);
+
+    private final CompressionType type;
+    private final int level;
+    private final int thresholdBytes;
+
+    public Compression(CompressionType type, int level, int thresholdBytes) {
+        this.type = type;
+        this.level = level;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    public static boolean isLevelValid(CompressionType type, int level) {
+        switch (type) {
+            case GZIP:
+                return Deflater.DEFAULT_COMPRESSION == level
+                    || (Deflater.NO_COMPRESSION <= level && level <= Deflater.BEST_COMPRESSION);
+            case NONE:
+            default:
+                return true;
+        }
+    }
+
+    public CompressionType getType() {
+        return type;
+    }
+
+    /**
+     * Compress the message body.
+     *
+     * @param body message body.
+     * @return the compressed body, or {@link Optional#empty()} if the body is not supposed to be compressed or the
+     * compression does not make it smaller.
+     */
+    public Optional<byte[]> compress(byte[] body) throws IOException {
+        if (CompressionType.NONE == type || body.length < thresholdBytes) {
+            return Optional.empty();
+        }
+        if (CompressionType.GZIP != type) {
+            throw new IllegalArgumentException("Unsupported compression type, type=" + type);
+        }
+        final byte[] compressed = Utilities.compressBytesGZIP(body, level);
+        return compressed.length < body.length ? Optional.of(compressed) : Optional.empty();
+    }
+
+    @ExcludeFromJacocoGeneratedReport
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("type", type)
+            .add("level", level)
+            .add("thresholdBytes", thresholdBytes)
+            .toString();
+    }
+}
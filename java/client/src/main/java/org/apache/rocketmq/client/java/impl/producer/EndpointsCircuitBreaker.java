@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.rocketmq.client.java.exception.TooManyRequestsException;
+import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker of each endpoints for message publishing.
+ *
+ * <p>The circuit of endpoints is opened once the failure rate of the recent sending reaches the threshold, and the
+ * endpoints are excluded from the publishing load balancer. After the open duration, the circuit turns half-open and a
+ * limited number of trial sending is permitted, the circuit is closed if all of them succeed, otherwise it is opened
+ * again.
+ *
+ * <p>Throttling by the endpoints and the partial failure of batch sending mean that the endpoints are still alive,
+ * so they are not counted as failures.
+ *
+ * @see org.apache.rocketmq.client.apis.producer.ProducerBuilder#setCircuitBreaker(int, int, double, Duration, int)
+ */
+class EndpointsCircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(EndpointsCircuitBreaker.class);
+
+    private final ClientId clientId;
+    /**
+     * Count of the recent sending to calculate the failure rate.
+     */
+    private final int windowSize;
+    /**
+     * Min count of the recent sending before the circuit could be opened.
+     */
+    private final int minRequests;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenTrials;
+
+    private final ConcurrentMap<Endpoints, Breaker> breakers;
+
+    EndpointsCircuitBreaker(ClientId clientId, int windowSize, int minRequests, double failureRateThreshold,
+        Duration openDuration, int halfOpenTrials) {
+        this.clientId = clientId;
+        this.windowSize = windowSize;
+        this.minRequests = minRequests;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenTrials = halfOpenTrials;
+        this.breakers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the endpoints which do not permit sending right now, which is only a hint for the load balancer, the
+     * sending must be admitted by {@link #tryAcquire(Endpoints)} then.
+     */
+    Set<Endpoints> getUnavailableEndpoints() {
+        final long nanoTime = System.nanoTime();
+        Set<Endpoints> unavailable = null;
+        for (Map.Entry<Endpoints, Breaker> entry : breakers.entrySet()) {
+            if (entry.getValue().isAvailable(nanoTime)) {
+                continue;
+            }
+            if (null == unavailable) {
+                unavailable = new HashSet<>();
+            }
+            unavailable.add(entry.getKey());
+        }
+        return null == unavailable ? Collections.emptySet() : unavailable;
+    }
+
+    /**
+     * Try to admit a sending to the endpoints, the trial sending of half-open circuit is counted at the same time, so
+     * that concurrent senders could not exceed the limit of trials.
+     *
+     * @return true if the sending is admitted.
+     */
+    boolean tryAcquire(Endpoints endpoints) {
+        final Breaker breaker = breakers.get(endpoints);
+        return null == breaker || breaker.tryAcquire(System.nanoTime());
+    }
+
+    void onSuccess(Endpoints endpoints) {
+        final Breaker breaker = breakers.get(endpoints);
+        if (null != breaker) {
+            breaker.onSuccess(endpoints);
+        }
+    }
+
+    void onFailure(Endpoints endpoints, Throwable t) {
+        if (t instanceof TooManyRequestsException || t instanceof PartialSendException) {
+            release(endpoints);
+            return;
+        }
+        breakers.computeIfAbsent(endpoints, e -> new Breaker()).onFailure(endpoints, System.nanoTime());
+    }
+
+    /**
+     * Give back the admission of {@link #tryAcquire(Endpoints)} if the sending is not performed, or its outcome says
+     * nothing about the health of endpoints, so that the trial of half-open circuit could be taken by others.
+     */
+    void release(Endpoints endpoints) {
+        final Breaker breaker = breakers.get(endpoints);
+        if (null != breaker) {
+            breaker.release();
+        }
+    }
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private class Breaker {
+        @GuardedBy("this")
+        private State state = State.CLOSED;
+        /**
+         * Ring buffer of the recent outcomes, true means failure.
+         */
+        @GuardedBy("this")
+        private final boolean[] outcomes = new boolean[windowSize];
+        @GuardedBy("this")
+        private int next = 0;
+        @GuardedBy("this")
+        private int requests = 0;
+        @GuardedBy("this")
+        private int failures = 0;
+        @GuardedBy("this")
+        private long openUntilNanoTime = 0;
+        @GuardedBy("this")
+        private int trials = 0;
+        @GuardedBy("this")
+        private int trialSuccesses = 0;
+
+        synchronized boolean isAvailable(long nanoTime) {
+            switch (state) {
+                case OPEN:
+                    return nanoTime - openUntilNanoTime >= 0;
+                case HALF_OPEN:
+                    return trials < halfOpenTrials;
+                case CLOSED:
+                default:
+                    return true;
+            }
+        }
+
+        synchronized boolean tryAcquire(long nanoTime) {
+            switch (state) {
+                case OPEN:
+                    if (nanoTime - openUntilNanoTime < 0) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    trials = 1;
+                    trialSuccesses = 0;
+                    return true;
+                case HALF_OPEN:
+                    if (trials >= halfOpenTrials) {
+                        return false;
+                    }
+                    trials++;
+                    return true;
+                case CLOSED:
+                default:
+                    return true;
+            }
+        }
+
+        synchronized void release() {
+            if (State.HALF_OPEN == state && trials > 0) {
+                trials--;
+            }
+        }
+
+        synchronized void onSuccess(Endpoints endpoints) {
+            switch (state) {
+                case CLOSED:
+                    record(false);
+                    break;
+                case HALF_OPEN:
+                    if (++trialSuccesses >= halfOpenTrials) {
+                        close();
+                        log.info("Circuit of endpoints is closed, endpoints={}, clientId={}", endpoints, clientId);
+                    }
+                    break;
+                case OPEN:
+                default:
+                    // Response of the sending before the circuit is opened, ignore it.
+                    break;
+            }
+        }
+
+        synchronized void onFailure(Endpoints endpoints, long nanoTime) {
+            switch (state) {
+                case CLOSED:
+                    record(true);
+                    if (requests >= minRequests && failures >= failureRateThreshold * requests) {
+                        open(nanoTime);
+                        log.warn("Circuit of endpoints is opened, endpoints={}, failures={}, requests={}, "
+                            + "clientId={}", endpoints, failures, requests, clientId);
+                    }
+                    break;
+                case HALF_OPEN:
+                    open(nanoTime);
+                    log.warn("Trial sending failed, circuit of endpoints is opened again, endpoints={}, clientId={}",
+                        endpoints, clientId);
+                    break;
+                case OPEN:
+                default:
+                    break;
+            }
+        }
+
+        @GuardedBy("this")
+        private void record(boolean failed) {
+            if (requests == windowSize) {
+                if (outcomes[next]) {
+                    failures--;
+                }
+            } else {
+                requests++;
+            }
+            outcomes[next] = failed;
+            if (failed) {
+                failures++;
+            }
+            next = (next + 1) % windowSize;
+        }
+
+        @GuardedBy("this")
+        private void open(long nanoTime) {
+            state = State.OPEN;
+            openUntilNanoTime = nanoTime + openDurationNanos;
+        }
+
+        @GuardedBy("this")
+        private void close() {
+            state = State.CLOSED;
+            next = 0;
+            requests = 0;
+            failures = 0;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.common.base.MoreObjects;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.rocketmq.client.apis.producer.BackpressurePolicy;
+import org.apache.rocketmq.client.java.exception.InFlightWindowFullException;
+import org.apache.rocketmq.client.java.misc.ExcludeFromJacocoGeneratedReport;
+
+/**
+ * Window to limit the in-flight send invocations and message bytes of producer.
+ *
+ * <p>Invocation whose bytes exceed the max size is still admitted once the window is empty, otherwise it would never
+ * be sent.
+ */
+class InFlightWindow {
+    private final int maxRequests;
+    private final int maxSizeInBytes;
+    private final BackpressurePolicy policy;
+    private final Duration timeout;
+
+    private final Lock lock;
+    private final Condition released;
+    @GuardedBy("lock")
+    private int requests;
+    @GuardedBy("lock")
+    private long bytes;
+
+    InFlightWindow(int maxRequests, int maxSizeInBytes, BackpressurePolicy policy, Duration timeout) {
+        this.maxRequests = maxRequests;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.policy = policy;
+        this.timeout = timeout;
+        this.lock = new ReentrantLock();
+        this.released = lock.newCondition();
+        this.requests = 0;
+        this.bytes = 0;
+    }
+
+    /**
+     * Occupy the window, the caller is supposed to {@link #release(int)} it once the invocation is completed.
+     *
+     * @param size bytes of message bodies of the invocation.
+     * @throws InFlightWindowFullException if the window is full and the policy does not allow to wait any more.
+     * @throws InterruptedException        if the current thread is interrupted while waiting.
+     */
+    void acquire(int size) throws InFlightWindowFullException, InterruptedException {
+        lock.lock();
+        try {
+            long nanos = timeout.toNanos();
+            while (!hasRoomFor(size)) {
+                switch (policy) {
+                    case FAIL_FAST:
+                        throw new InFlightWindowFullException("In-flight window is full, " + this);
+                    case TIMEOUT:
+                        if (nanos <= 0) {
+                            throw new InFlightWindowFullException("Timed out waiting for the room of in-flight "
+                                + "window, timeout=" + timeout + ", " + this);
+                        }
+                        nanos = released.awaitNanos(nanos);
+                        break;
+                    case BLOCK:
+                    default:
+                        released.await();
+                }
+            }
+            requests++;
+            bytes += size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(int size) {
+        lock.lock();
+        try {
+            requests--;
+            bytes -= size;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private boolean hasRoomFor(int size) {
+        if (0 == requests) {
+            return true;
+        }
+        return requests < maxRequests && bytes + size <= maxSizeInBytes;
+    }
+
+    int getInFlightRequests() {
+        lock.lock();
+        try {
+            return requests;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getInFlightBytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ExcludeFromJacocoGeneratedReport
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return MoreObjects.toStringHelper(this)
+                .add("requests", requests)
+                .add("bytes", bytes)
+                .add("maxRequests", maxRequests)
+                .add("maxSizeInBytes", maxSizeInBytes)
+                .toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
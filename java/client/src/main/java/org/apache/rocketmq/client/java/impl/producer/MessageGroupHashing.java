@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+/**
+ * Allocation-free hash functions to map the message group to message queue.
+ */
+final class MessageGroupHashing {
+    /**
+     * Same keys as {@link com.google.common.hash.Hashing#sipHash24()}.
+     */
+    private static final long K0 = 0x0706050403020100L;
+    private static final long K1 = 0x0f0e0d0c0b0a0908L;
+
+    private MessageGroupHashing() {
+    }
+
+    /**
+     * SipHash-2-4 of the UTF-8 bytes of the string, which is identical to
+     * {@code Hashing.sipHash24().hashBytes(s.getBytes(StandardCharsets.UTF_8)).asLong()} without encoding the string
+     * into a new byte array.
+     *
+     * <p>Unpaired surrogate is encoded as {@code '?'}, which is the same as {@link String#getBytes}.
+     */
+    static long sipHash24(CharSequence s) {
+        long v0 = K0 ^ 0x736f6d6570736575L;
+        long v1 = K1 ^ 0x646f72616e646f6dL;
+        long v2 = K0 ^ 0x6c7967656e657261L;
+        long v3 = K1 ^ 0x7465646279746573L;
+        // Bytes of current block in little endian.
+        long m = 0;
+        int shift = 0;
+        long length = 0;
+        final int charCount = s.length();
+        for (int i = 0; i < charCount; i++) {
+            final char c = s.charAt(i);
+            // UTF-8 bytes of the char in order, the first byte is the lowest.
+            int encoded;
+            int byteCount;
+            if (c < 0x80) {
+                encoded = c;
+                byteCount = 1;
+            } else if (c < 0x800) {
+                encoded = (0xc0 | (c >>> 6)) | (0x80 | (c & 0x3f)) << 8;
+                byteCount = 2;
+            } else if (!Character.isSurrogate(c)) {
+                encoded = (0xe0 | (c >>> 12)) | (0x80 | ((c >>> 6) & 0x3f)) << 8 | (0x80 | (c & 0x3f)) << 16;
+                byteCount = 3;
+            } else if (Character.isHighSurrogate(c) && i + 1 < charCount
+                && Character.isLowSurrogate(s.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                encoded = (0xf0 | (codePoint >>> 18)) | (0x80 | ((codePoint >>> 12) & 0x3f)) << 8
+                    | (0x80 | ((codePoint >>> 6) & 0x3f)) << 16 | (0x80 | (codePoint & 0x3f)) << 24;
+                byteCount = 4;
+            } else {
+                encoded = '?';
+                byteCount = 1;
+            }
+            for (int j = 0; j < byteCount; j++) {
+                m |= ((long) ((encoded >>> (j << 3)) & 0xff)) << shift;
+                shift += 8;
+                length++;
+                if (64 != shift) {
+                    continue;
+                }
+                v3 ^= m;
+                for (int r = 0; r < 2; r++) {
+                    v0 += v1;
+                    v2 += v3;
+                    v1 = Long.rotateLeft(v1, 13);
+                    v3 = Long.rotateLeft(v3, 16);
+                    v1 ^= v0;
+                    v3 ^= v2;
+                    v0 = Long.rotateLeft(v0, 32);
+                    v2 += v1;
+                    v0 += v3;
+                    v1 = Long.rotateLeft(v1, 17);
+                    v3 = Long.rotateLeft(v3, 21);
+                    v1 ^= v2;
+                    v3 ^= v0;
+                    v2 = Long.rotateLeft(v2, 32);
+                }
+                v0 ^= m;
+                m = 0;
+                shift = 0;
+            }
+        }
+        // Last block with the length in the highest byte, followed by the finalization.
+        final long b = m | (length << 56);
+        v3 ^= b;
+        for (int r = 0; r < 6; r++) {
+            if (2 == r) {
+                v0 ^= b;
+                v2 ^= 0xff;
+            }
+            v0 += v1;
+            v2 += v3;
+            v1 = Long.rotateLeft(v1, 13);
+            v3 = Long.rotateLeft(v3, 16);
+            v1 ^= v0;
+            v3 ^= v2;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v1;
+            v0 += v3;
+            v1 = Long.rotateLeft(v1, 17);
+            v3 = Long.rotateLeft(v3, 21);
+            v1 ^= v2;
+            v3 ^= v0;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    /**
+     * Finalization mix of MurmurHash3, which spreads every bit of input to all bits of output.
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
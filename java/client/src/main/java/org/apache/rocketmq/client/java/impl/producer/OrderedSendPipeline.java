@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.common.base.Objects;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.rocketmq.client.java.message.PublishingMessageImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pipeline to send FIFO messages asynchronously with the order of each message group preserved.
+ *
+ * <p>Messages with the same topic and message group are sent by one request at a time, the next request is not sent
+ * until the previous one is completed, including its retries. Messages appended while the request is in flight are
+ * coalesced into the next request, and different message groups are sent independently.
+ *
+ * <p>Once a request fails finally, messages of the same message group waiting for it are failed with the same cause
+ * rather than being sent, which would break the order otherwise.
+ */
+@SuppressWarnings("UnstableApiUsage")
+class OrderedSendPipeline {
+    private static final Logger log = LoggerFactory.getLogger(OrderedSendPipeline.class);
+
+    private final ProducerImpl producer;
+    private final int maxBatchMessageCount;
+    private final int maxBatchSizeInBytes;
+    /**
+     * Message groups which have messages in flight, group is removed once all of its messages are sent.
+     */
+    private final ConcurrentMap<GroupKey, Group> groups;
+
+    OrderedSendPipeline(ProducerImpl producer, int maxBatchMessageCount, int maxBatchSizeInBytes) {
+        this.producer = producer;
+        this.maxBatchMessageCount = maxBatchMessageCount;
+        this.maxBatchSizeInBytes = maxBatchSizeInBytes;
+        this.groups = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Append FIFO message into the pipeline of its message group, the returned future is completed once it is sent.
+     */
+    ListenableFuture<SendReceiptImpl> append(PublishingMessageImpl message) {
+        final SettableFuture<SendReceiptImpl> future = SettableFuture.create();
+        final GroupKey key = new GroupKey(message);
+        final Batch[] ready = new Batch[1];
+        groups.compute(key, (k, group) -> {
+            if (null == group) {
+                group = new Group();
+            }
+            group.pending.add(new Entry(message, future));
+            if (!group.inFlight) {
+                group.inFlight = true;
+                ready[0] = group.drain();
+            }
+            return group;
+        });
+        if (null != ready[0]) {
+            send(key, ready[0]);
+        }
+        return future;
+    }
+
+    /**
+     * Get the count of message groups which have messages in flight.
+     */
+    int getInFlightGroups() {
+        return groups.size();
+    }
+
+    private void send(GroupKey key, Batch batch) {
+        ListenableFuture<List<SendReceiptImpl>> future;
+        try {
+            future = producer.publish(batch.messages);
+        } catch (Throwable t) {
+            // Should never reach here.
+            log.error("[Bug] Exception raised while publishing ordered batch, clientId={}", producer.getClientId(), t);
+            batch.futures.forEach(f -> f.setException(t));
+            failPending(key, t);
+            return;
+        }
+        SendAccumulator.completeFutures(batch.messages, batch.futures, future);
+        // Registered after the futures of messages, so that the results are exposed before the next batch is sent.
+        Futures.addCallback(future, new FutureCallback<List<SendReceiptImpl>>() {
+            @Override
+            public void onSuccess(List<SendReceiptImpl> sendReceipts) {
+                sendNext(key);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                failPending(key, t);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void failPending(GroupKey key, Throwable t) {
+        final Group group = groups.remove(key);
+        if (null == group || group.pending.isEmpty()) {
+            return;
+        }
+        log.error("Failed to send FIFO message(s), fail the following message(s) of the same message group to keep "
+                + "the order, topic={}, messageGroup={}, count={}, clientId={}", key.topic, key.messageGroup,
+            group.pending.size(), producer.getClientId());
+        for (Entry entry : group.pending) {
+            entry.future.setException(t);
+        }
+    }
+
+    private void sendNext(GroupKey key) {
+        final Batch[] ready = new Batch[1];
+        groups.computeIfPresent(key, (k, group) -> {
+            if (group.pending.isEmpty()) {
+                return null;
+            }
+            ready[0] = group.drain();
+            return group;
+        });
+        if (null != ready[0]) {
+            send(key, ready[0]);
+        }
+    }
+
+    private class Group {
+        private final Queue<Entry> pending = new ArrayDeque<>();
+        private boolean inFlight = false;
+
+        /**
+         * Take the leading messages in the pending queue as the next batch, which contains at least one message.
+         */
+        Batch drain() {
+            final Batch batch = new Batch();
+            long bytes = 0;
+            while (!pending.isEmpty() && batch.messages.size() < maxBatchMessageCount) {
+                final int bodySize = pending.element().message.getEncodedBody().remaining();
+                if (!batch.messages.isEmpty() && bytes + bodySize > maxBatchSizeInBytes) {
+                    break;
+                }
+                final Entry entry = pending.remove();
+                batch.messages.add(entry.message);
+                batch.futures.add(entry.future);
+                bytes += bodySize;
+            }
+            return batch;
+        }
+    }
+
+    private static class Batch {
+        private final List<PublishingMessageImpl> messages = new ArrayList<>();
+        private final List<SettableFuture<SendReceiptImpl>> futures = new ArrayList<>();
+    }
+
+    private static class Entry {
+        private final PublishingMessageImpl message;
+        private final SettableFuture<SendReceiptImpl> future;
+
+        Entry(PublishingMessageImpl message, SettableFuture<SendReceiptImpl> future) {
+            this.message = message;
+            this.future = future;
+        }
+    }
+
+    private static class GroupKey {
+        private final String topic;
+        private final String messageGroup;
+
+        GroupKey(PublishingMessageImpl message) {
+            this.topic = message.getTopic();
+            this.messageGroup = message.getMessageGroup().orElse(null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            GroupKey that = (GroupKey) o;
+            return Objects.equal(topic, that.topic) && Objects.equal(messageGroup, that.messageGroup);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(topic, messageGroup);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.producer.BatchSendException;
+import org.apache.rocketmq.client.apis.producer.SendReceipt;
+import org.apache.rocketmq.client.java.message.PublishingMessageImpl;
+
+/**
+ * Internal exception indicates that only part of the entries in one {@link apache.rocketmq.v2.SendMessageRequest}
+ * are sent successfully, both receipts and causes are keyed by the message id.
+ */
+class PartialSendException extends ClientException {
+    private final Map<String/* messageId */, SendReceiptImpl> sendReceipts;
+    private final Map<String/* messageId */, Throwable> causes;
+
+    PartialSendException(Map<String, SendReceiptImpl> sendReceipts, Map<String, Throwable> causes) {
+        super("Only part of messages are sent successfully, succeed=" + sendReceipts.size() + ", failed="
+            + causes.size(), causes.isEmpty() ? null : causes.values().iterator().next());
+        this.sendReceipts = Collections.unmodifiableMap(sendReceipts);
+        this.causes = Collections.unmodifiableMap(causes);
+    }
+
+    Map<String, SendReceiptImpl> getSendReceipts() {
+        return sendReceipts;
+    }
+
+    Map<String, Throwable> getCauses() {
+        return causes;
+    }
+
+    /**
+     * Convert to the exception to expose, whose receipts and causes are indexed by the position of message.
+     */
+    BatchSendException toBatchSendException(List<PublishingMessageImpl> messages) {
+        final List<SendReceipt> receipts = new ArrayList<>(messages.size());
+        final Map<Integer, Throwable> indexedCauses = new HashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            final String messageId = messages.get(i).getMessageId().toString();
+            final SendReceiptImpl receipt = sendReceipts.get(messageId);
+            receipts.add(receipt);
+            if (null != receipt) {
+                continue;
+            }
+            final Throwable cause = causes.get(messageId);
+            indexedCauses.put(i, null == cause ? this : cause);
+        }
+        return new BatchSendException(getMessage(), receipts, indexedCauses);
+    }
+}
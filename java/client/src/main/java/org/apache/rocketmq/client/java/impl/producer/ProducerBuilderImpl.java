@@ -20,13 +20,18 @@ package org.apache.rocketmq.client.java.impl.producer;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.apis.producer.BackpressurePolicy;
+import org.apache.rocketmq.client.apis.producer.CompressionType;
+import org.apache.rocketmq.client.apis.producer.MessageGroupQueueSelectionStrategy;
 import org.apache.rocketmq.client.apis.producer.Producer;
 import org.apache.rocketmq.client.apis.producer.ProducerBuilder;
+import org.apache.rocketmq.client.apis.producer.QueueSelectionStrategy;
 import org.apache.rocketmq.client.apis.producer.TransactionChecker;
 import org.apache.rocketmq.client.java.message.MessageBuilderImpl;
 
@@ -38,6 +43,13 @@ public class ProducerBuilderImpl implements ProducerBuilder {
     private final Set<String> topics = new HashSet<>();
     private int maxAttempts = 3;
     private TransactionChecker checker = null;
+    private final ProducerOptions options = new ProducerOptions();
+    private int maxInFlightRequests = Integer.MAX_VALUE;
+    private int maxInFlightSizeInBytes = Integer.MAX_VALUE;
+    private BackpressurePolicy backpressurePolicy = BackpressurePolicy.BLOCK;
+    private Duration backpressureTimeout = Duration.ofSeconds(3);
+    private double retryBudgetRatio = 0;
+    private int retryBudgetMaxTokens = 0;
 
     public ProducerBuilderImpl() {
     }
@@ -83,13 +95,197 @@ public class ProducerBuilderImpl implements ProducerBuilder {
         return this;
     }
 
+    /**
+     * @see ProducerBuilder#setBatchLingerDuration(Duration)
+     */
+    @Override
+    public ProducerBuilder setBatchLingerDuration(Duration lingerDuration) {
+        checkNotNull(lingerDuration, "lingerDuration should not be null");
+        checkArgument(!lingerDuration.isNegative(), "lingerDuration should not be negative");
+        options.setBatchLingerDuration(lingerDuration);
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setMaxBatchMessageCount(int)
+     */
+    @Override
+    public ProducerBuilder setMaxBatchMessageCount(int maxBatchMessageCount) {
+        checkArgument(maxBatchMessageCount > 0, "maxBatchMessageCount should be positive");
+        options.setMaxBatchMessageCount(maxBatchMessageCount);
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setMaxBatchSizeInBytes(int)
+     */
+    @Override
+    public ProducerBuilder setMaxBatchSizeInBytes(int maxBatchSizeInBytes) {
+        checkArgument(maxBatchSizeInBytes > 0, "maxBatchSizeInBytes should be positive");
+        options.setMaxBatchSizeInBytes(maxBatchSizeInBytes);
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setCompression(CompressionType, int, int)
+     */
+    @Override
+    public ProducerBuilder setCompression(CompressionType type, int level, int thresholdBytes) {
+        options.setCompression(checkCompression(type, level, thresholdBytes));
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setCompression(String, CompressionType, int, int)
+     */
+    @Override
+    public ProducerBuilder setCompression(String topic, CompressionType type, int level, int thresholdBytes) {
+        checkNotNull(topic, "topic should not be null");
+        checkArgument(MessageBuilderImpl.TOPIC_PATTERN.matcher(topic).matches(), "topic does not match the regex "
+            + "[regex=%s]", MessageBuilderImpl.TOPIC_PATTERN.pattern());
+        options.setCompression(topic, checkCompression(type, level, thresholdBytes));
+        return this;
+    }
+
+    private static Compression checkCompression(CompressionType type, int level, int thresholdBytes) {
+        checkNotNull(type, "compression type should not be null");
+        checkArgument(Compression.isLevelValid(type, level), "compression level is invalid, type=%s, level=%s",
+            type, level);
+        checkArgument(thresholdBytes >= 0, "thresholdBytes should not be negative");
+        return new Compression(type, level, thresholdBytes);
+    }
+
+    /**
+     * @see ProducerBuilder#setMaxInFlightRequests(int)
+     */
+    @Override
+    public ProducerBuilder setMaxInFlightRequests(int maxInFlightRequests) {
+        checkArgument(maxInFlightRequests > 0, "maxInFlightRequests should be positive");
+        this.maxInFlightRequests = maxInFlightRequests;
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setMaxInFlightSizeInBytes(int)
+     */
+    @Override
+    public ProducerBuilder setMaxInFlightSizeInBytes(int maxInFlightSizeInBytes) {
+        checkArgument(maxInFlightSizeInBytes > 0, "maxInFlightSizeInBytes should be positive");
+        this.maxInFlightSizeInBytes = maxInFlightSizeInBytes;
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setBackpressurePolicy(BackpressurePolicy)
+     */
+    @Override
+    public ProducerBuilder setBackpressurePolicy(BackpressurePolicy policy) {
+        this.backpressurePolicy = checkNotNull(policy, "policy should not be null");
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setBackpressureTimeout(Duration)
+     */
+    @Override
+    public ProducerBuilder setBackpressureTimeout(Duration timeout) {
+        checkNotNull(timeout, "timeout should not be null");
+        checkArgument(!timeout.isNegative(), "timeout should not be negative");
+        this.backpressureTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setQueueSelectionStrategy(QueueSelectionStrategy)
+     */
+    @Override
+    public ProducerBuilder setQueueSelectionStrategy(QueueSelectionStrategy strategy) {
+        options.setQueueSelectionStrategy(checkNotNull(strategy, "strategy should not be null"));
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setMessageGroupQueueSelectionStrategy(MessageGroupQueueSelectionStrategy)
+     */
+    @Override
+    public ProducerBuilder setMessageGroupQueueSelectionStrategy(MessageGroupQueueSelectionStrategy strategy) {
+        options.setMessageGroupQueueSelectionStrategy(checkNotNull(strategy, "strategy should not be null"));
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setCircuitBreaker(int, int, double, Duration, int)
+     */
+    @Override
+    public ProducerBuilder setCircuitBreaker(int windowSize, int minRequests, double failureRateThreshold,
+        Duration openDuration, int halfOpenTrials) {
+        checkArgument(windowSize > 0, "windowSize should be positive");
+        checkArgument(minRequests > 0 && minRequests <= windowSize, "minRequests should be in the range of "
+            + "[1, windowSize]");
+        checkArgument(failureRateThreshold > 0 && failureRateThreshold <= 1, "failureRateThreshold should be in the "
+            + "range of (0, 1]");
+        checkNotNull(openDuration, "openDuration should not be null");
+        checkArgument(!openDuration.isNegative(), "openDuration should not be negative");
+        checkArgument(halfOpenTrials > 0, "halfOpenTrials should be positive");
+        options.setCircuitBreaker(windowSize, minRequests, failureRateThreshold, openDuration, halfOpenTrials);
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setRetryBudget(double, int)
+     */
+    @Override
+    public ProducerBuilder setRetryBudget(double ratio, int maxTokens) {
+        checkArgument(ratio > 0 && ratio <= 1, "ratio should be in the range of (0, 1]");
+        checkArgument(maxTokens > 0, "maxTokens should be positive");
+        this.retryBudgetRatio = ratio;
+        this.retryBudgetMaxTokens = maxTokens;
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setTransactionCheckParallelism(int)
+     */
+    @Override
+    public ProducerBuilder setTransactionCheckParallelism(int parallelism) {
+        checkArgument(parallelism > 0, "parallelism should be positive");
+        options.setTransactionCheckParallelism(parallelism);
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setTransactionResolutionCacheDuration(Duration)
+     */
+    @Override
+    public ProducerBuilder setTransactionResolutionCacheDuration(Duration duration) {
+        checkNotNull(duration, "duration should not be null");
+        checkArgument(!duration.isNegative(), "duration should not be negative");
+        options.setTransactionResolutionCacheDuration(duration);
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setOrderedFifoSendAsync(boolean)
+     */
+    @Override
+    public ProducerBuilder setOrderedFifoSendAsync(boolean enabled) {
+        options.setOrderedFifoSendAsync(enabled);
+        return this;
+    }
+
     /**
      * @see ProducerBuilder#build()
      */
     @Override
     public Producer build() {
         checkNotNull(clientConfiguration, "clientConfiguration has not been set yet");
-        final ProducerImpl producer = new ProducerImpl(clientConfiguration, topics, maxAttempts, checker);
+        final InFlightWindow inFlightWindow = Integer.MAX_VALUE == maxInFlightRequests
+            && Integer.MAX_VALUE == maxInFlightSizeInBytes ? null : new InFlightWindow(maxInFlightRequests,
+            maxInFlightSizeInBytes, backpressurePolicy, backpressureTimeout);
+        final RetryBudget retryBudget = 0 == retryBudgetMaxTokens ? null : new RetryBudget(retryBudgetRatio,
+            retryBudgetMaxTokens);
+        options.setInFlightWindow(inFlightWindow).setRetryBudget(retryBudget);
+        final ProducerImpl producer = new ProducerImpl(clientConfiguration, topics, maxAttempts, checker, options);
         producer.startAsync().awaitRunning();
         return producer;
     }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import io.opentelemetry.api.common.Attributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.rocketmq.client.java.metrics.GaugeEnum;
+import org.apache.rocketmq.client.java.metrics.GaugeObserver;
+import org.apache.rocketmq.client.java.metrics.MetricLabels;
+import org.apache.rocketmq.client.java.misc.ClientId;
+
+public class ProducerGaugeObserver implements GaugeObserver {
+    private final InFlightWindow inFlightWindow;
+    private final RetryBudget retryBudget;
+    private final TransactionCheckExecutor transactionCheckExecutor;
+    private final Attributes attributes;
+    private final List<GaugeEnum> gauges;
+
+    /**
+     * In-flight window, retry budget and transaction check executor are nullable, the corresponding gauges are
+     * absent if it is null.
+     */
+    ProducerGaugeObserver(InFlightWindow inFlightWindow, RetryBudget retryBudget,
+        TransactionCheckExecutor transactionCheckExecutor, ClientId clientId) {
+        this.inFlightWindow = inFlightWindow;
+        this.retryBudget = retryBudget;
+        this.transactionCheckExecutor = transactionCheckExecutor;
+        this.attributes = Attributes.builder().put(MetricLabels.CLIENT_ID, clientId.toString()).build();
+        this.gauges = new ArrayList<>();
+        if (null != inFlightWindow) {
+            gauges.add(GaugeEnum.PRODUCER_IN_FLIGHT_REQUESTS);
+            gauges.add(GaugeEnum.PRODUCER_IN_FLIGHT_BYTES);
+        }
+        if (null != retryBudget) {
+            gauges.add(GaugeEnum.PRODUCER_RETRY_BUDGET_TOKENS);
+        }
+        if (null != transactionCheckExecutor) {
+            gauges.add(GaugeEnum.PRODUCER_TRANSACTION_CHECK_QUEUED);
+        }
+    }
+
+    @Override
+    public List<GaugeEnum> getGauges() {
+        return gauges;
+    }
+
+    @Override
+    public Map<Attributes, Double> getValues(GaugeEnum gauge) {
+        switch (gauge) {
+            case PRODUCER_IN_FLIGHT_REQUESTS:
+                return null == inFlightWindow ? new HashMap<>() :
+                    Collections.singletonMap(attributes, (double) inFlightWindow.getInFlightRequests());
+            case PRODUCER_IN_FLIGHT_BYTES:
+                return null == inFlightWindow ? new HashMap<>() :
+                    Collections.singletonMap(attributes, (double) inFlightWindow.getInFlightBytes());
+            case PRODUCER_RETRY_BUDGET_TOKENS:
+                return null == retryBudget ? new HashMap<>() :
+                    Collections.singletonMap(attributes, retryBudget.getTokens());
+            case PRODUCER_TRANSACTION_CHECK_QUEUED:
+                return null == transactionCheckExecutor ? new HashMap<>() :
+                    Collections.singletonMap(attributes, (double) transactionCheckExecutor.getQueuedChecks());
+            default:
+                return new HashMap<>();
+        }
+    }
+}
@@ -35,21 +35,25 @@ import com.google.common.math.IntMath;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import io.opentelemetry.api.common.Attributes;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import net.javacrumbs.futureconverter.java8guava.FutureConverter;
 import org.apache.commons.lang3.StringUtils;
@@ -57,12 +61,15 @@ import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.message.Message;
 import org.apache.rocketmq.client.apis.message.MessageId;
+import org.apache.rocketmq.client.apis.producer.MessageGroupQueueSelectionStrategy;
 import org.apache.rocketmq.client.apis.producer.Producer;
+import org.apache.rocketmq.client.apis.producer.QueueSelectionStrategy;
 import org.apache.rocketmq.client.apis.producer.RecallReceipt;
 import org.apache.rocketmq.client.apis.producer.SendReceipt;
 import org.apache.rocketmq.client.apis.producer.Transaction;
 import org.apache.rocketmq.client.apis.producer.TransactionChecker;
 import org.apache.rocketmq.client.apis.producer.TransactionResolution;
+import org.apache.rocketmq.client.java.exception.InFlightWindowFullException;
 import org.apache.rocketmq.client.java.exception.InternalErrorException;
 import org.apache.rocketmq.client.java.exception.StatusChecker;
 import org.apache.rocketmq.client.java.exception.TooManyRequestsException;
@@ -78,6 +85,9 @@ import org.apache.rocketmq.client.java.message.GeneralMessageImpl;
 import org.apache.rocketmq.client.java.message.MessageType;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
 import org.apache.rocketmq.client.java.message.PublishingMessageImpl;
+import org.apache.rocketmq.client.java.message.PublishingTemplate;
+import org.apache.rocketmq.client.java.metrics.CounterEnum;
+import org.apache.rocketmq.client.java.metrics.MetricLabels;
 import org.apache.rocketmq.client.java.retry.ExponentialBackoffRetryPolicy;
 import org.apache.rocketmq.client.java.retry.RetryPolicy;
 import org.apache.rocketmq.client.java.route.Endpoints;
@@ -104,26 +114,84 @@ class ProducerImpl extends ClientImpl implements Producer {
 
     protected final PublishingSettings publishingSettings;
     final ConcurrentMap<String/* topic */, PublishingLoadBalancer> publishingRouteDataCache;
+    /**
+     * Prebuilt protocol buffer pieces of each message queue, which are dropped once the route of topic is updated.
+     */
+    final ConcurrentMap<MessageQueueImpl, PublishingTemplate> publishingTemplateCache;
+    final EndpointsCircuitBreaker circuitBreaker;
     private final TransactionChecker checker;
+    /**
+     * Executor to check the orphaned transactions, which is null if no transaction checker is registered.
+     */
+    private final TransactionCheckExecutor transactionCheckExecutor;
+    /**
+     * Accumulator for auto-batching of {@link #sendAsync(Message)}, which is null if auto-batching is disabled.
+     */
+    private final SendAccumulator sendAccumulator;
+    /**
+     * Pipeline to keep the order of FIFO messages sent by {@link #sendAsync(Message)}, which is null if it is
+     * disabled.
+     */
+    private final OrderedSendPipeline orderedSendPipeline;
+    /**
+     * Window to limit the in-flight send invocations, which is null if it is unlimited.
+     */
+    private final InFlightWindow inFlightWindow;
+    /**
+     * Stats for {@link QueueSelectionStrategy#LATENCY_AWARE}, which is null for other strategies.
+     */
+    private final PublishingLatencyStats publishingLatencyStats;
+    private final MessageGroupQueueSelectionStrategy messageGroupQueueSelectionStrategy;
+    /**
+     * Budget to limit the resending, which is null if it is unlimited.
+     */
+    private final RetryBudget retryBudget;
+
+    ProducerImpl(ClientConfiguration clientConfiguration, Set<String> topics, int maxAttempts,
+        TransactionChecker checker) {
+        this(clientConfiguration, topics, maxAttempts, checker, new ProducerOptions());
+    }
 
     /**
      * The caller is supposed to have validated the arguments and handled throwing exception or
      * logging warnings already, so we avoid repeating args check here.
      */
     ProducerImpl(ClientConfiguration clientConfiguration, Set<String> topics, int maxAttempts,
-        TransactionChecker checker) {
+        TransactionChecker checker, ProducerOptions options) {
         super(clientConfiguration, topics);
         ExponentialBackoffRetryPolicy retryPolicy = ExponentialBackoffRetryPolicy.immediatelyRetryPolicy(maxAttempts);
         this.publishingSettings = new PublishingSettings(clientConfiguration.getNamespace(), clientId, endpoints,
-            retryPolicy, clientConfiguration.getRequestTimeout(), topics);
+            retryPolicy, clientConfiguration.getRequestTimeout(), topics, options.getCompression(),
+            new HashMap<>(options.getTopicCompressions()));
         this.checker = checker;
+        this.transactionCheckExecutor = null == checker ? null : new TransactionCheckExecutor(clientId, checker,
+            options.getTransactionCheckParallelism(), options.getTransactionResolutionCacheDuration(),
+            clientMeterManager);
         this.publishingRouteDataCache = new ConcurrentHashMap<>();
+        this.publishingTemplateCache = new ConcurrentHashMap<>();
+        final Duration batchLingerDuration = options.getBatchLingerDuration();
+        this.sendAccumulator = batchLingerDuration.isZero() ? null : new SendAccumulator(this, batchLingerDuration,
+            options.getMaxBatchMessageCount(), options.getMaxBatchSizeInBytes());
+        this.orderedSendPipeline = options.isOrderedFifoSendAsync() ? new OrderedSendPipeline(this,
+            options.getMaxBatchMessageCount(), options.getMaxBatchSizeInBytes()) : null;
+        this.inFlightWindow = options.getInFlightWindow();
+        this.publishingLatencyStats = QueueSelectionStrategy.LATENCY_AWARE == options.getQueueSelectionStrategy() ?
+            new PublishingLatencyStats() : null;
+        this.circuitBreaker = new EndpointsCircuitBreaker(clientId, options.getCircuitBreakerWindowSize(),
+            options.getCircuitBreakerMinRequests(), options.getCircuitBreakerFailureRateThreshold(),
+            options.getCircuitBreakerOpenDuration(), options.getCircuitBreakerHalfOpenTrials());
+        this.messageGroupQueueSelectionStrategy = options.getMessageGroupQueueSelectionStrategy();
+        this.retryBudget = options.getRetryBudget();
     }
 
     @Override
     protected void startUp() throws Exception {
         try {
             log.info("Begin to start the rocketmq producer, clientId={}", clientId);
+            if (null != inFlightWindow || null != retryBudget || null != transactionCheckExecutor) {
+                clientMeterManager.setGaugeObserver(new ProducerGaugeObserver(inFlightWindow, retryBudget,
+                    transactionCheckExecutor, clientId));
+            }
             super.startUp();
             log.info("The rocketmq producer starts successfully, clientId={}", clientId);
         } catch (Throwable t) {
@@ -136,6 +204,12 @@ class ProducerImpl extends ClientImpl implements Producer {
     @Override
     protected void shutDown() throws InterruptedException {
         log.info("Begin to shutdown the rocketmq producer, clientId={}", clientId);
+        if (null != sendAccumulator) {
+            sendAccumulator.flushAll();
+        }
+        if (null != transactionCheckExecutor) {
+            transactionCheckExecutor.shutdown();
+        }
         super.shutDown();
         log.info("Shutdown the rocketmq producer successfully, clientId={}", clientId);
     }
@@ -144,7 +218,7 @@ class ProducerImpl extends ClientImpl implements Producer {
     public void onRecoverOrphanedTransactionCommand(Endpoints endpoints, RecoverOrphanedTransactionCommand command) {
         final String transactionId = command.getTransactionId();
         final String messageId = command.getMessage().getSystemProperties().getMessageId();
-        if (null == checker) {
+        if (null == transactionCheckExecutor) {
             log.error("No transaction checker registered, ignore it, messageId={}, transactionId={}, endpoints={},"
                 + " clientId={}", messageId, transactionId, endpoints, clientId);
             return;
@@ -157,30 +231,32 @@ class ProducerImpl extends ClientImpl implements Producer {
                 + "transactionId={}, endpoints={}, clientId={}", messageId, transactionId, endpoints, clientId, t);
             return;
         }
-        ListenableFuture<TransactionResolution> future;
-        try {
-            final ListeningExecutorService service = MoreExecutors.listeningDecorator(telemetryCommandExecutor);
-            final Callable<TransactionResolution> task = () -> checker.check(messageView);
-            future = service.submit(task);
-        } catch (Throwable t) {
-            final SettableFuture<TransactionResolution> future0 = SettableFuture.create();
-            future0.setException(t);
-            future = future0;
-        }
+        final ListenableFuture<TransactionResolution> future = transactionCheckExecutor.check(transactionId,
+            messageView);
         Futures.addCallback(future, new FutureCallback<TransactionResolution>() {
             @Override
             public void onSuccess(TransactionResolution resolution) {
-                try {
-                    if (null == resolution || TransactionResolution.UNKNOWN.equals(resolution)) {
-                        return;
-                    }
-                    final GeneralMessage generalMessage = new GeneralMessageImpl(messageView);
-                    endTransaction(endpoints, generalMessage, messageView.getMessageId(),
-                        transactionId, resolution, TransactionSource.SOURCE_SERVER_CHECK);
-                } catch (Throwable t) {
-                    log.error("Exception raised while ending the transaction, messageId={}, transactionId={}, "
-                        + "endpoints={}, clientId={}", messageId, transactionId, endpoints, clientId, t);
+                if (null == resolution || TransactionResolution.UNKNOWN.equals(resolution)) {
+                    return;
                 }
+                final GeneralMessage generalMessage = new GeneralMessageImpl(messageView);
+                // Never block the thread of transaction checker.
+                final ListenableFuture<Void> endFuture = endTransactionAsync(endpoints, generalMessage,
+                    messageView.getMessageId(), transactionId, resolution, TransactionSource.SOURCE_SERVER_CHECK);
+                Futures.addCallback(endFuture, new FutureCallback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        log.debug("End the transaction after checking, messageId={}, transactionId={}, "
+                            + "resolution={}, endpoints={}, clientId={}", messageId, transactionId, resolution,
+                            endpoints, clientId);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        log.error("Exception raised while ending the transaction, messageId={}, transactionId={}, "
+                            + "endpoints={}, clientId={}", messageId, transactionId, endpoints, clientId, t);
+                    }
+                }, MoreExecutors.directExecutor());
             }
 
             @Override
@@ -244,11 +320,34 @@ class ProducerImpl extends ClientImpl implements Producer {
      */
     @Override
     public CompletableFuture<SendReceipt> sendAsync(Message message) {
+        if (null != sendAccumulator || null != orderedSendPipeline) {
+            return FutureConverter.toCompletableFuture(sendAsync0(message));
+        }
         final ListenableFuture<SendReceipt> future = Futures.transform(send(Collections.singletonList(message), false),
             sendReceipts -> sendReceipts.iterator().next(), MoreExecutors.directExecutor());
         return FutureConverter.toCompletableFuture(future);
     }
 
+    /**
+     * @see Producer#send(List)
+     */
+    @Override
+    public List<SendReceipt> send(List<Message> messages) throws ClientException {
+        final ListenableFuture<List<SendReceipt>> future = Futures.transform(send(messages, false), ArrayList::new,
+            MoreExecutors.directExecutor());
+        return handleClientFuture(future);
+    }
+
+    /**
+     * @see Producer#sendAsync(List)
+     */
+    @Override
+    public CompletableFuture<List<SendReceipt>> sendAsync(List<Message> messages) {
+        final ListenableFuture<List<SendReceipt>> future = Futures.transform(send(messages, false), ArrayList::new,
+            MoreExecutors.directExecutor());
+        return FutureConverter.toCompletableFuture(future);
+    }
+
     /**
      * @see Producer#beginTransaction()
      */
@@ -283,6 +382,47 @@ class ProducerImpl extends ClientImpl implements Producer {
     public void endTransaction(Endpoints endpoints, GeneralMessage generalMessage, MessageId messageId,
         String transactionId, final TransactionResolution resolution, final TransactionSource transactionSource)
         throws ClientException {
+        handleClientFuture(endTransactionAsync(endpoints, generalMessage, messageId, transactionId, resolution,
+            transactionSource));
+    }
+
+    /**
+     * End the transaction of all messages sent, see {@link #endTransactionsAsync(Map, TransactionResolution)}.
+     */
+    void endTransactions(Map<PublishingMessageImpl, SendReceiptImpl> sendReceipts, TransactionResolution resolution)
+        throws ClientException {
+        handleClientFuture(endTransactionsAsync(sendReceipts, resolution));
+    }
+
+    /**
+     * End the transaction of all messages sent by the client, requests are issued concurrently rather than one by one.
+     *
+     * <p>The returned future is completed once all requests are done, and fails with the first failure if any.
+     */
+    ListenableFuture<Void> endTransactionsAsync(Map<PublishingMessageImpl, SendReceiptImpl> sendReceipts,
+        TransactionResolution resolution) {
+        final List<ListenableFuture<Void>> futures = new ArrayList<>(sendReceipts.size());
+        for (Map.Entry<PublishingMessageImpl, SendReceiptImpl> entry : sendReceipts.entrySet()) {
+            final SendReceiptImpl sendReceipt = entry.getValue();
+            futures.add(endTransactionAsync(sendReceipt.getEndpoints(), new GeneralMessageImpl(entry.getKey()),
+                sendReceipt.getMessageId(), sendReceipt.getTransactionId(), resolution,
+                TransactionSource.SOURCE_CLIENT));
+        }
+        return Futures.whenAllComplete(futures).callAsync(() -> {
+            for (ListenableFuture<Void> future : futures) {
+                try {
+                    Futures.getDone(future);
+                } catch (ExecutionException e) {
+                    return future;
+                }
+            }
+            return Futures.immediateVoidFuture();
+        }, MoreExecutors.directExecutor());
+    }
+
+    ListenableFuture<Void> endTransactionAsync(Endpoints endpoints, GeneralMessage generalMessage,
+        MessageId messageId, String transactionId, final TransactionResolution resolution,
+        final TransactionSource transactionSource) {
         final EndTransactionRequest.Builder builder = EndTransactionRequest.newBuilder()
             .setMessageId(messageId.toString()).setTransactionId(transactionId)
             .setSource(transactionSource)
@@ -327,30 +467,113 @@ class ProducerImpl extends ClientImpl implements Producer {
                 doAfter(context0, generalMessages);
             }
         }, MoreExecutors.directExecutor());
-        final EndTransactionResponse response = handleClientFuture(future);
-        final Status status = response.getStatus();
-        final Code code = status.getCode();
-        if (!Code.OK.equals(code)) {
-            throw new ClientException(code.getNumber(), future.getContext().getRequestId(), status.getMessage());
+        return Futures.transformAsync(future, response -> {
+            final Status status = response.getStatus();
+            final Code code = status.getCode();
+            if (!Code.OK.equals(code)) {
+                return Futures.immediateFailedFuture(new ClientException(code.getNumber(),
+                    future.getContext().getRequestId(), status.getMessage()));
+            }
+            return Futures.immediateVoidFuture();
+        }, MoreExecutors.directExecutor());
+    }
+
+    private RetryPolicy getRetryPolicy() {
+        return publishingSettings.getRetryPolicy();
+    }
+
+    private void recordLatency(Endpoints endpoints, long startNanoTime, boolean succeed) {
+        if (null != publishingLatencyStats) {
+            publishingLatencyStats.record(endpoints, System.nanoTime() - startNanoTime, succeed);
         }
     }
 
     /**
-     * Isolate specified {@link Endpoints}.
+     * Take message queue(s) from route for message publishing.
      */
-    private void isolate(Endpoints endpoints) {
-        isolated.add(endpoints);
+    private List<MessageQueueImpl> takeMessageQueues(PublishingLoadBalancer result) {
+        final int maxAttempts = this.getRetryPolicy().getMaxAttempts();
+        final Set<Endpoints> unavailable = circuitBreaker.getUnavailableEndpoints();
+        if (null != publishingLatencyStats) {
+            return result.takeMessageQueues(unavailable, maxAttempts, publishingLatencyStats);
+        }
+        return result.takeMessageQueues(unavailable, maxAttempts);
     }
 
-    private RetryPolicy getRetryPolicy() {
-        return publishingSettings.getRetryPolicy();
+    /**
+     * Take the message queue of current attempt, or the first following candidate whose endpoints are admitted by the
+     * circuit breaker. Fall back to the message queue of current attempt if no endpoints are admitted, which is the
+     * same as the load balancer does.
+     */
+    private MessageQueueImpl takeMessageQueue(List<MessageQueueImpl> candidates, int attempt) {
+        for (int i = 0; i < candidates.size(); i++) {
+            final MessageQueueImpl mq = candidates.get(IntMath.mod(attempt - 1 + i, candidates.size()));
+            if (circuitBreaker.tryAcquire(mq.getBroker().getEndpoints())) {
+                return mq;
+            }
+        }
+        return candidates.get(IntMath.mod(attempt - 1, candidates.size()));
     }
 
     /**
-     * Take message queue(s) from route for message publishing.
+     * Send message through {@link OrderedSendPipeline} if it is a FIFO message and the pipeline is enabled, or append
+     * message into the {@link SendAccumulator}, which would be sent together with others in batch.
      */
-    private List<MessageQueueImpl> takeMessageQueues(PublishingLoadBalancer result) {
-        return result.takeMessageQueues(isolated, this.getRetryPolicy().getMaxAttempts());
+    private ListenableFuture<SendReceipt> sendAsync0(Message message) {
+        if (!this.isRunning()) {
+            final IllegalStateException e = new IllegalStateException("Producer is not running now");
+            log.error("Unable to send message because producer is not running, state={}, clientId={}",
+                this.state(), clientId);
+            return Futures.immediateFailedFuture(e);
+        }
+        final PublishingMessageImpl pubMessage;
+        try {
+            pubMessage = new PublishingMessageImpl(message, publishingSettings, false);
+        } catch (Throwable t) {
+            // Failed to refine message, no need to proceed.
+            log.error("Failed to refine message to send, clientId={}, message={}", clientId, message, t);
+            return Futures.immediateFailedFuture(t);
+        }
+        final List<PublishingMessageImpl> pubMessages = Collections.singletonList(pubMessage);
+        if (null != orderedSendPipeline && MessageType.FIFO.equals(pubMessage.getMessageType())) {
+            return Futures.transform(withinInFlightWindow(pubMessages, () -> orderedSendPipeline.append(pubMessage)),
+                sendReceipt -> sendReceipt, MoreExecutors.directExecutor());
+        }
+        if (null == sendAccumulator) {
+            return Futures.transform(withinInFlightWindow(pubMessages, () -> publish(pubMessages)),
+                sendReceipts -> sendReceipts.iterator().next(), MoreExecutors.directExecutor());
+        }
+        return Futures.transform(withinInFlightWindow(pubMessages, () -> sendAccumulator.append(pubMessage)),
+            sendReceipt -> sendReceipt, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Occupy the {@link InFlightWindow} until the invocation is completed.
+     */
+    private <T> ListenableFuture<T> withinInFlightWindow(List<PublishingMessageImpl> pubMessages,
+        Supplier<ListenableFuture<T>> invocation) {
+        if (null == inFlightWindow) {
+            return invocation.get();
+        }
+        final int size = pubMessages.stream().mapToInt(message -> message.getEncodedBody().remaining()).sum();
+        try {
+            inFlightWindow.acquire(size);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while waiting for the room of in-flight window, clientId={}", clientId);
+            return Futures.immediateFailedFuture(e);
+        } catch (InFlightWindowFullException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        final ListenableFuture<T> future;
+        try {
+            future = invocation.get();
+        } catch (Throwable t) {
+            inFlightWindow.release(size);
+            throw t;
+        }
+        future.addListener(() -> inFlightWindow.release(size), MoreExecutors.directExecutor());
+        return future;
     }
 
     private ListenableFuture<List<SendReceiptImpl>> send(List<Message> messages, boolean txEnabled) {
@@ -365,6 +588,12 @@ class ProducerImpl extends ClientImpl implements Producer {
             return future;
         }
 
+        if (messages.isEmpty()) {
+            final IllegalArgumentException e = new IllegalArgumentException("Messages to send should not be empty");
+            future.setException(e);
+            return future;
+        }
+
         List<PublishingMessageImpl> pubMessages = new ArrayList<>();
         for (Message message : messages) {
             try {
@@ -378,7 +607,14 @@ class ProducerImpl extends ClientImpl implements Producer {
                 return future;
             }
         }
+        return withinInFlightWindow(pubMessages, () -> publish(pubMessages));
+    }
 
+    /**
+     * Publish the refined messages, which are carried by one {@link SendMessageRequest}.
+     */
+    ListenableFuture<List<SendReceiptImpl>> publish(List<PublishingMessageImpl> pubMessages) {
+        SettableFuture<List<SendReceiptImpl>> future = SettableFuture.create();
         // Collect topics to send message.
         final Set<String> topics = pubMessages.stream().map(Message::getTopic).collect(Collectors.toSet());
         if (1 < topics.size()) {
@@ -430,22 +666,28 @@ class ProducerImpl extends ClientImpl implements Producer {
         this.topics.add(topic);
         // Get publishing topic route.
         final ListenableFuture<PublishingLoadBalancer> routeFuture = getPublishingLoadBalancer(topic);
-        return Futures.transformAsync(routeFuture, result -> {
+        final ListenableFuture<List<SendReceiptImpl>> sendFuture = Futures.transformAsync(routeFuture, result -> {
             // Prepare the candidate message queue(s) for retry-sending in advance.
             final List<MessageQueueImpl> candidates = null == messageGroup ? takeMessageQueues(result) :
-                Collections.singletonList(result.takeMessageQueueByMessageGroup(messageGroup));
+                Collections.singletonList(result.takeMessageQueueByMessageGroup(messageGroup,
+                    messageGroupQueueSelectionStrategy));
             final SettableFuture<List<SendReceiptImpl>> future0 = SettableFuture.create();
             send0(future0, topic, messageType, candidates, pubMessages, 1);
             return future0;
         }, MoreExecutors.directExecutor());
+        // Expose the receipts and causes of partial failure by the position of message.
+        return Futures.catchingAsync(sendFuture, PartialSendException.class,
+            e -> Futures.immediateFailedFuture(e.toBatchSendException(pubMessages)), MoreExecutors.directExecutor());
     }
 
     /**
      * The caller is supposed to make sure different messages have the same message type and same topic.
      */
     private SendMessageRequest wrapSendMessageRequest(List<PublishingMessageImpl> pubMessages, MessageQueueImpl mq) {
+        final PublishingTemplate template = publishingTemplateCache.computeIfAbsent(mq,
+            queue -> new PublishingTemplate(clientConfiguration.getNamespace(), queue));
         final List<apache.rocketmq.v2.Message> messages = pubMessages.stream()
-            .map(publishingMessage -> publishingMessage.toProtobuf(clientConfiguration.getNamespace(), mq))
+            .map(publishingMessage -> publishingMessage.toProtobuf(template))
             .collect(Collectors.toList());
         return SendMessageRequest.newBuilder().addAllMessages(messages).build();
     }
@@ -466,16 +708,19 @@ class ProducerImpl extends ClientImpl implements Producer {
     private void send0(SettableFuture<List<SendReceiptImpl>> future0, String topic, MessageType messageType,
         final List<MessageQueueImpl> candidates, final List<PublishingMessageImpl> messages, final int attempt) {
         // Calculate the current message queue.
-        final MessageQueueImpl mq = candidates.get(IntMath.mod(attempt - 1, candidates.size()));
+        final MessageQueueImpl mq = takeMessageQueue(candidates, attempt);
         final List<MessageType> acceptMessageTypes = mq.getAcceptMessageTypes();
         if (publishingSettings.isValidateMessageType() && !acceptMessageTypes.contains(messageType)) {
             final IllegalArgumentException e = new IllegalArgumentException("Current message type not match with "
                 + "topic accept message types, topic=" + topic + ", actualMessageType=" + messageType + ", "
                 + "acceptMessageTypes=" + acceptMessageTypes);
+            // Give back the admission, otherwise the trial of half-open circuit would be held forever.
+            circuitBreaker.release(mq.getBroker().getEndpoints());
             future0.setException(e);
             return;
         }
         final Endpoints endpoints = mq.getBroker().getEndpoints();
+        final long startNanoTime = System.nanoTime();
         final ListenableFuture<List<SendReceiptImpl>> future = send0(endpoints, messages, mq);
         final int maxAttempts = this.getRetryPolicy().getMaxAttempts();
 
@@ -495,6 +740,11 @@ class ProducerImpl extends ClientImpl implements Producer {
         Futures.addCallback(future, new FutureCallback<List<SendReceiptImpl>>() {
             @Override
             public void onSuccess(List<SendReceiptImpl> sendReceipts) {
+                recordLatency(endpoints, startNanoTime, true);
+                circuitBreaker.onSuccess(endpoints);
+                if (null != retryBudget) {
+                    retryBudget.onSuccess();
+                }
                 // Should never reach here.
                 if (sendReceipts.size() != messages.size()) {
                     final InternalErrorException e = new InternalErrorException("[Bug] due to an"
@@ -535,20 +785,45 @@ class ProducerImpl extends ClientImpl implements Producer {
 
             @Override
             public void onFailure(Throwable t) {
+                recordLatency(endpoints, startNanoTime, false);
+                // FIFO messages are resent as a whole, resending the failed part only would break the order.
+                final Map<String, SendReceiptImpl> succeedReceipts = !MessageType.FIFO.equals(messageType)
+                    && t instanceof PartialSendException ? ((PartialSendException) t).getSendReceipts() :
+                    Collections.emptyMap();
+                final List<PublishingMessageImpl> failedMessages = new ArrayList<>();
+                final List<GeneralMessage> failedGeneralMessages = new ArrayList<>();
+                final List<GeneralMessage> succeedGeneralMessages = new ArrayList<>();
+                for (int i = 0; i < messages.size(); i++) {
+                    final PublishingMessageImpl message = messages.get(i);
+                    if (succeedReceipts.containsKey(message.getMessageId().toString())) {
+                        succeedGeneralMessages.add(generalMessages.get(i));
+                        continue;
+                    }
+                    failedMessages.add(message);
+                    failedGeneralMessages.add(generalMessages.get(i));
+                }
                 // Intercept after message publishing.
+                if (!succeedGeneralMessages.isEmpty()) {
+                    MessageInterceptorContextImpl context0 = new MessageInterceptorContextImpl(MessageHookPoints.SEND,
+                        MessageHookPointsStatus.OK, new HashMap<>(context.getAttributes()));
+                    // Add send receipts to context.
+                    context0.putAttribute(SEND_RECEIPTS_CONTEXT_KEY,
+                        Attribute.create(new ArrayList<>(succeedReceipts.values())));
+                    doAfter(context0, succeedGeneralMessages);
+                }
                 MessageInterceptorContextImpl context0 = new MessageInterceptorContextImpl(context,
                     MessageHookPointsStatus.ERROR);
                 // Add send exception to context.
                 context0.putAttribute(SEND_EXCEPTION_CONTEXT_KEY, Attribute.create(t));
-                doAfter(context0, generalMessages);
+                doAfter(context0, failedGeneralMessages);
 
                 // Collect messageId(s) for logging.
                 List<MessageId> messageIds = new ArrayList<>();
-                for (PublishingMessageImpl message : messages) {
+                for (PublishingMessageImpl message : failedMessages) {
                     messageIds.add(message.getMessageId());
                 }
-                // Isolate endpoints because of sending failure.
-                isolate(endpoints);
+                // Record the failure, endpoints would be excluded once the circuit is opened.
+                circuitBreaker.onFailure(endpoints, t);
                 if (attempt >= maxAttempts) {
                     // No need more attempts.
                     future0.setException(t);
@@ -557,26 +832,99 @@ class ProducerImpl extends ClientImpl implements Producer {
                         maxAttempts, attempt, topic, messageIds, endpoints, clientId, t);
                     return;
                 }
+                if (null != retryBudget && !retryBudget.tryAcquire()) {
+                    // Give up resending to avoid amplifying the load of remote.
+                    future0.setException(t);
+                    clientMeterManager.add(CounterEnum.PRODUCER_RETRY_BUDGET_EXHAUSTED,
+                        Attributes.builder().put(MetricLabels.CLIENT_ID, clientId.toString()).build(), 1);
+                    log.error("Failed to send message(s), retry budget is exhausted, maxAttempts={}, attempt={}, "
+                            + "topic={}, messageId(s)={}, endpoints={}, clientId={}", maxAttempts, attempt, topic,
+                        messageIds, endpoints, clientId, t);
+                    return;
+                }
                 // Try to do more attempts.
                 int nextAttempt = 1 + attempt;
+                // Only resend the message(s) which failed, receipts of others are merged afterwards.
+                final SettableFuture<List<SendReceiptImpl>> future1 = succeedReceipts.isEmpty() ? future0 :
+                    mergedFuture(future0, messages, succeedReceipts);
                 // Retry immediately if the request is not throttled.
                 if (!(t instanceof TooManyRequestsException)) {
                     log.warn("Failed to send message, would attempt to resend right now, maxAttempts={}, "
                             + "attempt={}, topic={}, messageId(s)={}, endpoints={}, clientId={}", maxAttempts, attempt,
                         topic, messageIds, endpoints, clientId, t);
-                    send0(future0, topic, messageType, candidates, messages, nextAttempt);
+                    send0(future1, topic, messageType, candidates, failedMessages, nextAttempt);
                     return;
                 }
-                final Duration delay = ProducerImpl.this.getRetryPolicy().getNextAttemptDelay(nextAttempt);
+                final Duration delay = jitter(ProducerImpl.this.getRetryPolicy().getNextAttemptDelay(nextAttempt));
                 log.warn("Failed to send message due to too many requests, would attempt to resend after {}, "
                         + "maxAttempts={}, attempt={}, topic={}, messageId(s)={}, endpoints={}, clientId={}", delay,
                     maxAttempts, attempt, topic, messageIds, endpoints, clientId, t);
-                ProducerImpl.this.getClientManager().getScheduler().schedule(() -> send0(future0, topic, messageType,
-                    candidates, messages, nextAttempt), delay.toNanos(), TimeUnit.NANOSECONDS);
+                ProducerImpl.this.getClientManager().getScheduler().schedule(() -> send0(future1, topic, messageType,
+                    candidates, failedMessages, nextAttempt), delay.toNanos(), TimeUnit.NANOSECONDS);
             }
         }, clientCallbackExecutor);
     }
 
+    /**
+     * Randomize the delay in [delay / 2, delay], so that throttled producers would not resend at the same moment.
+     */
+    static Duration jitter(Duration delay) {
+        final long nanos = delay.toNanos();
+        if (nanos <= 1) {
+            return delay;
+        }
+        final long half = nanos / 2;
+        return Duration.ofNanos(nanos - half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    /**
+     * Create the future to resend the failed part of messages, the receipts of the succeeded part would be merged
+     * into the original future once the resending is done.
+     */
+    private SettableFuture<List<SendReceiptImpl>> mergedFuture(SettableFuture<List<SendReceiptImpl>> future0,
+        List<PublishingMessageImpl> messages, Map<String, SendReceiptImpl> succeedReceipts) {
+        final SettableFuture<List<SendReceiptImpl>> future = SettableFuture.create();
+        Futures.addCallback(future, new FutureCallback<List<SendReceiptImpl>>() {
+            @Override
+            public void onSuccess(List<SendReceiptImpl> sendReceipts) {
+                final Map<String, SendReceiptImpl> merged = new HashMap<>(succeedReceipts);
+                for (SendReceiptImpl sendReceipt : sendReceipts) {
+                    merged.put(sendReceipt.getMessageId().toString(), sendReceipt);
+                }
+                List<SendReceiptImpl> receipts = new ArrayList<>();
+                for (PublishingMessageImpl message : messages) {
+                    final SendReceiptImpl sendReceipt = merged.get(message.getMessageId().toString());
+                    if (null == sendReceipt) {
+                        // Should never reach here.
+                        future0.setException(new InternalErrorException("[Bug] send receipt is missing, messageId="
+                            + message.getMessageId()));
+                        return;
+                    }
+                    receipts.add(sendReceipt);
+                }
+                future0.set(receipts);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                final Map<String, SendReceiptImpl> merged = new HashMap<>(succeedReceipts);
+                final Map<String, Throwable> causes = new HashMap<>();
+                if (t instanceof PartialSendException) {
+                    merged.putAll(((PartialSendException) t).getSendReceipts());
+                    causes.putAll(((PartialSendException) t).getCauses());
+                }
+                for (PublishingMessageImpl message : messages) {
+                    final String messageId = message.getMessageId().toString();
+                    if (!merged.containsKey(messageId)) {
+                        causes.putIfAbsent(messageId, t);
+                    }
+                }
+                future0.setException(new PartialSendException(merged, causes));
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
     private PublishingLoadBalancer updatePublishingLoadBalancer(String topic, TopicRouteData topicRouteData) {
         PublishingLoadBalancer publishingLoadBalancer = publishingRouteDataCache.get(topic);
         publishingLoadBalancer = null == publishingLoadBalancer ? new PublishingLoadBalancer(topicRouteData) :
@@ -588,6 +936,7 @@ class ProducerImpl extends ClientImpl implements Producer {
     @Override
     public void onTopicRouteDataUpdate0(String topic, TopicRouteData topicRouteData) {
         updatePublishingLoadBalancer(topic, topicRouteData);
+        publishingTemplateCache.keySet().removeIf(mq -> topic.equals(mq.getTopic()));
     }
 
     private ListenableFuture<PublishingLoadBalancer> getPublishingLoadBalancer(final String topic) {
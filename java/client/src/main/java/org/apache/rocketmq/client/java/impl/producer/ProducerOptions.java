@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.rocketmq.client.apis.producer.MessageGroupQueueSelectionStrategy;
+import org.apache.rocketmq.client.apis.producer.QueueSelectionStrategy;
+
+/**
+ * Options of {@link ProducerImpl}, which are set by {@link ProducerBuilderImpl} and take the default value otherwise.
+ *
+ * <p>The caller is supposed to have validated the options already, {@link ProducerImpl} only reads them during its
+ * construction.
+ */
+class ProducerOptions {
+    private Duration batchLingerDuration = Duration.ZERO;
+    private int maxBatchMessageCount = 128;
+    private int maxBatchSizeInBytes = 1024 * 1024;
+    private Compression compression = Compression.DISABLED;
+    private final Map<String, Compression> topicCompressions = new HashMap<>();
+    /**
+     * Window to limit the in-flight send invocations, which is null if it is unlimited.
+     */
+    private InFlightWindow inFlightWindow = null;
+    private QueueSelectionStrategy queueSelectionStrategy = QueueSelectionStrategy.ROUND_ROBIN;
+    private MessageGroupQueueSelectionStrategy messageGroupQueueSelectionStrategy =
+        MessageGroupQueueSelectionStrategy.HASH_MODULO;
+    private int circuitBreakerWindowSize = 10;
+    private int circuitBreakerMinRequests = 3;
+    private double circuitBreakerFailureRateThreshold = 0.5;
+    private Duration circuitBreakerOpenDuration = Duration.ofMillis(500);
+    private int circuitBreakerHalfOpenTrials = 1;
+    /**
+     * Budget to limit the resending, which is null if it is unlimited.
+     */
+    private RetryBudget retryBudget = null;
+    private int transactionCheckParallelism = 1;
+    private Duration transactionResolutionCacheDuration = Duration.ofSeconds(10);
+    private boolean orderedFifoSendAsync = false;
+
+    Duration getBatchLingerDuration() {
+        return batchLingerDuration;
+    }
+
+    ProducerOptions setBatchLingerDuration(Duration batchLingerDuration) {
+        this.batchLingerDuration = batchLingerDuration;
+        return this;
+    }
+
+    int getMaxBatchMessageCount() {
+        return maxBatchMessageCount;
+    }
+
+    ProducerOptions setMaxBatchMessageCount(int maxBatchMessageCount) {
+        this.maxBatchMessageCount = maxBatchMessageCount;
+        return this;
+    }
+
+    int getMaxBatchSizeInBytes() {
+        return maxBatchSizeInBytes;
+    }
+
+    ProducerOptions setMaxBatchSizeInBytes(int maxBatchSizeInBytes) {
+        this.maxBatchSizeInBytes = maxBatchSizeInBytes;
+        return this;
+    }
+
+    Compression getCompression() {
+        return compression;
+    }
+
+    ProducerOptions setCompression(Compression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    Map<String, Compression> getTopicCompressions() {
+        return topicCompressions;
+    }
+
+    ProducerOptions setCompression(String topic, Compression compression) {
+        this.topicCompressions.put(topic, compression);
+        return this;
+    }
+
+    InFlightWindow getInFlightWindow() {
+        return inFlightWindow;
+    }
+
+    ProducerOptions setInFlightWindow(InFlightWindow inFlightWindow) {
+        this.inFlightWindow = inFlightWindow;
+        return this;
+    }
+
+    QueueSelectionStrategy getQueueSelectionStrategy() {
+        return queueSelectionStrategy;
+    }
+
+    ProducerOptions setQueueSelectionStrategy(QueueSelectionStrategy queueSelectionStrategy) {
+        this.queueSelectionStrategy = queueSelectionStrategy;
+        return this;
+    }
+
+    MessageGroupQueueSelectionStrategy getMessageGroupQueueSelectionStrategy() {
+        return messageGroupQueueSelectionStrategy;
+    }
+
+    ProducerOptions setMessageGroupQueueSelectionStrategy(
+        MessageGroupQueueSelectionStrategy messageGroupQueueSelectionStrategy) {
+        this.messageGroupQueueSelectionStrategy = messageGroupQueueSelectionStrategy;
+        return this;
+    }
+
+    int getCircuitBreakerWindowSize() {
+        return circuitBreakerWindowSize;
+    }
+
+    int getCircuitBreakerMinRequests() {
+        return circuitBreakerMinRequests;
+    }
+
+    double getCircuitBreakerFailureRateThreshold() {
+        return circuitBreakerFailureRateThreshold;
+    }
+
+    Duration getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    int getCircuitBreakerHalfOpenTrials() {
+        return circuitBreakerHalfOpenTrials;
+    }
+
+    ProducerOptions setCircuitBreaker(int windowSize, int minRequests, double failureRateThreshold,
+        Duration openDuration, int halfOpenTrials) {
+        this.circuitBreakerWindowSize = windowSize;
+        this.circuitBreakerMinRequests = minRequests;
+        this.circuitBreakerFailureRateThreshold = failureRateThreshold;
+        this.circuitBreakerOpenDuration = openDuration;
+        this.circuitBreakerHalfOpenTrials = halfOpenTrials;
+        return this;
+    }
+
+    RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    ProducerOptions setRetryBudget(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
+    int getTransactionCheckParallelism() {
+        return transactionCheckParallelism;
+    }
+
+    ProducerOptions setTransactionCheckParallelism(int transactionCheckParallelism) {
+        this.transactionCheckParallelism = transactionCheckParallelism;
+        return this;
+    }
+
+    Duration getTransactionResolutionCacheDuration() {
+        return transactionResolutionCacheDuration;
+    }
+
+    ProducerOptions setTransactionResolutionCacheDuration(Duration transactionResolutionCacheDuration) {
+        this.transactionResolutionCacheDuration = transactionResolutionCacheDuration;
+        return this;
+    }
+
+    boolean isOrderedFifoSendAsync() {
+        return orderedFifoSendAsync;
+    }
+
+    ProducerOptions setOrderedFifoSendAsync(boolean orderedFifoSendAsync) {
+        this.orderedFifoSendAsync = orderedFifoSendAsync;
+        return this;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.rocketmq.client.java.route.Endpoints;
+
+/**
+ * Exponentially weighted moving average of publishing latency and error rate of each endpoints, which is used to
+ * score the endpoints for {@link org.apache.rocketmq.client.apis.producer.QueueSelectionStrategy#LATENCY_AWARE}.
+ */
+class PublishingLatencyStats {
+    /**
+     * Weight of the latest sample.
+     */
+    private static final double ALPHA = 0.3;
+    /**
+     * Latency is amplified by the error rate, endpoints which always fails is scored as 10 times slower.
+     */
+    private static final double ERROR_PENALTY = 10;
+    /**
+     * Stats of endpoints which have not been updated for a while are considered to be stale, and the endpoints would
+     * be probed again.
+     */
+    private static final Duration STALE_DURATION = Duration.ofSeconds(30);
+
+    private final ConcurrentMap<Endpoints, Stats> statsTable;
+
+    PublishingLatencyStats() {
+        this.statsTable = new ConcurrentHashMap<>();
+    }
+
+    void record(Endpoints endpoints, long latencyNanos, boolean succeed) {
+        statsTable.computeIfAbsent(endpoints, e -> new Stats()).record(latencyNanos, succeed, System.nanoTime());
+    }
+
+    /**
+     * Score of endpoints, the lower the better. Endpoints without fresh stats are scored as zero.
+     */
+    double score(Endpoints endpoints) {
+        final Stats stats = statsTable.get(endpoints);
+        return null == stats ? 0 : stats.score(System.nanoTime());
+    }
+
+    private static class Stats {
+        @GuardedBy("this")
+        private double latencyNanos = 0;
+        @GuardedBy("this")
+        private double errorRate = 0;
+        @GuardedBy("this")
+        private long updateNanoTime = 0;
+        @GuardedBy("this")
+        private boolean initialized = false;
+
+        synchronized void record(long latencyNanos, boolean succeed, long nanoTime) {
+            final double error = succeed ? 0 : 1;
+            if (!initialized) {
+                this.latencyNanos = latencyNanos;
+                this.errorRate = error;
+                this.initialized = true;
+            } else {
+                this.latencyNanos = ALPHA * latencyNanos + (1 - ALPHA) * this.latencyNanos;
+                this.errorRate = ALPHA * error + (1 - ALPHA) * this.errorRate;
+            }
+            this.updateNanoTime = nanoTime;
+        }
+
+        synchronized double score(long nanoTime) {
+            if (nanoTime - updateNanoTime > STALE_DURATION.toNanos()) {
+                return 0;
+            }
+            return latencyNanos * (1 + ERROR_PENALTY * errorRate);
+        }
+    }
+}
@@ -20,10 +20,8 @@ package org.apache.rocketmq.client.java.impl.producer;
 import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
-import com.google.common.hash.Hashing;
 import com.google.common.math.IntMath;
 import com.google.common.math.LongMath;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -32,6 +30,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.Immutable;
 import org.apache.commons.lang3.RandomUtils;
+import org.apache.rocketmq.client.apis.producer.MessageGroupQueueSelectionStrategy;
 import org.apache.rocketmq.client.java.misc.Utilities;
 import org.apache.rocketmq.client.java.route.Broker;
 import org.apache.rocketmq.client.java.route.Endpoints;
@@ -48,6 +47,11 @@ public class PublishingLoadBalancer {
      * Message queues to send message.
      */
     private final ImmutableList<MessageQueueImpl> messageQueues;
+    /**
+     * Hash of each message queue for {@link MessageGroupQueueSelectionStrategy#RENDEZVOUS_HASH}, which only depends
+     * on the broker name and queue id, so that it is stable across route updates.
+     */
+    private final long[] messageQueueHashes;
 
     public PublishingLoadBalancer(TopicRouteData topicRouteData) {
         this(new AtomicInteger(RandomUtils.nextInt(0, Integer.MAX_VALUE)), topicRouteData);
@@ -63,6 +67,12 @@ public class PublishingLoadBalancer {
             throw new IllegalArgumentException("No writable message queue found, topiRouteData=" + topicRouteData);
         }
         this.messageQueues = ImmutableList.<MessageQueueImpl>builder().addAll(mqs).build();
+        this.messageQueueHashes = new long[mqs.size()];
+        for (int i = 0; i < mqs.size(); i++) {
+            final MessageQueueImpl mq = mqs.get(i);
+            messageQueueHashes[i] = MessageGroupHashing.mix(MessageGroupHashing.sipHash24(mq.getBroker().getName())
+                + mq.getQueueId());
+        }
     }
 
     PublishingLoadBalancer update(TopicRouteData topicRouteData) {
@@ -70,8 +80,25 @@ public class PublishingLoadBalancer {
     }
 
     public MessageQueueImpl takeMessageQueueByMessageGroup(String messageGroup) {
-        final long hashCode = Hashing.sipHash24().hashBytes(messageGroup.getBytes(StandardCharsets.UTF_8)).asLong();
-        final int index = LongMath.mod(hashCode, messageQueues.size());
+        return takeMessageQueueByMessageGroup(messageGroup, MessageGroupQueueSelectionStrategy.HASH_MODULO);
+    }
+
+    MessageQueueImpl takeMessageQueueByMessageGroup(String messageGroup, MessageGroupQueueSelectionStrategy strategy) {
+        final long hashCode = MessageGroupHashing.sipHash24(messageGroup);
+        if (MessageGroupQueueSelectionStrategy.HASH_MODULO == strategy) {
+            final int index = LongMath.mod(hashCode, messageQueues.size());
+            return messageQueues.get(index);
+        }
+        // Rendezvous hashing, take the message queue with the highest score.
+        int index = 0;
+        long maxScore = Long.MIN_VALUE;
+        for (int i = 0; i < messageQueueHashes.length; i++) {
+            final long score = MessageGroupHashing.mix(hashCode ^ messageQueueHashes[i]);
+            if (score > maxScore) {
+                maxScore = score;
+                index = i;
+            }
+        }
         return messageQueues.get(index);
     }
 
@@ -92,7 +119,7 @@ public class PublishingLoadBalancer {
                 return candidates;
             }
         }
-        // If all endpoints are isolated.
+        // If all endpoints are excluded.
         if (candidates.isEmpty()) {
             for (int i = 0; i < messageQueues.size(); i++) {
                 final MessageQueueImpl messageQueueImpl = messageQueues.get(IntMath.mod(next++, messageQueues.size()));
@@ -110,6 +137,24 @@ public class PublishingLoadBalancer {
         return candidates;
     }
 
+    /**
+     * Take message queues with the power of two choices, the message queue in turn competes with another one picked
+     * randomly, and the one with lower score is taken as the first candidate. The rest candidates are taken in turn,
+     * which are used for retries.
+     */
+    List<MessageQueueImpl> takeMessageQueues(Set<Endpoints> excluded, int count, PublishingLatencyStats stats) {
+        final List<MessageQueueImpl> candidates = takeMessageQueues(excluded, messageQueues.size());
+        if (candidates.size() > 1) {
+            final int other = RandomUtils.nextInt(1, candidates.size());
+            final double score = stats.score(candidates.get(0).getBroker().getEndpoints());
+            final double otherScore = stats.score(candidates.get(other).getBroker().getEndpoints());
+            if (otherScore < score) {
+                candidates.add(0, candidates.remove(other));
+            }
+        }
+        return candidates.size() > count ? new ArrayList<>(candidates.subList(0, count)) : candidates;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -22,6 +22,8 @@ import apache.rocketmq.v2.Resource;
 import com.google.common.base.MoreObjects;
 import com.google.protobuf.util.Durations;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.rocketmq.client.java.impl.ClientType;
@@ -44,17 +46,35 @@ public class PublishingSettings extends Settings {
      */
     private volatile int maxBodySizeBytes = 4 * 1024 * 1024;
     private volatile boolean validateMessageType = true;
+    private final Compression compression;
+    private final Map<String/* topic */, Compression> topicCompressions;
 
     public PublishingSettings(String namespace, ClientId clientId, Endpoints accessPoint,
         ExponentialBackoffRetryPolicy retryPolicy, Duration requestTimeout, Set<String> topics) {
+        this(namespace, clientId, accessPoint, retryPolicy, requestTimeout, topics, Compression.DISABLED,
+            Collections.emptyMap());
+    }
+
+    public PublishingSettings(String namespace, ClientId clientId, Endpoints accessPoint,
+        ExponentialBackoffRetryPolicy retryPolicy, Duration requestTimeout, Set<String> topics,
+        Compression compression, Map<String, Compression> topicCompressions) {
         super(namespace, clientId, ClientType.PRODUCER, accessPoint, retryPolicy, requestTimeout);
         this.topics = topics;
+        this.compression = compression;
+        this.topicCompressions = topicCompressions;
     }
 
     public int getMaxBodySizeBytes() {
         return maxBodySizeBytes;
     }
 
+    /**
+     * Get the compression of message body for the specified topic, the topic-level override takes precedence.
+     */
+    public Compression getCompression(String topic) {
+        return topicCompressions.getOrDefault(topic, compression);
+    }
+
     public boolean isValidateMessageType() {
         return validateMessageType;
     }
@@ -102,6 +122,8 @@ public class PublishingSettings extends Settings {
             .add("requestTimeout", requestTimeout)
             .add("topics", topics)
             .add("maxBodySizeBytes", maxBodySizeBytes)
+            .add("compression", compression)
+            .add("topicCompressions", topicCompressions)
             .toString();
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.common.base.MoreObjects;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.rocketmq.client.java.misc.ExcludeFromJacocoGeneratedReport;
+
+/**
+ * Token bucket to limit the resending of producer to a fraction of the successful sending.
+ *
+ * <p>Each successful send deposits {@code ratio} token, and each resend withdraws one token, the resend is refused
+ * once the bucket is exhausted. The bucket is full initially, so that the producer with few traffic could still
+ * resend.
+ */
+class RetryBudget {
+    /**
+     * Tokens are stored in the unit of 1/1000 token to avoid the floating point arithmetic.
+     */
+    private static final long SCALE = 1000;
+
+    private final double ratio;
+    private final int maxTokens;
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+    private final AtomicLong exhaustedCount;
+
+    RetryBudget(double ratio, int maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.deposit = Math.max(1, Math.round(ratio * SCALE));
+        this.capacity = maxTokens * SCALE;
+        this.balance = new AtomicLong(capacity);
+        this.exhaustedCount = new AtomicLong(0);
+    }
+
+    void onSuccess() {
+        balance.updateAndGet(current -> Math.min(capacity, current + deposit));
+    }
+
+    /**
+     * Try to withdraw one token for resending.
+     *
+     * @return true if the resend is allowed.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            final long current = balance.get();
+            if (current < SCALE) {
+                exhaustedCount.incrementAndGet();
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    double getTokens() {
+        return (double) balance.get() / SCALE;
+    }
+
+    /**
+     * Get the count of resending refused since the producer starts.
+     */
+    long getExhaustedCount() {
+        return exhaustedCount.get();
+    }
+
+    @ExcludeFromJacocoGeneratedReport
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("ratio", ratio)
+            .add("maxTokens", maxTokens)
+            .add("tokens", getTokens())
+            .add("exhaustedCount", exhaustedCount.get())
+            .toString();
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.common.base.Objects;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.rocketmq.client.apis.producer.BatchSendException;
+import org.apache.rocketmq.client.java.exception.InternalErrorException;
+import org.apache.rocketmq.client.java.message.MessageType;
+import org.apache.rocketmq.client.java.message.PublishingMessageImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accumulator to coalesce messages sent asynchronously from different callers into one
+ * {@link apache.rocketmq.v2.SendMessageRequest}.
+ *
+ * <p>Messages with the same topic, message type, message group and lite topic are appended into the same batch, the
+ * batch is flushed once the linger duration is elapsed or the message count/bytes threshold is reached.
+ */
+@SuppressWarnings({"UnstableApiUsage", "NullableProblems"})
+class SendAccumulator {
+    private static final Logger log = LoggerFactory.getLogger(SendAccumulator.class);
+
+    private final ProducerImpl producer;
+    private final Duration lingerDuration;
+    private final int maxBatchMessageCount;
+    private final int maxBatchSizeInBytes;
+
+    @GuardedBy("batchesLock")
+    private final Map<BatchKey, Batch> batches;
+    private final Lock batchesLock;
+
+    SendAccumulator(ProducerImpl producer, Duration lingerDuration, int maxBatchMessageCount,
+        int maxBatchSizeInBytes) {
+        this.producer = producer;
+        this.lingerDuration = lingerDuration;
+        this.maxBatchMessageCount = maxBatchMessageCount;
+        this.maxBatchSizeInBytes = maxBatchSizeInBytes;
+        this.batches = new HashMap<>();
+        this.batchesLock = new ReentrantLock();
+    }
+
+    /**
+     * Append message into the batch, the returned future is completed once the batch is sent.
+     */
+    ListenableFuture<SendReceiptImpl> append(PublishingMessageImpl message) {
+        final SettableFuture<SendReceiptImpl> future = SettableFuture.create();
+        final int bodySize = message.getEncodedBody().remaining();
+        final BatchKey key = new BatchKey(message);
+        Batch overflowed = null;
+        Batch ready = null;
+        Batch created = null;
+        batchesLock.lock();
+        try {
+            Batch batch = batches.get(key);
+            // Flush the current batch ahead of time if the message could not be appended any more.
+            if (null != batch && !batch.hasRoomFor(bodySize)) {
+                batches.remove(key);
+                overflowed = batch;
+                batch = null;
+            }
+            if (null == batch) {
+                batch = new Batch();
+                batches.put(key, batch);
+                created = batch;
+            }
+            batch.add(message, future, bodySize);
+            if (batch.isFull()) {
+                batches.remove(key);
+                ready = batch;
+            }
+        } finally {
+            batchesLock.unlock();
+        }
+        if (null != overflowed) {
+            flush(overflowed);
+        }
+        if (null != ready) {
+            flush(ready);
+            return future;
+        }
+        if (null != created) {
+            scheduleLingerFlush(key, created);
+        }
+        return future;
+    }
+
+    /**
+     * Flush all batches regardless of the linger duration, which is supposed to be invoked before shutdown.
+     */
+    void flushAll() {
+        final List<Batch> drained;
+        batchesLock.lock();
+        try {
+            drained = new ArrayList<>(batches.values());
+            batches.clear();
+        } finally {
+            batchesLock.unlock();
+        }
+        drained.forEach(this::flush);
+    }
+
+    private void scheduleLingerFlush(BatchKey key, Batch batch) {
+        final ScheduledExecutorService scheduler = producer.getScheduler();
+        try {
+            scheduler.schedule(() -> {
+                batchesLock.lock();
+                try {
+                    // The batch has been flushed already.
+                    if (batch != batches.get(key)) {
+                        return;
+                    }
+                    batches.remove(key);
+                } finally {
+                    batchesLock.unlock();
+                }
+                flush(batch);
+            }, lingerDuration.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (Throwable t) {
+            log.error("[Bug] Failed to schedule the flush of batch, flush it right now, clientId={}",
+                producer.getClientId(), t);
+            batchesLock.lock();
+            try {
+                if (batch != batches.get(key)) {
+                    return;
+                }
+                batches.remove(key);
+            } finally {
+                batchesLock.unlock();
+            }
+            flush(batch);
+        }
+    }
+
+    private void flush(Batch batch) {
+        final List<PublishingMessageImpl> messages = batch.messages;
+        final List<SettableFuture<SendReceiptImpl>> futures = batch.futures;
+        final ListenableFuture<List<SendReceiptImpl>> future;
+        try {
+            future = producer.publish(messages);
+        } catch (Throwable t) {
+            // Should never reach here.
+            log.error("[Bug] Exception raised while publishing batch, clientId={}", producer.getClientId(), t);
+            futures.forEach(f -> f.setException(t));
+            return;
+        }
+        completeFutures(messages, futures, future);
+    }
+
+    /**
+     * Complete the future of each message by the result of the request which carries them.
+     */
+    static void completeFutures(List<PublishingMessageImpl> messages, List<SettableFuture<SendReceiptImpl>> futures,
+        ListenableFuture<List<SendReceiptImpl>> future) {
+        Futures.addCallback(future, new FutureCallback<List<SendReceiptImpl>>() {
+            @Override
+            public void onSuccess(List<SendReceiptImpl> sendReceipts) {
+                final Map<String, SendReceiptImpl> receiptMap = new HashMap<>();
+                for (SendReceiptImpl sendReceipt : sendReceipts) {
+                    receiptMap.put(sendReceipt.getMessageId().toString(), sendReceipt);
+                }
+                for (int i = 0; i < messages.size(); i++) {
+                    final PublishingMessageImpl message = messages.get(i);
+                    final SendReceiptImpl sendReceipt = receiptMap.get(message.getMessageId().toString());
+                    if (null == sendReceipt) {
+                        // Should never reach here.
+                        futures.get(i).setException(new InternalErrorException("[Bug] send receipt is missing, "
+                            + "messageId=" + message.getMessageId()));
+                        continue;
+                    }
+                    futures.get(i).set(sendReceipt);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (!(t instanceof BatchSendException)) {
+                    futures.forEach(f -> f.setException(t));
+                    return;
+                }
+                final BatchSendException e = (BatchSendException) t;
+                for (int i = 0; i < messages.size(); i++) {
+                    final SendReceiptImpl sendReceipt = (SendReceiptImpl) e.getSendReceipts().get(i);
+                    if (null != sendReceipt) {
+                        futures.get(i).set(sendReceipt);
+                        continue;
+                    }
+                    final Throwable cause = e.getCauses().get(i);
+                    futures.get(i).setException(null == cause ? e : cause);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private class Batch {
+        private final List<PublishingMessageImpl> messages = new ArrayList<>();
+        private final List<SettableFuture<SendReceiptImpl>> futures = new ArrayList<>();
+        private long bytes = 0;
+
+        void add(PublishingMessageImpl message, SettableFuture<SendReceiptImpl> future, int bodySize) {
+            messages.add(message);
+            futures.add(future);
+            bytes += bodySize;
+        }
+
+        boolean hasRoomFor(int bodySize) {
+            return messages.size() < maxBatchMessageCount && bytes + bodySize <= maxBatchSizeInBytes;
+        }
+
+        boolean isFull() {
+            return messages.size() >= maxBatchMessageCount || bytes >= maxBatchSizeInBytes;
+        }
+    }
+
+    private static class BatchKey {
+        private final String topic;
+        private final MessageType messageType;
+        private final String messageGroup;
+        private final String liteTopic;
+
+        BatchKey(PublishingMessageImpl message) {
+            this.topic = message.getTopic();
+            this.messageType = message.getMessageType();
+            this.messageGroup = message.getMessageGroup().orElse(null);
+            this.liteTopic = message.getLiteTopic().orElse(null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey that = (BatchKey) o;
+            return Objects.equal(topic, that.topic) && messageType == that.messageType &&
+                Objects.equal(messageGroup, that.messageGroup) && Objects.equal(liteTopic, that.liteTopic);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(topic, messageType, messageGroup, liteTopic);
+        }
+    }
+}
@@ -25,7 +25,9 @@ import apache.rocketmq.v2.Status;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Predicate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.message.MessageId;
@@ -89,6 +91,11 @@ public class SendReceiptImpl implements SendReceipt {
             .map(SendResultEntry::getStatus).filter((Predicate<Status>) s -> !s.getCode().equals(Code.OK)).findFirst();
         if (abnormalStatus.isPresent()) {
             status = abnormalStatus.get();
+            // Some entries are sent successfully, report them separately rather than fail the whole batch.
+            final boolean partial = entries.stream().anyMatch(entry -> Code.OK.equals(entry.getStatus().getCode()));
+            if (partial) {
+                throw toPartialSendException(mq, entries, future);
+            }
         }
         StatusChecker.check(status, future);
         for (SendResultEntry entry : entries) {
@@ -102,6 +109,25 @@ public class SendReceiptImpl implements SendReceipt {
         return sendReceipts;
     }
 
+    private static PartialSendException toPartialSendException(MessageQueueImpl mq, List<SendResultEntry> entries,
+        RpcFuture<SendMessageRequest, SendMessageResponse> future) {
+        Map<String, SendReceiptImpl> sendReceipts = new HashMap<>();
+        Map<String, Throwable> causes = new HashMap<>();
+        for (SendResultEntry entry : entries) {
+            final String messageId = entry.getMessageId();
+            try {
+                StatusChecker.check(entry.getStatus(), future);
+            } catch (ClientException e) {
+                causes.put(messageId, e);
+                continue;
+            }
+            final SendReceiptImpl impl = new SendReceiptImpl(MessageIdCodec.getInstance().decode(messageId),
+                entry.getTransactionId(), mq, entry.getOffset(), entry.getRecallHandle());
+            sendReceipts.put(messageId, impl);
+        }
+        return new PartialSendException(sendReceipts, causes);
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
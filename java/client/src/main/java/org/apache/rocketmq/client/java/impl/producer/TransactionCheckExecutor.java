@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.opentelemetry.api.common.Attributes;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.rocketmq.client.apis.message.MessageView;
+import org.apache.rocketmq.client.apis.producer.TransactionChecker;
+import org.apache.rocketmq.client.apis.producer.TransactionResolution;
+import org.apache.rocketmq.client.java.metrics.ClientMeterManager;
+import org.apache.rocketmq.client.java.metrics.HistogramEnum;
+import org.apache.rocketmq.client.java.metrics.InvocationStatus;
+import org.apache.rocketmq.client.java.metrics.MetricLabels;
+import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.misc.ExecutorServices;
+import org.apache.rocketmq.client.java.misc.ThreadFactoryImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executor to run {@link TransactionChecker#check(MessageView)} for the orphaned transaction recovery commands from
+ * remote, which is isolated from other telemetry commands.
+ *
+ * <ul>
+ *     <li>The count of concurrent checks is bounded by the parallelism, and checks beyond the queue capacity are
+ *     rejected, which would be checked again by the server later.</li>
+ *     <li>Checks of the same transaction id share the in-flight one.</li>
+ *     <li>Final resolutions ({@link TransactionResolution#COMMIT} and {@link TransactionResolution#ROLLBACK}) are
+ *     cached for a short duration, so that repeated checks are answered immediately.</li>
+ * </ul>
+ */
+@SuppressWarnings("UnstableApiUsage")
+class TransactionCheckExecutor {
+    private static final Logger log = LoggerFactory.getLogger(TransactionCheckExecutor.class);
+
+    private static final int MAX_QUEUED_CHECKS = 8192;
+    private static final int MAX_CACHED_RESOLUTIONS = 8192;
+
+    private final ClientId clientId;
+    private final TransactionChecker checker;
+    private final ClientMeterManager clientMeterManager;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String /* transactionId */, ListenableFuture<TransactionResolution>> inflightChecks;
+    /**
+     * Cache of final resolutions, which is null if the cache is disabled.
+     */
+    private final Cache<String /* transactionId */, TransactionResolution> resolutionCache;
+
+    TransactionCheckExecutor(ClientId clientId, TransactionChecker checker, int parallelism,
+        Duration resolutionCacheDuration, ClientMeterManager clientMeterManager) {
+        this.clientId = clientId;
+        this.checker = checker;
+        this.clientMeterManager = clientMeterManager;
+        this.executor = new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(MAX_QUEUED_CHECKS),
+            new ThreadFactoryImpl("TransactionChecker", clientId.getIndex()));
+        this.inflightChecks = new ConcurrentHashMap<>();
+        this.resolutionCache = resolutionCacheDuration.isZero() ? null : CacheBuilder.newBuilder()
+            .expireAfterWrite(resolutionCacheDuration.toNanos(), TimeUnit.NANOSECONDS)
+            .maximumSize(MAX_CACHED_RESOLUTIONS).build();
+    }
+
+    /**
+     * Check the transaction, the returned future is shared by the checks of the same transaction id.
+     */
+    ListenableFuture<TransactionResolution> check(String transactionId, MessageView messageView) {
+        if (null != resolutionCache) {
+            final TransactionResolution resolution = resolutionCache.getIfPresent(transactionId);
+            if (null != resolution) {
+                log.debug("Transaction resolution is cached, transactionId={}, resolution={}, clientId={}",
+                    transactionId, resolution, clientId);
+                return Futures.immediateFuture(resolution);
+            }
+        }
+        final SettableFuture<TransactionResolution> future = SettableFuture.create();
+        final ListenableFuture<TransactionResolution> inflight = inflightChecks.putIfAbsent(transactionId, future);
+        if (null != inflight) {
+            log.debug("Transaction is being checked, share the in-flight check, transactionId={}, clientId={}",
+                transactionId, clientId);
+            return inflight;
+        }
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        try {
+            executor.execute(() -> {
+                TransactionResolution resolution = null;
+                Throwable cause = null;
+                try {
+                    resolution = checker.check(messageView);
+                } catch (Throwable t) {
+                    cause = t;
+                }
+                record(messageView, stopwatch, null == cause);
+                if (null != resolutionCache && (TransactionResolution.COMMIT.equals(resolution)
+                    || TransactionResolution.ROLLBACK.equals(resolution))) {
+                    resolutionCache.put(transactionId, resolution);
+                }
+                // Remove the in-flight check after caching, so that the following check could hit the cache.
+                inflightChecks.remove(transactionId, future);
+                if (null != cause) {
+                    future.setException(cause);
+                    return;
+                }
+                future.set(resolution);
+            });
+        } catch (Throwable t) {
+            log.error("Failed to submit the transaction check, transactionId={}, queuedChecks={}, clientId={}",
+                transactionId, getQueuedChecks(), clientId, t);
+            inflightChecks.remove(transactionId, future);
+            future.setException(t);
+        }
+        return future;
+    }
+
+    private void record(MessageView messageView, Stopwatch stopwatch, boolean succeed) {
+        final InvocationStatus status = succeed ? InvocationStatus.SUCCESS : InvocationStatus.FAILURE;
+        final Attributes attributes = Attributes.builder().put(MetricLabels.TOPIC, messageView.getTopic())
+            .put(MetricLabels.CLIENT_ID, clientId.toString())
+            .put(MetricLabels.INVOCATION_STATUS, status.getName()).build();
+        clientMeterManager.record(HistogramEnum.TRANSACTION_CHECK_COST_TIME, attributes,
+            stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Get the count of checks waiting for the execution.
+     */
+    int getQueuedChecks() {
+        return executor.getQueue().size();
+    }
+
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!ExecutorServices.awaitTerminated(executor)) {
+            log.error("[Bug] Timeout to shutdown the transaction check executor, clientId={}", clientId);
+        }
+    }
+}
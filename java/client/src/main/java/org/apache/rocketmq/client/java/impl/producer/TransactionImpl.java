@@ -17,21 +17,22 @@
 
 package org.apache.rocketmq.client.java.impl.producer;
 
-import apache.rocketmq.v2.TransactionSource;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.io.IOException;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import net.javacrumbs.futureconverter.java8guava.FutureConverter;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.message.Message;
 import org.apache.rocketmq.client.apis.producer.Transaction;
 import org.apache.rocketmq.client.apis.producer.TransactionResolution;
-import org.apache.rocketmq.client.java.message.GeneralMessageImpl;
 import org.apache.rocketmq.client.java.message.PublishingMessageImpl;
 
 class TransactionImpl implements Transaction {
@@ -89,39 +90,38 @@ class TransactionImpl implements Transaction {
 
     @Override
     public void commit() throws ClientException {
-        if (messageSendReceiptMap.isEmpty()) {
-            throw new IllegalStateException("Transactional message has not been sent yet");
-        }
-        for (Map.Entry<PublishingMessageImpl, SendReceiptImpl> entry : messageSendReceiptMap.entrySet()) {
-            final PublishingMessageImpl publishingMessage = entry.getKey();
-            final SendReceiptImpl sendReceipt = entry.getValue();
-            producerImpl.endTransaction(
-                sendReceipt.getEndpoints(),
-                new GeneralMessageImpl(publishingMessage),
-                sendReceipt.getMessageId(),
-                sendReceipt.getTransactionId(),
-                TransactionResolution.COMMIT,
-                TransactionSource.SOURCE_CLIENT
-            );
-        }
+        checkSent();
+        producerImpl.endTransactions(messageSendReceiptMap, TransactionResolution.COMMIT);
     }
 
     @Override
     public void rollback() throws ClientException {
+        checkSent();
+        producerImpl.endTransactions(messageSendReceiptMap, TransactionResolution.ROLLBACK);
+    }
+
+    @Override
+    public CompletableFuture<Void> commitAsync() {
+        return FutureConverter.toCompletableFuture(endTransactionsAsync(TransactionResolution.COMMIT));
+    }
+
+    @Override
+    public CompletableFuture<Void> rollbackAsync() {
+        return FutureConverter.toCompletableFuture(endTransactionsAsync(TransactionResolution.ROLLBACK));
+    }
+
+    private ListenableFuture<Void> endTransactionsAsync(TransactionResolution resolution) {
+        try {
+            checkSent();
+        } catch (IllegalStateException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        return producerImpl.endTransactionsAsync(messageSendReceiptMap, resolution);
+    }
+
+    private void checkSent() {
         if (messageSendReceiptMap.isEmpty()) {
             throw new IllegalStateException("Transactional message has not been sent yet");
         }
-        for (Map.Entry<PublishingMessageImpl, SendReceiptImpl> entry : messageSendReceiptMap.entrySet()) {
-            final PublishingMessageImpl publishingMessage = entry.getKey();
-            final SendReceiptImpl sendReceipt = entry.getValue();
-            producerImpl.endTransaction(
-                sendReceipt.getEndpoints(),
-                new GeneralMessageImpl(publishingMessage),
-                sendReceipt.getMessageId(),
-                sendReceipt.getTransactionId(),
-                TransactionResolution.ROLLBACK,
-                TransactionSource.SOURCE_CLIENT
-            );
-        }
     }
 }
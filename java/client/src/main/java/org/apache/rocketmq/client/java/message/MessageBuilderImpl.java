@@ -20,6 +20,7 @@ package org.apache.rocketmq.client.java.message;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -69,6 +70,34 @@ public class MessageBuilderImpl implements MessageBuilder {
         return this;
     }
 
+    /**
+     * See {@link MessageBuilder#transferBody(byte[])}
+     */
+    @Override
+    public MessageBuilder transferBody(byte[] body) {
+        checkArgument(ArrayUtils.isNotEmpty(body), "body should not be empty");
+        this.body = body;
+        return this;
+    }
+
+    /**
+     * See {@link MessageBuilder#transferBody(ByteBuffer)}
+     */
+    @Override
+    public MessageBuilder transferBody(ByteBuffer body) {
+        checkNotNull(body, "body should not be null");
+        checkArgument(body.hasRemaining(), "body should not be empty");
+        if (body.hasArray() && body.arrayOffset() + body.position() == 0
+            && body.remaining() == body.array().length) {
+            this.body = body.array();
+            return this;
+        }
+        final byte[] bytes = new byte[body.remaining()];
+        body.duplicate().get(bytes);
+        this.body = bytes;
+        return this;
+    }
+
     /**
      * See {@link MessageBuilder#setTag(String)}
      */
@@ -67,11 +67,14 @@ public class MessageIdCodec {
     public static final String MESSAGE_ID_VERSION_V1 = "01";
 
     private static final MessageIdCodec INSTANCE = new MessageIdCodec();
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
 
-    private final String processFixedStringV1;
+    /**
+     * Version and the process fixed part of message id, which are shared by all message ids of v1 version.
+     */
+    private final char[] prefixV1;
     private final long secondsSinceCustomEpoch;
     private final long secondsStartTimestamp;
-    private long seconds;
     private final AtomicInteger sequence;
 
     private MessageIdCodec() {
@@ -90,11 +93,10 @@ public class MessageIdCodec {
         buffer.put(pidBuffer.array(), 2, 2);
 
         buffer.flip();
-        processFixedStringV1 = Utilities.encodeHexString(buffer, false);
+        prefixV1 = (MESSAGE_ID_VERSION_V1 + Utilities.encodeHexString(buffer, false)).toCharArray();
 
         secondsSinceCustomEpoch = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - customEpochMillis());
         secondsStartTimestamp = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
-        seconds = deltaSeconds();
 
         sequence = new AtomicInteger(0);
     }
@@ -121,23 +123,29 @@ public class MessageIdCodec {
         return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime()) - secondsStartTimestamp + secondsSinceCustomEpoch;
     }
 
+    /**
+     * Generate the next message id of v1 version, which is thread-safe.
+     *
+     * <p>The hex digits are written into the char array of message id directly, and the string is not built until
+     * {@link MessageId#toString()} is invoked.
+     */
     public MessageId nextMessageId() {
-        ByteBuffer buffer = ByteBuffer.allocate(8);
-        buffer.order(ByteOrder.BIG_ENDIAN);
+        final char[] chars = new char[MESSAGE_ID_LENGTH_FOR_V1_OR_LATER];
+        System.arraycopy(prefixV1, 0, chars, 0, prefixV1.length);
+        // Lower 4 bytes of the seconds, big endian.
+        putHex(chars, prefixV1.length, (int) deltaSeconds());
+        putHex(chars, prefixV1.length + 8, sequence.getAndIncrement());
+        return new MessageIdImpl(chars);
+    }
 
-        final ByteBuffer deltaSecondsBuffer = ByteBuffer.allocate(8);
-        deltaSecondsBuffer.order(ByteOrder.BIG_ENDIAN);
-        final long deltaSeconds = deltaSeconds();
-        if (seconds != deltaSeconds) {
-            seconds = deltaSeconds;
+    /**
+     * Write the int value as 8 upper-case hex digits in big endian.
+     */
+    private static void putHex(char[] dst, int offset, int value) {
+        for (int i = offset + 7; i >= offset; i--) {
+            dst[i] = HEX_DIGITS[value & 0xF];
+            value >>>= 4;
         }
-        deltaSecondsBuffer.putLong(seconds);
-        buffer.put(deltaSecondsBuffer.array(), 4, 4);
-        buffer.putInt(sequence.getAndIncrement());
-
-        buffer.flip();
-        final String suffix = processFixedStringV1 + Utilities.encodeHexString(buffer, false);
-        return new MessageIdImpl(MESSAGE_ID_VERSION_V1, suffix);
     }
 
     public MessageId decode(String messageId) {
@@ -23,10 +23,28 @@ import org.apache.rocketmq.client.apis.message.MessageId;
 public class MessageIdImpl implements MessageId {
     private final String version;
     private final String suffix;
+    /**
+     * Chars of the whole message id generated by {@link MessageIdCodec}, which is null for the decoded one.
+     */
+    private final char[] chars;
+    /**
+     * Lazily built string of message id, racy initialization is harmless because the string is immutable.
+     */
+    private String string;
 
     public MessageIdImpl(String version, String suffix) {
         this.version = version;
         this.suffix = suffix;
+        this.chars = null;
+    }
+
+    /**
+     * Create the message id of v1 version from the chars of whole message id, which must not be modified any more.
+     */
+    MessageIdImpl(char[] chars) {
+        this.version = MessageIdCodec.MESSAGE_ID_VERSION_V1;
+        this.suffix = null;
+        this.chars = chars;
     }
 
     /**
@@ -42,11 +60,20 @@ public class MessageIdImpl implements MessageId {
      */
     @Override
     public String toString() {
-        // Use suffix directly for V0
-        if (MessageIdCodec.MESSAGE_ID_VERSION_V0.equals(version)) {
-            return suffix;
+        String s = string;
+        if (null != s) {
+            return s;
+        }
+        if (null != chars) {
+            s = new String(chars);
+        } else if (MessageIdCodec.MESSAGE_ID_VERSION_V0.equals(version)) {
+            // Use suffix directly for V0
+            s = suffix;
+        } else {
+            s = version + suffix;
         }
-        return version + suffix;
+        string = s;
+        return s;
     }
 
     @Override
@@ -58,11 +85,11 @@ public class MessageIdImpl implements MessageId {
             return false;
         }
         MessageIdImpl messageId = (MessageIdImpl) o;
-        return Objects.equal(version, messageId.version) && Objects.equal(suffix, messageId.suffix);
+        return Objects.equal(version, messageId.version) && Objects.equal(toString(), messageId.toString());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(version, suffix);
+        return toString().hashCode();
     }
 }
@@ -17,16 +17,16 @@
 
 package org.apache.rocketmq.client.java.message;
 
-import apache.rocketmq.v2.Resource;
 import apache.rocketmq.v2.SystemProperties;
-import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import com.google.protobuf.util.Timestamps;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
 import org.apache.rocketmq.client.apis.message.Message;
 import org.apache.rocketmq.client.apis.message.MessageId;
 import org.apache.rocketmq.client.java.impl.producer.PublishingSettings;
 import org.apache.rocketmq.client.java.message.protocol.Encoding;
-import org.apache.rocketmq.client.java.misc.Utilities;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
 
 /**
@@ -36,11 +36,24 @@ import org.apache.rocketmq.client.java.route.MessageQueueImpl;
 public class PublishingMessageImpl extends MessageImpl {
     private final MessageId messageId;
     private final MessageType messageType;
+    /**
+     * Message body to transport, which is compressed if the compression is enabled and takes effect.
+     */
+    private final byte[] encodedBody;
+    private final Encoding bodyEncoding;
+    /**
+     * Message-specific part of protocol buffer built by the first attempt of sending, which is reused by the
+     * following attempts.
+     */
+    private volatile apache.rocketmq.v2.Message protobufPrototype = null;
 
     public PublishingMessageImpl(Message message, PublishingSettings publishingSettings, boolean txEnabled)
         throws IOException {
         super(message);
-        final int length = message.getBody().remaining();
+        final Optional<byte[]> compressed = publishingSettings.getCompression(getTopic()).compress(body);
+        this.encodedBody = compressed.orElse(body);
+        this.bodyEncoding = compressed.isPresent() ? Encoding.GZIP : Encoding.IDENTITY;
+        final int length = encodedBody.length;
         final int maxBodySizeBytes = publishingSettings.getMaxBodySizeBytes();
         if (length > maxBodySizeBytes) {
             throw new IOException("Message body size exceeds the threshold, max size=" + maxBodySizeBytes + " bytes");
@@ -87,27 +100,64 @@ public class PublishingMessageImpl extends MessageImpl {
         return messageType;
     }
 
+    public Encoding getBodyEncoding() {
+        return bodyEncoding;
+    }
+
+    /**
+     * Get the message body to transport, which may be compressed, see {@link #getBodyEncoding()}.
+     */
+    public ByteBuffer getEncodedBody() {
+        return ByteBuffer.wrap(encodedBody).asReadOnlyBuffer();
+    }
+
+    /**
+     * Convert {@link PublishingMessageImpl} to protocol buffer.
+     *
+     * @see #toProtobuf(PublishingTemplate)
+     */
+    public apache.rocketmq.v2.Message toProtobuf(String namespace, MessageQueueImpl mq) {
+        return toProtobuf(new PublishingTemplate(namespace, mq));
+    }
+
     /**
      * Convert {@link PublishingMessageImpl} to protocol buffer.
      *
      * <p>This method should be invoked before each message sending, because the born time is reset before each
      * invocation, which means that it should not be invoked ahead of time.
+     *
+     * <p>The message-specific part of protocol buffer is built once and reused by the following attempts, while the
+     * topic resource, born host and queue id are taken from the template of message queue. The body is wrapped without
+     * copy, since it is never modified once the message is prepared.
      */
-    public apache.rocketmq.v2.Message toProtobuf(String namespace, MessageQueueImpl mq) {
+    public apache.rocketmq.v2.Message toProtobuf(PublishingTemplate template) {
+        apache.rocketmq.v2.Message prototype = protobufPrototype;
+        if (null == prototype) {
+            prototype = buildProtobufPrototype();
+            protobufPrototype = prototype;
+        }
+        final apache.rocketmq.v2.Message.Builder builder = prototype.toBuilder()
+            // Topic
+            .setTopic(template.getTopicResource());
+        builder.getSystemPropertiesBuilder()
+            // Born time should be reset before each sending
+            .setBornTimestamp(Timestamps.fromMillis(System.currentTimeMillis()))
+            // Born host
+            .setBornHost(template.getBornHost())
+            // Queue id
+            .setQueueId(template.getQueueId());
+        return builder.build();
+    }
+
+    private apache.rocketmq.v2.Message buildProtobufPrototype() {
         final apache.rocketmq.v2.SystemProperties.Builder systemPropertiesBuilder =
             apache.rocketmq.v2.SystemProperties.newBuilder()
                 // Message keys
                 .addAllKeys(keys)
                 // Message Id
                 .setMessageId(messageId.toString())
-                // Born time should be reset before each sending
-                .setBornTimestamp(Timestamps.fromMillis(System.currentTimeMillis()))
-                // Born host
-                .setBornHost(Utilities.hostName())
                 // Body encoding
-                .setBodyEncoding(Encoding.toProtobuf(Encoding.IDENTITY))
-                // Queue id
-                .setQueueId(mq.getQueueId())
+                .setBodyEncoding(Encoding.toProtobuf(bodyEncoding))
                 // Message type
                 .setMessageType(MessageType.toProtobuf(messageType));
         // Message tag
@@ -119,16 +169,13 @@ public class PublishingMessageImpl extends MessageImpl {
         this.getMessageGroup().ifPresent(systemPropertiesBuilder::setMessageGroup);
         this.getLiteTopic().ifPresent(systemPropertiesBuilder::setLiteTopic);
         final SystemProperties systemProperties = systemPropertiesBuilder.build();
-        Resource topicResource = Resource.newBuilder().setResourceNamespace(namespace).setName(getTopic()).build();
         return apache.rocketmq.v2.Message.newBuilder()
-            // Topic
-            .setTopic(topicResource)
             // Message body
-            .setBody(ByteString.copyFrom(getBody()))
+            .setBody(UnsafeByteOperations.unsafeWrap(encodedBody))
             // System properties
             .setSystemProperties(systemProperties)
             // User properties
-            .putAllUserProperties(getProperties())
+            .putAllUserProperties(properties)
             .build();
     }
 }
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.message;
+
+import apache.rocketmq.v2.Resource;
+import org.apache.rocketmq.client.java.misc.Utilities;
+import org.apache.rocketmq.client.java.route.MessageQueueImpl;
+
+/**
+ * Immutable pieces of protocol buffer which are shared by all messages published to the same message queue, so that
+ * they are not rebuilt for each message and each attempt.
+ */
+public class PublishingTemplate {
+    private final Resource topicResource;
+    private final String bornHost;
+    private final int queueId;
+
+    public PublishingTemplate(String namespace, MessageQueueImpl mq) {
+        this.topicResource = Resource.newBuilder().setResourceNamespace(namespace).setName(mq.getTopic()).build();
+        this.bornHost = Utilities.hostName();
+        this.queueId = mq.getQueueId();
+    }
+
+    Resource getTopicResource() {
+        return topicResource;
+    }
+
+    String getBornHost() {
+        return bornHost;
+    }
+
+    int getQueueId() {
+        return queueId;
+    }
+}
@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.base.MoreObjects;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import java.util.concurrent.ConcurrentHashMap;
@@ -41,6 +42,7 @@ public class ClientMeter {
     private final SdkMeterProvider provider;
     private final ClientId clientId;
     private final ConcurrentMap<String /* histogram name */, DoubleHistogram> histogramMap;
+    private final ConcurrentMap<String /* counter name */, LongCounter> counterMap;
 
     public ClientMeter(Meter meter, Endpoints endpoints, SdkMeterProvider provider, ClientId clientId) {
         this.enabled = true;
@@ -49,6 +51,7 @@ public class ClientMeter {
         this.provider = checkNotNull(provider, "provider should not be null");
         this.clientId = checkNotNull(clientId, "clientId should not be null");
         this.histogramMap = new ConcurrentHashMap<>();
+        this.counterMap = new ConcurrentHashMap<>();
     }
 
     private ClientMeter(ClientId clientId) {
@@ -58,6 +61,7 @@ public class ClientMeter {
         this.provider = null;
         this.clientId = checkNotNull(clientId, "clientId should not be null");
         this.histogramMap = new ConcurrentHashMap<>();
+        this.counterMap = new ConcurrentHashMap<>();
     }
 
     static ClientMeter disabledInstance(ClientId clientId) {
@@ -77,6 +81,15 @@ public class ClientMeter {
         histogram.record(value, attributes);
     }
 
+    public void add(CounterEnum counterEnum, Attributes attributes, long value) {
+        final LongCounter counter = counterMap.computeIfAbsent(counterEnum.getName(), name -> enabled ?
+            meter.counterBuilder(counterEnum.getName()).build() : null);
+        if (null == counter) {
+            return;
+        }
+        counter.add(value, attributes);
+    }
+
     public void shutdown() {
         if (!enabled) {
             return;
@@ -107,6 +120,7 @@ public class ClientMeter {
             .add("endpoints", endpoints)
             .add("provider", provider)
             .add("histogramMap", histogramMap)
+            .add("counterMap", counterMap)
             .toString();
     }
 }
@@ -73,6 +73,10 @@ public class ClientMeterManager {
         clientMeter.record(histogramEnum, attributes, value);
     }
 
+    public void add(CounterEnum counterEnum, Attributes attributes, long value) {
+        clientMeter.add(counterEnum, attributes, value);
+    }
+
     public void shutdown() {
         clientMeter.shutdown();
     }
@@ -132,6 +136,12 @@ public class ClientMeterManager {
                 .setType(InstrumentType.HISTOGRAM).setName(HistogramEnum.PROCESS_TIME.getName()).build();
             final View processTimeView = View.builder().setAggregation(HistogramEnum.PROCESS_TIME.getBucket()).build();
 
+            InstrumentSelector transactionCheckCostTimeInstrumentSelector = InstrumentSelector.builder()
+                .setType(InstrumentType.HISTOGRAM).setName(HistogramEnum.TRANSACTION_CHECK_COST_TIME.getName())
+                .build();
+            final View transactionCheckCostTimeView = View.builder()
+                .setAggregation(HistogramEnum.TRANSACTION_CHECK_COST_TIME.getBucket()).build();
+
             PeriodicMetricReader reader = PeriodicMetricReader.builder(exporter)
                 .setInterval(METRIC_READER_INTERVAL).build();
 
@@ -142,6 +152,7 @@ public class ClientMeterManager {
                 .registerView(deliveryLatencyInstrumentSelector, deliveryLatencyView)
                 .registerView(awaitTimeInstrumentSelector, awaitTimeView)
                 .registerView(processTimeInstrumentSelector, processTimeView)
+                .registerView(transactionCheckCostTimeInstrumentSelector, transactionCheckCostTimeView)
                 .build();
 
             final OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder().setMeterProvider(provider).build();
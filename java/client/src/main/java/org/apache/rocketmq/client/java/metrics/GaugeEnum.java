@@ -29,7 +29,45 @@ public enum GaugeEnum {
      *
      * <p>Labels: {@link MetricLabels#TOPIC}, {@link MetricLabels#CLIENT_ID}, {@link MetricLabels#CONSUMER_GROUP}.
      */
-    CONSUMER_CACHED_BYTES("rocketmq_consumer_cached_bytes");
+    CONSUMER_CACHED_BYTES("rocketmq_consumer_cached_bytes"),
+    /**
+     * A gauge that records the average batch size of the next message reception among the process queues of push
+     * consumer.
+     *
+     * <p>Labels: {@link MetricLabels#TOPIC}, {@link MetricLabels#CLIENT_ID}, {@link MetricLabels#CONSUMER_GROUP}.
+     */
+    CONSUMER_RECEIVE_BATCH_SIZE("rocketmq_consumer_receive_batch_size"),
+    /**
+     * A gauge that records the average long-polling timeout in milliseconds of the next message reception among the
+     * process queues of push consumer.
+     *
+     * <p>Labels: {@link MetricLabels#TOPIC}, {@link MetricLabels#CLIENT_ID}, {@link MetricLabels#CONSUMER_GROUP}.
+     */
+    CONSUMER_LONG_POLLING_TIMEOUT("rocketmq_consumer_long_polling_timeout"),
+    /**
+     * A gauge that records the in-flight send invocations of producer.
+     *
+     * <p>Labels: {@link MetricLabels#CLIENT_ID}.
+     */
+    PRODUCER_IN_FLIGHT_REQUESTS("rocketmq_producer_in_flight_requests"),
+    /**
+     * A gauge that records the in-flight message bytes of producer.
+     *
+     * <p>Labels: {@link MetricLabels#CLIENT_ID}.
+     */
+    PRODUCER_IN_FLIGHT_BYTES("rocketmq_producer_in_flight_bytes"),
+    /**
+     * A gauge that records the available tokens of retry budget of producer.
+     *
+     * <p>Labels: {@link MetricLabels#CLIENT_ID}.
+     */
+    PRODUCER_RETRY_BUDGET_TOKENS("rocketmq_producer_retry_budget_tokens"),
+    /**
+     * A gauge that records the count of transaction checks waiting for the execution.
+     *
+     * <p>Labels: {@link MetricLabels#CLIENT_ID}.
+     */
+    PRODUCER_TRANSACTION_CHECK_QUEUED("rocketmq_producer_transaction_check_queued");
 
     private final String name;
 
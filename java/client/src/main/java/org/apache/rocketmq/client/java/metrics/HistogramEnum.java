@@ -59,7 +59,16 @@ public enum HistogramEnum {
      * <p>The time unit of bucket is milliseconds.
      */
     PROCESS_TIME("rocketmq_process_time", Aggregation.explicitBucketHistogram(Arrays.asList(1.0, 5.0,
-        10.0, 100.0, 1000.0, 10 * 1000.0, 60 * 1000.0)));
+        10.0, 100.0, 1000.0, 10 * 1000.0, 60 * 1000.0))),
+    /**
+     * A histogram that records the cost time of transaction check, including the time of waiting for execution.
+     *
+     * <p>Labels: {@link MetricLabels#TOPIC}, {@link MetricLabels#CLIENT_ID}, {@link MetricLabels#INVOCATION_STATUS}.
+     *
+     * <p>The time unit of bucket is milliseconds.
+     */
+    TRANSACTION_CHECK_COST_TIME("rocketmq_transaction_check_cost_time",
+        Aggregation.explicitBucketHistogram(Arrays.asList(1.0, 5.0, 10.0, 100.0, 1000.0, 10 * 1000.0, 60 * 1000.0)));
 
     private final String name;
     private final Aggregation bucket;
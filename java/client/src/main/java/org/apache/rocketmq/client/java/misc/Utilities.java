@@ -26,6 +26,7 @@ import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
 import java.net.InetAddress;
@@ -159,6 +160,16 @@ public class Utilities {
         }
     }
 
+    public static byte[] compressBytesGZIP(final byte[] src, final int level) throws IOException {
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(src.length)) {
+            try (FilterOutputStream outputStream = new LeveledGZIPOutputStream(byteArrayOutputStream, level)) {
+                outputStream.write(src);
+                outputStream.flush();
+            }
+            return byteArrayOutputStream.toByteArray();
+        }
+    }
+
     public static byte[] compressBytesZSTD(final byte[] src, final int level) throws IOException {
         try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(src.length)) {
             try (FilterOutputStream outputStream = new ZstdOutputStream(byteArrayOutputStream, level)) {
@@ -232,6 +243,9 @@ public class Utilities {
         // ZLIB magic code: 0x78
         // LZ4 magic code: 0x04 0x22 0x4D 0x18
         // ZSTD magic code: 0x28 0xB5 0x2F 0xFD
+        if (src.length < 4) {
+            throw new IOException("Unknown compression format");
+        }
         FilterInputStream filterInputStream;
         if ((src[0] & 0xFF) == 0x1F && (src[1] & 0xFF) == 0x8B) {
             filterInputStream = new GZIPInputStream(inputStream);
@@ -357,4 +371,14 @@ public class Utilities {
             + " " + System.getProperty("java.vm.name")
             + " " + System.getProperty("java.vm.version");
     }
+
+    /**
+     * {@link GZIPOutputStream} does not expose the compression level, set it to the underlying deflater instead.
+     */
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
 }
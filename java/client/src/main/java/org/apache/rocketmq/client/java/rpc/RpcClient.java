@@ -69,6 +69,14 @@ public interface RpcClient {
      */
     void shutdown() throws InterruptedException;
 
+    /**
+     * Establish the connection ahead of the first RPC, including the TLS handshake if SSL is enabled.
+     *
+     * @return future which is completed once the connection is ready, or failed once the connection could not be
+     * established.
+     */
+    ListenableFuture<Void> connect();
+
     /**
      * Query topic route asynchronously.
      *
@@ -46,6 +46,7 @@ import apache.rocketmq.v2.TelemetryCommand;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import io.grpc.ClientInterceptor;
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.Metadata;
 import io.grpc.netty.shaded.io.grpc.netty.GrpcSslContexts;
@@ -64,6 +65,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLException;
+import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.java.route.Endpoints;
 
 public class RpcClientImpl implements RpcClient {
@@ -122,6 +124,33 @@ public class RpcClientImpl implements RpcClient {
         channel.shutdown().awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
     }
 
+    @Override
+    public ListenableFuture<Void> connect() {
+        final SettableFuture<Void> future = SettableFuture.create();
+        awaitConnected(future);
+        return future;
+    }
+
+    private void awaitConnected(SettableFuture<Void> future) {
+        // Stop watching once the future is cancelled by the caller.
+        if (future.isDone()) {
+            return;
+        }
+        // Request connection if the channel is idle.
+        final ConnectivityState state = channel.getState(true);
+        switch (state) {
+            case READY:
+                future.set(null);
+                return;
+            case TRANSIENT_FAILURE:
+            case SHUTDOWN:
+                future.setException(new ClientException("Failed to establish connection, state=" + state));
+                return;
+            default:
+                channel.notifyWhenStateChanged(state, () -> awaitConnected(future));
+        }
+    }
+
     @Override
     public ListenableFuture<QueryRouteResponse> queryRoute(Metadata metadata,
         QueryRouteRequest request, Executor executor, Duration duration) {
@@ -20,32 +20,48 @@ package org.apache.rocketmq.client.java.impl;
 import static org.awaitility.Awaitility.await;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import apache.rocketmq.v2.Broker;
+import apache.rocketmq.v2.Code;
 import apache.rocketmq.v2.HeartbeatRequest;
+import apache.rocketmq.v2.HeartbeatResponse;
 import apache.rocketmq.v2.MessageQueue;
 import apache.rocketmq.v2.MessageType;
 import apache.rocketmq.v2.NotifyClientTerminationRequest;
 import apache.rocketmq.v2.Permission;
 import apache.rocketmq.v2.PrintThreadStackTraceCommand;
 import apache.rocketmq.v2.Resource;
+import apache.rocketmq.v2.Status;
 import apache.rocketmq.v2.TelemetryCommand;
 import apache.rocketmq.v2.VerifyMessageCommand;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
 import io.grpc.stub.StreamObserver;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.route.TopicRouteData;
+import org.apache.rocketmq.client.java.rpc.RpcFuture;
 import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -144,4 +160,114 @@ public class ClientImplTest extends TestBase {
             verify(observer, times(1)).onNext(any(TelemetryCommand.class));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWarmUpConnections() throws Exception {
+        final ClientImpl client = createClient();
+        final ClientManager clientManager = Mockito.mock(ClientManager.class);
+        doReturn(clientManager).when(client).getClientManager();
+        final Endpoints endpoints0 = new Endpoints("127.0.0.1:8080");
+        final Endpoints endpoints1 = new Endpoints("127.0.0.1:8081");
+        final Endpoints endpoints2 = new Endpoints("127.0.0.1:8082");
+        final ClientException exception = new ClientException("connection refused");
+        doReturn(Futures.immediateVoidFuture()).when(clientManager).connect(endpoints0);
+        doReturn(Futures.immediateFailedFuture(exception)).when(clientManager).connect(endpoints1);
+        doReturn(SettableFuture.create()).when(clientManager).connect(endpoints2);
+        final Set<Endpoints> endpointsSet = new HashSet<>();
+        endpointsSet.add(endpoints0);
+        endpointsSet.add(endpoints1);
+        endpointsSet.add(endpoints2);
+        final Map<Endpoints, Throwable> failures = client.warmUpConnections(endpointsSet, Duration.ofMillis(100),
+            false);
+        Assert.assertEquals(2, failures.size());
+        Assert.assertSame(exception, failures.get(endpoints1));
+        Assert.assertTrue(failures.get(endpoints2) instanceof TimeoutException);
+        verify(clientManager, never()).heartbeat(any(Endpoints.class), any(HeartbeatRequest.class),
+            any(Duration.class));
+    }
+
+    @Test
+    public void testWarmUpConnectionsWithHeartbeat() throws Exception {
+        final ClientImpl client = createClient();
+        final ClientManager clientManager = Mockito.mock(ClientManager.class);
+        doReturn(clientManager).when(client).getClientManager();
+        final HeartbeatRequest request = HeartbeatRequest.newBuilder().build();
+        doReturn(request).when(client).wrapHeartbeatRequest();
+        final Endpoints endpoints = fakeEndpoints();
+        doReturn(Futures.immediateVoidFuture()).when(clientManager).connect(endpoints);
+        final HeartbeatResponse response = HeartbeatResponse.newBuilder()
+            .setStatus(Status.newBuilder().setCode(Code.OK)).build();
+        doReturn(new RpcFuture<>(fakeRpcContext(), request, Futures.immediateFuture(response)))
+            .when(clientManager).heartbeat(eq(endpoints), eq(request), any(Duration.class));
+        final Map<Endpoints, Throwable> failures = client.warmUpConnections(Collections.singleton(endpoints),
+            Duration.ofSeconds(3), true);
+        Assert.assertTrue(failures.isEmpty());
+        verify(clientManager, times(1)).heartbeat(eq(endpoints), eq(request), any(Duration.class));
+    }
+
+    private TopicRouteData fakeTopicRouteData(String topic) {
+        final MessageQueue mq = fakePbMessageQueue0(Resource.newBuilder().setName(topic).build());
+        return new TopicRouteData(Collections.singletonList(mq));
+    }
+
+    @Test
+    public void testFetchTopicRoutesConcurrently() throws Exception {
+        final ClientImpl client = createClient();
+        final AtomicInteger inflight = new AtomicInteger();
+        final AtomicInteger maxInflight = new AtomicInteger();
+        doAnswer(invocation -> {
+            final String topic = invocation.getArgument(0);
+            maxInflight.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+            final SettableFuture<TopicRouteData> future = SettableFuture.create();
+            SCHEDULER.schedule(() -> {
+                inflight.decrementAndGet();
+                future.set(fakeTopicRouteData(topic));
+            }, 20, TimeUnit.MILLISECONDS);
+            return future;
+        }).when(client).fetchTopicRoute0(anyString());
+        doReturn(Futures.immediateVoidFuture()).when(client).establishClientSession(any(Endpoints.class));
+        final Set<String> topicSet = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            topicSet.add("topic" + i);
+        }
+        final Map<String, Throwable> failures = client.fetchTopicRoutes(topicSet, 3, Duration.ofSeconds(10));
+        Assert.assertTrue(failures.isEmpty());
+        Assert.assertTrue(maxInflight.get() <= 3);
+        verify(client, times(10)).fetchTopicRoute0(anyString());
+        // Sessions are established to the union of endpoints.
+        verify(client, times(1)).establishClientSession(any(Endpoints.class));
+        Assert.assertEquals(1, client.getTotalRouteEndpoints().size());
+    }
+
+    @Test
+    public void testFetchTopicRoutesWithFailures() throws Exception {
+        final ClientImpl client = createClient();
+        final ClientException exception = new ClientException("topic not found");
+        doReturn(Futures.immediateFuture(fakeTopicRouteData("topic0"))).when(client).fetchTopicRoute0("topic0");
+        doReturn(Futures.immediateFailedFuture(exception)).when(client).fetchTopicRoute0("topic1");
+        doReturn(SettableFuture.create()).when(client).fetchTopicRoute0("topic2");
+        doReturn(Futures.immediateVoidFuture()).when(client).establishClientSession(any(Endpoints.class));
+        final Set<String> topicSet = new HashSet<>();
+        topicSet.add("topic0");
+        topicSet.add("topic1");
+        topicSet.add("topic2");
+        final Map<String, Throwable> failures = client.fetchTopicRoutes(topicSet, 3, Duration.ofMillis(200));
+        Assert.assertEquals(2, failures.size());
+        Assert.assertSame(exception, failures.get("topic1"));
+        Assert.assertTrue(failures.get("topic2") instanceof TimeoutException);
+        Assert.assertFalse(client.getTotalRouteEndpoints().isEmpty());
+    }
+
+    @Test
+    public void testFetchTopicRoutesWithSessionFailure() throws Exception {
+        final ClientImpl client = createClient();
+        final ClientException exception = new ClientException("telemetry failure");
+        doReturn(Futures.immediateFuture(fakeTopicRouteData(FAKE_TOPIC_0))).when(client)
+            .fetchTopicRoute0(FAKE_TOPIC_0);
+        doReturn(Futures.immediateFailedFuture(exception)).when(client).establishClientSession(any(Endpoints.class));
+        final Map<String, Throwable> failures = client.fetchTopicRoutes(Collections.singleton(FAKE_TOPIC_0), 1,
+            Duration.ofSeconds(3));
+        Assert.assertSame(exception, failures.get(FAKE_TOPIC_0));
+        Assert.assertTrue(client.getTotalRouteEndpoints().isEmpty());
+    }
+}
@@ -30,10 +30,16 @@ import apache.rocketmq.v2.ReceiveMessageRequest;
 import apache.rocketmq.v2.SendMessageRequest;
 import apache.rocketmq.v2.SyncLiteSubscriptionRequest;
 import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
 import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.tool.TestBase;
 import org.junit.AfterClass;
+import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -58,6 +64,30 @@ public class ClientManagerImplTest extends TestBase {
         CLIENT_MANAGER.stopAsync().awaitTerminated();
     }
 
+    @Test
+    public void testConnect() throws Exception {
+        final Server server = NettyServerBuilder.forPort(0).build().start();
+        try {
+            final Endpoints endpoints = new Endpoints("127.0.0.1:" + server.getPort());
+            CLIENT_MANAGER.connect(endpoints).get(5, TimeUnit.SECONDS);
+        } finally {
+            server.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConnectFailure() throws Exception {
+        final Server server = NettyServerBuilder.forPort(0).build().start();
+        final int port = server.getPort();
+        server.shutdownNow().awaitTermination();
+        try {
+            CLIENT_MANAGER.connect(new Endpoints("127.0.0.1:" + port)).get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException ignore) {
+            // Expected.
+        }
+    }
+
     @Test
     public void testQueryRoute() {
         QueryRouteRequest request = QueryRouteRequest.newBuilder().build();
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import apache.rocketmq.v2.AckMessageEntry;
+import apache.rocketmq.v2.AckMessageRequest;
+import apache.rocketmq.v2.AckMessageResponse;
+import apache.rocketmq.v2.AckMessageResultEntry;
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.Resource;
+import apache.rocketmq.v2.Status;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Metadata;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.java.impl.ClientManager;
+import org.apache.rocketmq.client.java.misc.RequestIdGenerator;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.rpc.RpcFuture;
+import org.apache.rocketmq.client.java.rpc.Signature;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class AckAggregatorTest extends TestBase {
+    private final ClientManager clientManager = mock(ClientManager.class);
+
+    private ConsumerImpl mockConsumer() throws Exception {
+        final ConsumerImpl consumer = mock(ConsumerImpl.class);
+        Mockito.doReturn(SCHEDULER).when(consumer).getScheduler();
+        Mockito.doReturn(clientManager).when(consumer).getClientManager();
+        Mockito.doReturn(ClientConfiguration.newBuilder().setEndpoints(FAKE_ENDPOINTS).build()).when(consumer)
+            .getClientConfiguration();
+        Mockito.doAnswer(invocation -> {
+            final Metadata metadata = new Metadata();
+            metadata.put(Metadata.Key.of(Signature.REQUEST_ID_KEY, Metadata.ASCII_STRING_MARSHALLER),
+                RequestIdGenerator.getInstance().next());
+            return metadata;
+        }).when(consumer).sign();
+        return consumer;
+    }
+
+    private AckMessageRequest fakeAckMessageRequest(String topic, String receiptHandle) {
+        final AckMessageEntry entry = AckMessageEntry.newBuilder().setMessageId("id-" + receiptHandle)
+            .setReceiptHandle(receiptHandle).build();
+        return AckMessageRequest.newBuilder().setTopic(Resource.newBuilder().setName(topic))
+            .setGroup(Resource.newBuilder().setName(FAKE_CONSUMER_GROUP_0)).addEntries(entry).build();
+    }
+
+    private void mockAckResponse(AckMessageResponse response) {
+        Mockito.doAnswer(invocation -> new RpcFuture<>(fakeRpcContext(), invocation.getArgument(2),
+                Futures.immediateFuture(response)))
+            .when(clientManager).ackMessage(any(Endpoints.class), any(Metadata.class), any(AckMessageRequest.class),
+                any(Duration.class));
+    }
+
+    private AckMessageRequest captureAckMessageRequest(int times) {
+        final ArgumentCaptor<AckMessageRequest> captor = ArgumentCaptor.forClass(AckMessageRequest.class);
+        verify(clientManager, times(times)).ackMessage(any(Endpoints.class), any(Metadata.class), captor.capture(),
+            any(Duration.class));
+        return captor.getValue();
+    }
+
+    @Test
+    public void testFlushOnMaxEntryCount() throws Exception {
+        mockAckResponse(AckMessageResponse.newBuilder().setStatus(Status.newBuilder().setCode(Code.OK)).build());
+        final AckAggregator aggregator = new AckAggregator(mockConsumer(), Duration.ofHours(1), 2);
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future0 =
+            aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle0"));
+        verify(clientManager, never()).ackMessage(any(Endpoints.class), any(Metadata.class),
+            any(AckMessageRequest.class), any(Duration.class));
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future1 =
+            aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle1"));
+        final AckMessageRequest request = captureAckMessageRequest(1);
+        Assert.assertEquals(2, request.getEntriesCount());
+        Assert.assertEquals(Code.OK, future0.get().getStatus().getCode());
+        Assert.assertEquals(Code.OK, future1.get().getStatus().getCode());
+        // Requests of the same batch share the same context.
+        Assert.assertSame(future0.getContext(), future1.getContext());
+    }
+
+    @Test
+    public void testFlushOnLinger() throws Exception {
+        mockAckResponse(AckMessageResponse.newBuilder().setStatus(Status.newBuilder().setCode(Code.OK)).build());
+        final AckAggregator aggregator = new AckAggregator(mockConsumer(), Duration.ofMillis(50), 16);
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future0 =
+            aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle0"));
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future1 =
+            aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle1"));
+        await().atMost(Duration.ofSeconds(3)).until(() -> future0.isDone() && future1.isDone());
+        Assert.assertEquals(2, captureAckMessageRequest(1).getEntriesCount());
+    }
+
+    @Test
+    public void testBatchesOfDifferentTopics() throws Exception {
+        mockAckResponse(AckMessageResponse.newBuilder().setStatus(Status.newBuilder().setCode(Code.OK)).build());
+        final AckAggregator aggregator = new AckAggregator(mockConsumer(), Duration.ofHours(1), 16);
+        aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle0"));
+        aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_1, "handle1"));
+        aggregator.flushAll();
+        captureAckMessageRequest(2);
+    }
+
+    @Test
+    public void testPartialFailure() throws Exception {
+        final AckMessageResultEntry ok = AckMessageResultEntry.newBuilder().setReceiptHandle("handle0")
+            .setStatus(Status.newBuilder().setCode(Code.OK)).build();
+        final AckMessageResultEntry failed = AckMessageResultEntry.newBuilder().setReceiptHandle("handle1")
+            .setStatus(Status.newBuilder().setCode(Code.INVALID_RECEIPT_HANDLE)).build();
+        mockAckResponse(AckMessageResponse.newBuilder().setStatus(Status.newBuilder()
+            .setCode(Code.MULTIPLE_RESULTS)).addEntries(failed).addEntries(ok).build());
+        final AckAggregator aggregator = new AckAggregator(mockConsumer(), Duration.ofHours(1), 3);
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future0 =
+            aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle0"));
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future1 =
+            aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle1"));
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future2 =
+            aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle2"));
+        Assert.assertEquals(Code.OK, future0.get().getStatus().getCode());
+        Assert.assertEquals(Code.INVALID_RECEIPT_HANDLE, future1.get().getStatus().getCode());
+        // The result of missing entry is unknown, which is supposed to be retried.
+        Assert.assertEquals(Code.INTERNAL_SERVER_ERROR, future2.get().getStatus().getCode());
+    }
+
+    @Test
+    public void testRequestFailure() throws Exception {
+        final SettableFuture<AckMessageResponse> responseFuture = SettableFuture.create();
+        Mockito.doReturn(new RpcFuture<>(fakeRpcContext(), null, responseFuture)).when(clientManager)
+            .ackMessage(any(Endpoints.class), any(Metadata.class), any(AckMessageRequest.class), any(Duration.class));
+        final AckAggregator aggregator = new AckAggregator(mockConsumer(), Duration.ofHours(1), 2);
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future0 =
+            aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle0"));
+        final RpcFuture<AckMessageRequest, AckMessageResponse> future1 =
+            aggregator.append(fakeEndpoints(), fakeAckMessageRequest(FAKE_TOPIC_0, "handle1"));
+        final Exception e = new Exception();
+        responseFuture.setException(e);
+        for (RpcFuture<AckMessageRequest, AckMessageResponse> future : new RpcFuture[] {future0, future1}) {
+            try {
+                future.get();
+                Assert.fail();
+            } catch (ExecutionException ex) {
+                Assert.assertSame(e, ex.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.CompletableFuture;
+import org.apache.rocketmq.client.apis.consumer.AsyncMessageListener;
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
+import org.apache.rocketmq.client.java.hook.MessageInterceptor;
+import org.apache.rocketmq.client.java.hook.MessageInterceptorContext;
+import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+public class AsyncConsumeTaskTest extends TestBase {
+    private final ClientId clientId = new ClientId();
+    private final MessageInterceptor messageInterceptor = Mockito.mock(MessageInterceptor.class);
+
+    @Test
+    public void testInterceptorIsCompletedWithFuture() throws Exception {
+        final CompletableFuture<ConsumeResult> future0 = new CompletableFuture<>();
+        final AsyncMessageListener listener = messageView -> future0;
+        final ListenableFuture<ConsumeResult> future = new AsyncConsumeTask(clientId, listener,
+            fakeMessageViewImpl(), messageInterceptor).call();
+        Mockito.verify(messageInterceptor).doBefore(ArgumentMatchers.any(), ArgumentMatchers.anyList());
+        Mockito.verify(messageInterceptor, Mockito.never()).doAfter(ArgumentMatchers.any(),
+            ArgumentMatchers.anyList());
+        assertFalse(future.isDone());
+        future0.complete(ConsumeResult.SUCCESS);
+        assertEquals(ConsumeResult.SUCCESS, future.get());
+        final ArgumentCaptor<MessageInterceptorContext> captor =
+            ArgumentCaptor.forClass(MessageInterceptorContext.class);
+        Mockito.verify(messageInterceptor).doAfter(captor.capture(), ArgumentMatchers.anyList());
+        assertEquals(MessageHookPointsStatus.OK, captor.getValue().getStatus());
+    }
+
+    @Test
+    public void testCallWithNullFuture() throws Exception {
+        final AsyncMessageListener listener = messageView -> null;
+        final ListenableFuture<ConsumeResult> future = new AsyncConsumeTask(clientId, listener,
+            fakeMessageViewImpl(), messageInterceptor).call();
+        assertEquals(ConsumeResult.FAILURE, future.get());
+    }
+
+    @Test
+    public void testCallWithExceptionalCompletion() throws Exception {
+        final CompletableFuture<ConsumeResult> future0 = new CompletableFuture<>();
+        future0.completeExceptionally(new RuntimeException());
+        final AsyncMessageListener listener = messageView -> future0;
+        final ListenableFuture<ConsumeResult> future = new AsyncConsumeTask(clientId, listener,
+            fakeMessageViewImpl(), messageInterceptor).call();
+        assertEquals(ConsumeResult.FAILURE, future.get());
+        final ArgumentCaptor<MessageInterceptorContext> captor =
+            ArgumentCaptor.forClass(MessageInterceptorContext.class);
+        Mockito.verify(messageInterceptor).doAfter(captor.capture(), ArgumentMatchers.anyList());
+        assertEquals(MessageHookPointsStatus.ERROR, captor.getValue().getStatus());
+    }
+}
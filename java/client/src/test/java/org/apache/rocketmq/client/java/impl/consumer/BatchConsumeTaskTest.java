@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.rocketmq.client.apis.consumer.BatchConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.BatchMessageListener;
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
+import org.apache.rocketmq.client.java.hook.MessageInterceptor;
+import org.apache.rocketmq.client.java.hook.MessageInterceptorContext;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+public class BatchConsumeTaskTest extends TestBase {
+    private final ClientId clientId = new ClientId();
+    private final MessageInterceptor messageInterceptor = Mockito.mock(MessageInterceptor.class);
+
+    private List<MessageViewImpl> fakeMessageViews(int count) {
+        final List<MessageViewImpl> messageViews = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messageViews.add(fakeMessageViewImpl());
+        }
+        return messageViews;
+    }
+
+    private MessageHookPointsStatus captureInterceptorStatus() {
+        final ArgumentCaptor<MessageInterceptorContext> captor =
+            ArgumentCaptor.forClass(MessageInterceptorContext.class);
+        Mockito.verify(messageInterceptor).doAfter(captor.capture(), ArgumentMatchers.anyList());
+        return captor.getValue().getStatus();
+    }
+
+    @Test
+    public void testCallWithBatchSuccess() {
+        final BatchMessageListener listener = messageViews -> BatchConsumeResult.success();
+        final BatchConsumeResult result = new BatchConsumeTask(clientId, listener, fakeMessageViews(2),
+            messageInterceptor).call();
+        assertEquals(ConsumeResult.SUCCESS, result.getResult(0));
+        assertEquals(ConsumeResult.SUCCESS, result.getResult(1));
+        assertEquals(MessageHookPointsStatus.OK, captureInterceptorStatus());
+    }
+
+    @Test
+    public void testCallWithResultOfEachMessage() {
+        final BatchMessageListener listener = messageViews ->
+            BatchConsumeResult.of(Arrays.asList(ConsumeResult.FAILURE, ConsumeResult.SUCCESS));
+        final BatchConsumeResult result = new BatchConsumeTask(clientId, listener, fakeMessageViews(3),
+            messageInterceptor).call();
+        assertEquals(ConsumeResult.FAILURE, result.getResult(0));
+        assertEquals(ConsumeResult.SUCCESS, result.getResult(1));
+        // Message without the corresponding result is regarded as failure.
+        assertEquals(ConsumeResult.FAILURE, result.getResult(2));
+        assertEquals(MessageHookPointsStatus.ERROR, captureInterceptorStatus());
+    }
+
+    @Test
+    public void testCallWithException() {
+        final BatchMessageListener listener = messageViews -> {
+            throw new RuntimeException();
+        };
+        final BatchConsumeResult result = new BatchConsumeTask(clientId, listener, fakeMessageViews(2),
+            messageInterceptor).call();
+        assertEquals(ConsumeResult.FAILURE, result.getResult(0));
+        assertEquals(ConsumeResult.FAILURE, result.getResult(1));
+    }
+
+    @Test
+    public void testCallWithNullResult() {
+        final BatchMessageListener listener = messageViews -> null;
+        final BatchConsumeResult result = new BatchConsumeTask(clientId, listener, fakeMessageViews(1),
+            messageInterceptor).call();
+        assertEquals(ConsumeResult.FAILURE, result.getResult(0));
+    }
+}
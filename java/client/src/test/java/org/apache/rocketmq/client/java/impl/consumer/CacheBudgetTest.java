@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class CacheBudgetTest {
+    @Test
+    public void testReserveAndRelease() {
+        final CacheBudget cacheBudget = new CacheBudget(64, 1024, () -> 1);
+        final CacheBudget.Account account = cacheBudget.newAccount();
+        assertEquals(32, account.tryReserve(32));
+        assertEquals(32, account.tryReserve(48));
+        assertEquals(0, account.tryReserve(1));
+        assertTrue(account.isFull());
+        // Received 10 messages of the first reservation.
+        account.charge(10, 100);
+        account.release(32, 0);
+        assertEquals(42, cacheBudget.getUsedCount());
+        assertEquals(100, cacheBudget.getUsedBytes());
+        assertEquals(22, account.getHeadroom());
+        account.release(10, 100);
+        assertEquals(32, cacheBudget.getUsedCount());
+        assertEquals(0, cacheBudget.getUsedBytes());
+    }
+
+    @Test
+    public void testBorrowerLeavesShareFree() {
+        final CacheBudget cacheBudget = new CacheBudget(64, 1024, () -> 4);
+        final CacheBudget.Account borrower = cacheBudget.newAccount();
+        final CacheBudget.Account lender = cacheBudget.newAccount();
+        assertEquals(32, borrower.tryReserve(32));
+        assertEquals(16, borrower.tryReserve(32));
+        assertEquals(0, borrower.tryReserve(32));
+        assertTrue(borrower.isFull());
+        // The lender is always able to take its share back.
+        assertFalse(lender.isFull());
+        assertEquals(16, lender.tryReserve(32));
+        assertEquals(0, lender.tryReserve(32));
+        assertEquals(64, cacheBudget.getUsedCount());
+    }
+
+    @Test
+    public void testShareFollowsQueueSize() {
+        final AtomicInteger queueSize = new AtomicInteger(0);
+        final CacheBudget cacheBudget = new CacheBudget(64, 1024, queueSize::get);
+        final CacheBudget.Account account = cacheBudget.newAccount();
+        assertEquals(64, account.getHeadroom());
+        queueSize.set(2);
+        assertEquals(32, account.getHeadroom());
+        account.charge(40, 0);
+        assertEquals(-8, account.getHeadroom());
+        queueSize.set(128);
+        // The share is never less than 1.
+        assertEquals(23, account.getHeadroom());
+    }
+
+    @Test
+    public void testBytesFull() {
+        final CacheBudget cacheBudget = new CacheBudget(64, 1024, () -> 1);
+        final CacheBudget.Account account = cacheBudget.newAccount();
+        account.charge(1, 1024);
+        assertTrue(account.isFull());
+        assertFalse(account.isBelowLowWatermark(0.5));
+        account.release(0, 512);
+        assertFalse(account.isFull());
+        assertTrue(account.isBelowLowWatermark(0.5));
+    }
+
+    @Test
+    public void testClose() {
+        final CacheBudget cacheBudget = new CacheBudget(64, 1024, () -> 1);
+        final CacheBudget.Account account = cacheBudget.newAccount();
+        assertEquals(8, account.tryReserve(8));
+        account.charge(4, 100);
+        account.close();
+        assertEquals(0, cacheBudget.getUsedCount());
+        assertEquals(0, cacheBudget.getUsedBytes());
+        // Operations after closing are ignored.
+        account.release(4, 100);
+        account.charge(4, 100);
+        assertEquals(0, account.tryReserve(8));
+        assertEquals(0, cacheBudget.getUsedCount());
+        assertEquals(0, cacheBudget.getUsedBytes());
+    }
+}
@@ -17,18 +17,26 @@
 
 package org.apache.rocketmq.client.java.impl.consumer;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import org.apache.rocketmq.client.apis.consumer.AsyncMessageListener;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.MessageListener;
 import org.apache.rocketmq.client.java.hook.MessageInterceptor;
@@ -112,4 +120,74 @@ public class ConsumeServiceTest extends TestBase {
         final ConsumeResult consumeResult = future.get();
         assertEquals(ConsumeResult.SUCCESS, consumeResult);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAsyncConsumeInFlightIsBounded() throws Exception {
+        final List<CompletableFuture<ConsumeResult>> futures = new CopyOnWriteArrayList<>();
+        final AsyncMessageListener asyncMessageListener = messageView -> {
+            final CompletableFuture<ConsumeResult> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        };
+        final ConsumeService consumeService = new ConsumeService(clientId, null, asyncMessageListener, 2,
+            consumptionExecutor, interceptor, scheduler) {
+            @Override
+            public void consume(ProcessQueue pq, List<MessageViewImpl> messageViews) {
+            }
+        };
+        final List<ListenableFuture<ConsumeResult>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(consumeService.consume(fakeMessageViewImpl()));
+        }
+        await().atMost(Duration.ofSeconds(3)).until(() -> 2 == futures.size());
+        assertEquals(2, consumeService.getAsyncInFlight());
+        // The single consumption thread is not occupied by the in-flight messages.
+        futures.get(0).complete(ConsumeResult.SUCCESS);
+        assertEquals(ConsumeResult.SUCCESS, results.get(0).get(1000, TimeUnit.MILLISECONDS));
+        await().atMost(Duration.ofSeconds(3)).until(() -> 3 == futures.size());
+        futures.get(1).complete(ConsumeResult.FAILURE);
+        futures.get(2).completeExceptionally(new RuntimeException());
+        assertEquals(ConsumeResult.FAILURE, results.get(1).get(1000, TimeUnit.MILLISECONDS));
+        assertEquals(ConsumeResult.FAILURE, results.get(2).get(1000, TimeUnit.MILLISECONDS));
+        assertEquals(0, consumeService.getAsyncInFlight());
+    }
+
+    @Test
+    public void testAsyncConsumeWithException() throws Exception {
+        final AsyncMessageListener asyncMessageListener = messageView -> {
+            throw new RuntimeException();
+        };
+        final ConsumeService consumeService = new ConsumeService(clientId, null, asyncMessageListener, 1,
+            consumptionExecutor, interceptor, scheduler) {
+            @Override
+            public void consume(ProcessQueue pq, List<MessageViewImpl> messageViews) {
+            }
+        };
+        final ListenableFuture<ConsumeResult> future = consumeService.consume(fakeMessageViewImpl(),
+            Duration.ofMillis(100));
+        assertEquals(ConsumeResult.FAILURE, future.get(1000, TimeUnit.MILLISECONDS));
+        assertEquals(0, consumeService.getAsyncInFlight());
+    }
+
+    @Test
+    public void testAsyncConsumeRejected() throws Exception {
+        final AsyncMessageListener asyncMessageListener =
+            messageView -> CompletableFuture.completedFuture(ConsumeResult.SUCCESS);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new ThreadFactoryImpl("TestMessageConsumption"));
+        executor.shutdown();
+        final ConsumeService consumeService = new ConsumeService(clientId, null, asyncMessageListener, 1,
+            executor, interceptor, scheduler) {
+            @Override
+            public void consume(ProcessQueue pq, List<MessageViewImpl> messageViews) {
+            }
+        };
+        for (int i = 0; i < 2; i++) {
+            final ListenableFuture<ConsumeResult> future = consumeService.consume(fakeMessageViewImpl());
+            final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+            // The in-flight slot is released, so that the following task is not blocked.
+            assertEquals(0, consumeService.getAsyncInFlight());
+        }
+    }
+}
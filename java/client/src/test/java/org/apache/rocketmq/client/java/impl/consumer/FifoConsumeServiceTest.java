@@ -17,12 +17,213 @@
 
 package org.apache.rocketmq.client.java.impl.consumer;
 
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.MessageListener;
+import org.apache.rocketmq.client.java.hook.MessageInterceptor;
+import org.apache.rocketmq.client.java.message.MessageIdCodec;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.misc.ThreadFactoryImpl;
 import org.apache.rocketmq.client.java.tool.TestBase;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 public class FifoConsumeServiceTest extends TestBase {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ClientId clientId = new ClientId();
+    private final MessageInterceptor interceptor = Mockito.mock(MessageInterceptor.class);
+    private final ThreadPoolExecutor consumptionExecutor = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), new ThreadFactoryImpl("TestMessageConsumption"));
+
+    private MessageViewImpl fakeMessageViewImpl(String messageGroup, boolean corrupted) {
+        return new MessageViewImpl(MessageIdCodec.getInstance().nextMessageId(), FAKE_TOPIC_0,
+            RandomUtils.nextBytes(1), null, messageGroup, null, null, new ArrayList<>(), new HashMap<>(),
+            FAKE_HOST_0, 1, 1, fakeMessageQueueImpl0(), FAKE_RECEIPT_HANDLE_0, 1, corrupted,
+            System.currentTimeMillis());
+    }
+
+    /**
+     * Mock the process queue which redelivers the failed message like {@link ProcessQueueImpl}, and records the
+     * erased messages.
+     */
+    private ProcessQueue mockProcessQueue(FifoConsumeService[] service, List<MessageViewImpl> erased) {
+        final ProcessQueue pq = Mockito.mock(ProcessQueue.class);
+        Mockito.doAnswer(invocation -> {
+            final MessageViewImpl messageView = invocation.getArgument(0);
+            final ConsumeResult result = invocation.getArgument(1);
+            if (ConsumeResult.FAILURE.equals(result) && messageView.getDeliveryAttempt() < MAX_ATTEMPTS) {
+                messageView.incrementAndGetDeliveryAttempt();
+                return Futures.transformAsync(service[0].consume(messageView, Duration.ofMillis(10)),
+                    r -> pq.eraseFifoMessage(messageView, r), MoreExecutors.directExecutor());
+            }
+            erased.add(messageView);
+            return Futures.immediateVoidFuture();
+        }).when(pq).eraseFifoMessage(any(MessageViewImpl.class), any(ConsumeResult.class));
+        return pq;
+    }
+
+    @Test
+    public void testOrderWithinMessageGroupUnderRedelivery() {
+        final List<String> messageGroups = Arrays.asList("group0", "group1", "group2");
+        final Map<String, List<MessageViewImpl>> expected = new HashMap<>();
+        final List<MessageViewImpl> batch0 = new ArrayList<>();
+        final List<MessageViewImpl> batch1 = new ArrayList<>();
+        final Set<MessageViewImpl> toFail = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            final String messageGroup = messageGroups.get(i % messageGroups.size());
+            final MessageViewImpl messageView = fakeMessageViewImpl(messageGroup, false);
+            expected.computeIfAbsent(messageGroup, k -> new ArrayList<>()).add(messageView);
+            (i < 6 ? batch0 : batch1).add(messageView);
+            // Fail the first attempt of every other message.
+            if (0 == i % 2) {
+                toFail.add(messageView);
+            }
+        }
+        final ConcurrentMap<String, List<MessageViewImpl>> consumed = new ConcurrentHashMap<>();
+        final MessageListener listener = messageView -> {
+            consumed.computeIfAbsent(messageView.getMessageGroup().get(), k -> new CopyOnWriteArrayList<>())
+                .add((MessageViewImpl) messageView);
+            try {
+                Thread.sleep(RandomUtils.nextInt(0, 5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final boolean fail = 1 == messageView.getDeliveryAttempt() && toFail.contains(messageView);
+            return fail ? ConsumeResult.FAILURE : ConsumeResult.SUCCESS;
+        };
+        final FifoConsumeService[] service = new FifoConsumeService[1];
+        final List<MessageViewImpl> erased = new CopyOnWriteArrayList<>();
+        final ProcessQueue pq = mockProcessQueue(service, erased);
+        service[0] = new FifoConsumeService(clientId, listener, consumptionExecutor, interceptor, SCHEDULER, true);
+        service[0].consume(pq, batch0);
+        service[0].consume(pq, batch1);
+        await().atMost(Duration.ofSeconds(5)).until(() -> 12 == erased.size());
+        await().atMost(Duration.ofSeconds(1)).until(() -> 0 == service[0].getBacklogCount());
+        assertEquals(12 + toFail.size(), consumed.values().stream().mapToInt(List::size).sum());
+        for (String messageGroup : messageGroups) {
+            final List<MessageViewImpl> expectedMessageViews = expected.get(messageGroup);
+            final List<MessageViewImpl> erasedMessageViews = new ArrayList<>();
+            for (MessageViewImpl messageView : erased) {
+                if (messageGroup.equals(messageView.getMessageGroup().get())) {
+                    erasedMessageViews.add(messageView);
+                }
+            }
+            assertEquals(expectedMessageViews, erasedMessageViews);
+            // Redeliveries of the message are consumed before the next message of the same message group.
+            final List<MessageViewImpl> deduplicated = new ArrayList<>();
+            for (MessageViewImpl messageView : consumed.get(messageGroup)) {
+                if (deduplicated.isEmpty() || deduplicated.get(deduplicated.size() - 1) != messageView) {
+                    deduplicated.add(messageView);
+                }
+            }
+            assertEquals(expectedMessageViews, deduplicated);
+        }
+    }
+
+    @Test
+    public void testMessageGroupsAcrossBatches() throws InterruptedException {
+        final MessageViewImpl messageView0 = fakeMessageViewImpl("group0", false);
+        final MessageViewImpl messageView1 = fakeMessageViewImpl("group1", false);
+        final MessageViewImpl messageView2 = fakeMessageViewImpl("group0", false);
+        final MessageViewImpl messageView3 = fakeMessageViewImpl("group1", false);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<MessageViewImpl> consumed = new CopyOnWriteArrayList<>();
+        final MessageListener listener = messageView -> {
+            if (messageView == messageView0) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            consumed.add((MessageViewImpl) messageView);
+            return ConsumeResult.SUCCESS;
+        };
+        final FifoConsumeService[] service = new FifoConsumeService[1];
+        final List<MessageViewImpl> erased = new CopyOnWriteArrayList<>();
+        final ProcessQueue pq = mockProcessQueue(service, erased);
+        service[0] = new FifoConsumeService(clientId, listener, consumptionExecutor, interceptor, SCHEDULER, true);
+        service[0].consume(pq, Arrays.asList(messageView0, messageView1));
+        service[0].consume(pq, Arrays.asList(messageView2, messageView3));
+        // The other message group is not blocked.
+        await().atMost(Duration.ofSeconds(3)).until(() -> erased.contains(messageView3));
+        Thread.sleep(50);
+        assertTrue(consumed.indexOf(messageView1) < consumed.indexOf(messageView3));
+        assertEquals(-1, consumed.indexOf(messageView2));
+        latch.countDown();
+        await().atMost(Duration.ofSeconds(3)).until(() -> 4 == erased.size());
+        assertTrue(erased.indexOf(messageView0) < erased.indexOf(messageView2));
+        await().atMost(Duration.ofSeconds(1)).until(() -> 0 == service[0].getBacklogCount());
+    }
+
+    @Test
+    public void testConsumeSeriallyWithoutAccelerator() throws InterruptedException {
+        final MessageViewImpl messageView0 = fakeMessageViewImpl("group0", false);
+        final MessageViewImpl messageView1 = fakeMessageViewImpl("group1", false);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<MessageViewImpl> consumed = new CopyOnWriteArrayList<>();
+        final MessageListener listener = messageView -> {
+            if (messageView == messageView0) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            consumed.add((MessageViewImpl) messageView);
+            return ConsumeResult.SUCCESS;
+        };
+        final FifoConsumeService[] service = new FifoConsumeService[1];
+        final List<MessageViewImpl> erased = new CopyOnWriteArrayList<>();
+        final ProcessQueue pq = mockProcessQueue(service, erased);
+        service[0] = new FifoConsumeService(clientId, listener, consumptionExecutor, interceptor, SCHEDULER, false);
+        service[0].consume(pq, Arrays.asList(messageView0, messageView1));
+        Thread.sleep(100);
+        assertTrue(consumed.isEmpty());
+        latch.countDown();
+        await().atMost(Duration.ofSeconds(3)).until(() -> 2 == erased.size());
+        assertEquals(Arrays.asList(messageView0, messageView1), consumed);
+    }
 
     @Test
-    public void testDispatch() throws InterruptedException {
+    public void testDiscardCorruptedMessage() {
+        final MessageViewImpl corrupted = fakeMessageViewImpl("group0", true);
+        final MessageViewImpl messageView = fakeMessageViewImpl("group0", false);
+        final FifoConsumeService[] service = new FifoConsumeService[1];
+        final List<MessageViewImpl> erased = new CopyOnWriteArrayList<>();
+        final ProcessQueue pq = mockProcessQueue(service, erased);
+        service[0] = new FifoConsumeService(clientId, messageView0 -> ConsumeResult.SUCCESS, consumptionExecutor,
+            interceptor, SCHEDULER, true);
+        service[0].consume(pq, Arrays.asList(corrupted, messageView));
+        verify(pq, timeout(1000)).eraseFifoMessage(eq(messageView), eq(ConsumeResult.SUCCESS));
+        verify(pq).discardFifoMessage(eq(corrupted));
+        await().atMost(Duration.ofSeconds(1)).until(() -> 0 == service[0].getBacklogCount());
     }
-}
\ No newline at end of file
+}
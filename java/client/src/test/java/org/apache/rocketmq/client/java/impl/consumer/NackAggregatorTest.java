@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import apache.rocketmq.v2.ChangeInvisibleDurationRequest;
+import apache.rocketmq.v2.ChangeInvisibleDurationResponse;
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.Status;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.apache.rocketmq.client.java.exception.BadRequestException;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.rpc.RpcFuture;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class NackAggregatorTest extends TestBase {
+    private static final Duration INVISIBLE_DURATION = Duration.ofSeconds(10);
+
+    private PushConsumerImpl mockConsumer() {
+        final PushConsumerImpl consumer = mock(PushConsumerImpl.class);
+        Mockito.doReturn(SCHEDULER).when(consumer).getScheduler();
+        Mockito.doReturn(FAKE_CLIENT_ID).when(consumer).getClientId();
+        Mockito.doReturn(FAKE_CONSUMER_GROUP_0).when(consumer).getConsumerGroup();
+        return consumer;
+    }
+
+    @Test
+    public void testFlushOnMaxMessageCount() throws Exception {
+        final PushConsumerImpl consumer = mockConsumer();
+        Mockito.doAnswer(invocation -> okChangeInvisibleDurationCtxFuture()).when(consumer)
+            .changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+        final NackAggregator aggregator = new NackAggregator(consumer, Duration.ofHours(1), 2, 16);
+        final ListenableFuture<Void> future0 = aggregator.append(fakeMessageViewImpl(), INVISIBLE_DURATION);
+        verify(consumer, never()).changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+        // Messages with different invisible duration are not batched together.
+        aggregator.append(fakeMessageViewImpl(), Duration.ofSeconds(20));
+        verify(consumer, never()).changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+        final ListenableFuture<Void> future1 = aggregator.append(fakeMessageViewImpl(), INVISIBLE_DURATION);
+        verify(consumer, times(2)).changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+        future0.get();
+        future1.get();
+    }
+
+    @Test
+    public void testFlushOnLinger() throws Exception {
+        final PushConsumerImpl consumer = mockConsumer();
+        Mockito.doAnswer(invocation -> okChangeInvisibleDurationCtxFuture()).when(consumer)
+            .changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+        final NackAggregator aggregator = new NackAggregator(consumer, Duration.ofMillis(50), 16, 16);
+        final ListenableFuture<Void> future = aggregator.append(fakeMessageViewImpl(), INVISIBLE_DURATION);
+        await().atMost(Duration.ofSeconds(3)).until(future::isDone);
+        verify(consumer, times(1)).changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+    }
+
+    @Test
+    public void testConcurrentRequestsAreBounded() throws Exception {
+        final PushConsumerImpl consumer = mockConsumer();
+        final List<SettableFuture<ChangeInvisibleDurationResponse>> responseFutures = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            final SettableFuture<ChangeInvisibleDurationResponse> responseFuture = SettableFuture.create();
+            responseFutures.add(responseFuture);
+            return new RpcFuture<ChangeInvisibleDurationRequest, ChangeInvisibleDurationResponse>(fakeRpcContext(),
+                null, responseFuture);
+        }).when(consumer).changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+        final NackAggregator aggregator = new NackAggregator(consumer, Duration.ofHours(1), 16, 2);
+        final List<ListenableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(aggregator.append(fakeMessageViewImpl(), INVISIBLE_DURATION));
+        }
+        aggregator.flushAll();
+        Assert.assertEquals(2, responseFutures.size());
+        Assert.assertEquals(2, aggregator.getInFlightRequests());
+        final ChangeInvisibleDurationResponse response = ChangeInvisibleDurationResponse.newBuilder()
+            .setStatus(Status.newBuilder().setCode(Code.OK)).build();
+        responseFutures.get(0).set(response);
+        Assert.assertEquals(3, responseFutures.size());
+        for (int i = 1; i < 5; i++) {
+            responseFutures.get(i).set(response);
+        }
+        Assert.assertEquals(5, responseFutures.size());
+        Assert.assertEquals(0, aggregator.getInFlightRequests());
+        for (ListenableFuture<Void> future : futures) {
+            Assert.assertTrue(future.isDone());
+        }
+    }
+
+    @Test
+    public void testRetryFailedMessagesTogether() throws Exception {
+        final PushConsumerImpl consumer = mockConsumer();
+        final MessageViewImpl failed0 = fakeMessageViewImpl();
+        final MessageViewImpl failed1 = fakeMessageViewImpl();
+        final MessageViewImpl succeed = fakeMessageViewImpl();
+        Mockito.doAnswer(invocation -> okChangeInvisibleDurationCtxFuture()).when(consumer)
+            .changeInvisibleDuration(Mockito.eq(succeed), any(Duration.class));
+        Mockito.doReturn(changInvisibleDurationCtxFuture(Code.INTERNAL_SERVER_ERROR),
+            okChangeInvisibleDurationCtxFuture()).when(consumer).changeInvisibleDuration(Mockito.eq(failed0),
+            any(Duration.class));
+        Mockito.doReturn(changInvisibleDurationCtxFuture(Code.INTERNAL_SERVER_ERROR),
+            okChangeInvisibleDurationCtxFuture()).when(consumer).changeInvisibleDuration(Mockito.eq(failed1),
+            any(Duration.class));
+        final NackAggregator aggregator = new NackAggregator(consumer, Duration.ofHours(1), 3, 16);
+        final ListenableFuture<Void> future0 = aggregator.append(failed0, INVISIBLE_DURATION);
+        final ListenableFuture<Void> future1 = aggregator.append(failed1, INVISIBLE_DURATION);
+        final ListenableFuture<Void> future2 = aggregator.append(succeed, INVISIBLE_DURATION);
+        Assert.assertTrue(future2.isDone());
+        Assert.assertFalse(future0.isDone());
+        Assert.assertFalse(future1.isDone());
+        await().atMost(Duration.ofSeconds(5)).until(() -> future0.isDone() && future1.isDone());
+        future0.get();
+        future1.get();
+        verify(consumer, times(2)).changeInvisibleDuration(Mockito.eq(failed0), any(Duration.class));
+        verify(consumer, times(2)).changeInvisibleDuration(Mockito.eq(failed1), any(Duration.class));
+        verify(consumer, times(1)).changeInvisibleDuration(Mockito.eq(succeed), any(Duration.class));
+    }
+
+    @Test
+    public void testDispatchResumedAfterRequestThrows() throws Exception {
+        final PushConsumerImpl consumer = mockConsumer();
+        Mockito.doThrow(new RuntimeException()).doAnswer(invocation -> okChangeInvisibleDurationCtxFuture())
+            .when(consumer).changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+        final NackAggregator aggregator = new NackAggregator(consumer, Duration.ofHours(1), 1, 1);
+        final ListenableFuture<Void> future0 = aggregator.append(fakeMessageViewImpl(), INVISIBLE_DURATION);
+        Assert.assertFalse(future0.isDone());
+        Assert.assertEquals(0, aggregator.getInFlightRequests());
+        final ListenableFuture<Void> future1 = aggregator.append(fakeMessageViewImpl(), INVISIBLE_DURATION);
+        Assert.assertTrue(future1.isDone());
+        // The failed request is retried along with its batch.
+        await().atMost(Duration.ofSeconds(5)).until(future0::isDone);
+        future0.get();
+        Assert.assertEquals(0, aggregator.getInFlightRequests());
+        verify(consumer, times(3)).changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+    }
+
+    @Test
+    public void testInvalidReceiptHandle() throws Exception {
+        final PushConsumerImpl consumer = mockConsumer();
+        Mockito.doAnswer(invocation -> changInvisibleDurationCtxFuture(Code.INVALID_RECEIPT_HANDLE)).when(consumer)
+            .changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+        final NackAggregator aggregator = new NackAggregator(consumer, Duration.ofHours(1), 1, 16);
+        final ListenableFuture<Void> future = aggregator.append(fakeMessageViewImpl(), INVISIBLE_DURATION);
+        try {
+            future.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof BadRequestException);
+        }
+        verify(consumer, times(1)).changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+    }
+}
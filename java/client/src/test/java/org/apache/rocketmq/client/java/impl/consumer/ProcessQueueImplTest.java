@@ -18,11 +18,17 @@
 package org.apache.rocketmq.client.java.impl.consumer;
 
 import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,6 +41,7 @@ import apache.rocketmq.v2.Code;
 import apache.rocketmq.v2.ForwardMessageToDeadLetterQueueRequest;
 import apache.rocketmq.v2.ForwardMessageToDeadLetterQueueResponse;
 import apache.rocketmq.v2.ReceiveMessageRequest;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
@@ -42,7 +49,11 @@ import io.grpc.Metadata;
 import java.lang.reflect.Field;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
@@ -79,6 +90,7 @@ public class ProcessQueueImplTest extends TestBase {
 
     @Before
     public void setup() throws IllegalAccessException, NoSuchFieldException {
+        when(pushConsumer.getCacheBudget()).thenReturn(new CacheBudget(8, 1024, () -> 1));
         this.processQueue = new ProcessQueueImpl(pushConsumer, fakeMessageQueueImpl0(), filterExpression);
         when(pushConsumer.isRunning()).thenReturn(true);
 
@@ -97,6 +109,7 @@ public class ProcessQueueImplTest extends TestBase {
 
         AtomicLong receivedMessagesQuantity = new AtomicLong(0);
         when(pushConsumer.getReceivedMessagesQuantity()).thenReturn(receivedMessagesQuantity);
+        when(pushConsumer.getReceptionTimes()).thenReturn(new AtomicLong(0));
         when(pushConsumer.getConsumeService()).thenReturn(consumeService);
     }
 
@@ -110,17 +123,12 @@ public class ProcessQueueImplTest extends TestBase {
 
     @Test
     public void testIsCacheFull() {
-        when(pushConsumer.cacheMessageCountThresholdPerQueue()).thenReturn(8);
-        when(pushConsumer.cacheMessageBytesThresholdPerQueue()).thenReturn(1024);
         assertFalse(processQueue.isCacheFull());
     }
 
     @Test
     public void testReceiveMessageImmediately() {
         final int cachedMessagesCountThresholdPerQueue = 8;
-        when(pushConsumer.cacheMessageCountThresholdPerQueue()).thenReturn(cachedMessagesCountThresholdPerQueue);
-        final int cachedMessageBytesThresholdPerQueue = 1024;
-        when(pushConsumer.cacheMessageBytesThresholdPerQueue()).thenReturn(cachedMessageBytesThresholdPerQueue);
         List<MessageViewImpl> messageViewList = new ArrayList<>();
         final MessageViewImpl messageView = fakeMessageViewImpl();
         messageViewList.add(messageView);
@@ -142,6 +150,87 @@ public class ProcessQueueImplTest extends TestBase {
                 .receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class), any(Duration.class)));
     }
 
+    @Test
+    public void testReserveCacheBudgetBeforeReception() {
+        final CacheBudget cacheBudget = new CacheBudget(8, 1024, () -> 1);
+        when(pushConsumer.getCacheBudget()).thenReturn(cacheBudget);
+        processQueue = new ProcessQueueImpl(pushConsumer, fakeMessageQueueImpl0(), filterExpression);
+        when(pushSubscriptionSettings.getReceiveBatchSize()).thenReturn(32);
+        when(pushSubscriptionSettings.getLongPollingTimeout()).thenReturn(Duration.ofSeconds(3));
+        when(pushConsumer.wrapReceiveMessageRequest(anyInt(), any(MessageQueueImpl.class),
+            any(FilterExpression.class), any(Duration.class), nullable(String.class)))
+            .thenReturn(ReceiveMessageRequest.newBuilder().build());
+        final SettableFuture<ReceiveMessageResult> future0 = SettableFuture.create();
+        when(pushConsumer.receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+            any(Duration.class))).thenReturn(future0).thenReturn(SettableFuture.create());
+        processQueue.fetchMessageImmediately();
+        // The batch size is reserved before reception.
+        verify(pushConsumer, times(1)).wrapReceiveMessageRequest(eq(8), any(MessageQueueImpl.class),
+            any(FilterExpression.class), any(Duration.class), nullable(String.class));
+        assertEquals(8, cacheBudget.getUsedCount());
+        assertTrue(processQueue.isCacheFull());
+
+        // The unused reservation is released once messages are received.
+        future0.set(new ReceiveMessageResult(fakeEndpoints(), Collections.singletonList(fakeMessageViewImpl())));
+        verify(pushConsumer, times(1)).wrapReceiveMessageRequest(eq(7), any(MessageQueueImpl.class),
+            any(FilterExpression.class), any(Duration.class), nullable(String.class));
+        assertEquals(1, processQueue.cachedMessagesCount());
+        assertEquals(8, cacheBudget.getUsedCount());
+
+        processQueue.drop();
+        assertEquals(0, cacheBudget.getUsedCount());
+        assertEquals(0, cacheBudget.getUsedBytes());
+    }
+
+    @Test
+    public void testResumeReceptionOnEvictionBeforeSuspension() {
+        when(pushSubscriptionSettings.getReceiveBatchSize()).thenReturn(32);
+        when(pushSubscriptionSettings.getLongPollingTimeout()).thenReturn(Duration.ofSeconds(3));
+        when(pushConsumer.wrapReceiveMessageRequest(anyInt(), any(MessageQueueImpl.class),
+            any(FilterExpression.class), any(Duration.class), nullable(String.class)))
+            .thenReturn(ReceiveMessageRequest.newBuilder().build());
+        when(pushConsumer.receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+            any(Duration.class))).thenReturn(SettableFuture.create());
+        final ProcessQueueImpl pq = spy(processQueue);
+        // The cache is evicted after the check, but before the reception is suspended.
+        doReturn(true).doCallRealMethod().when(pq).isCacheFull();
+        pq.receiveMessage();
+        // Resumed by the check after suspension rather than the delayed retry.
+        verify(pushConsumer, times(1)).receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+            any(Duration.class));
+    }
+
+    @Test
+    public void testResumeReceptionOnEviction() {
+        when(pushConsumer.getCacheBudget()).thenReturn(new CacheBudget(4, 1024, () -> 1));
+        processQueue = new ProcessQueueImpl(pushConsumer, fakeMessageQueueImpl0(), filterExpression);
+        when(pushSubscriptionSettings.getReceiveBatchSize()).thenReturn(32);
+        when(pushSubscriptionSettings.getLongPollingTimeout()).thenReturn(Duration.ofSeconds(3));
+        when(pushConsumer.wrapReceiveMessageRequest(anyInt(), any(MessageQueueImpl.class),
+            any(FilterExpression.class), any(Duration.class), nullable(String.class)))
+            .thenReturn(ReceiveMessageRequest.newBuilder().build());
+        when(pushConsumer.receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+            any(Duration.class))).thenReturn(SettableFuture.create());
+        when(pushConsumer.ackMessage(any(MessageViewImpl.class))).thenReturn(okAckMessageResponseFuture());
+        List<MessageViewImpl> messageViewList = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            messageViewList.add(fakeMessageViewImpl(2, false));
+        }
+        processQueue.cacheMessages(messageViewList);
+        processQueue.receiveMessage();
+        processQueue.eraseMessage(messageViewList.get(0), ConsumeResult.SUCCESS);
+        // Still above the low watermark.
+        verify(pushConsumer, never()).receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+            any(Duration.class));
+        processQueue.eraseMessage(messageViewList.get(1), ConsumeResult.SUCCESS);
+        // Resumed by the eviction rather than the delayed retry.
+        verify(pushConsumer, times(1)).receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+            any(Duration.class));
+        processQueue.eraseMessage(messageViewList.get(2), ConsumeResult.SUCCESS);
+        verify(pushConsumer, times(1)).receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+            any(Duration.class));
+    }
+
     @Test
     public void testEraseMessageWithConsumeOk() {
         List<MessageViewImpl> messageViewList = new ArrayList<>();
@@ -155,6 +244,52 @@ public class ProcessQueueImplTest extends TestBase {
             .ackMessage(eq(messageView)));
     }
 
+    @Test
+    public void testCacheAndEvictMessagesConcurrently() throws Exception {
+        when(pushConsumer.ackMessage(any(MessageViewImpl.class))).thenReturn(okAckMessageResponseFuture());
+        final int threadCount = 8;
+        final int messageCountPerThread = 500;
+        final List<List<MessageViewImpl>> messageViewLists = new ArrayList<>();
+        long totalBytes = 0;
+        for (int i = 0; i < threadCount; i++) {
+            final List<MessageViewImpl> messageViewList = new ArrayList<>();
+            for (int j = 0; j < messageCountPerThread; j++) {
+                final MessageViewImpl messageView = fakeMessageViewImpl(1 + j % 16, false);
+                totalBytes += messageView.getBody().remaining();
+                messageViewList.add(messageView);
+            }
+            messageViewLists.add(messageViewList);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (List<MessageViewImpl> messageViewList : messageViewLists) {
+                futures.add(executor.submit(() -> messageViewList.forEach(messageView ->
+                    processQueue.cacheMessages(Collections.singletonList(messageView)))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertEquals(threadCount * messageCountPerThread, processQueue.cachedMessagesCount());
+            assertEquals(totalBytes, processQueue.cachedMessageBytes());
+            futures.clear();
+            for (List<MessageViewImpl> messageViewList : messageViewLists) {
+                futures.add(executor.submit(() -> messageViewList.forEach(messageView ->
+                    processQueue.eraseMessage(messageView, ConsumeResult.SUCCESS))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, processQueue.cachedMessagesCount());
+        assertEquals(0, processQueue.cachedMessageBytes());
+        // Evict the message which has been evicted already.
+        processQueue.eraseMessage(messageViewLists.get(0).get(0), ConsumeResult.SUCCESS);
+        assertEquals(0, processQueue.getCachedMessageCount());
+    }
+
     @Test
     public void testEraseMessageWithAckFailure() {
         List<MessageViewImpl> messageViewList = new ArrayList<>();
@@ -190,6 +325,24 @@ public class ProcessQueueImplTest extends TestBase {
             .changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class)));
     }
 
+    @Test
+    public void testEraseMessageWithNackAggregator() {
+        List<MessageViewImpl> messageViewList = new ArrayList<>();
+        final MessageViewImpl messageView = fakeMessageViewImpl(2, false);
+        messageViewList.add(messageView);
+        processQueue.cacheMessages(messageViewList);
+        final NackAggregator nackAggregator = mock(NackAggregator.class);
+        when(nackAggregator.append(any(MessageViewImpl.class), any(Duration.class)))
+            .thenReturn(Futures.immediateVoidFuture());
+        when(pushConsumer.getNackAggregator()).thenReturn(nackAggregator);
+        when(pushConsumer.getRetryPolicy()).thenReturn(retryPolicy);
+        when(retryPolicy.getNextAttemptDelay(anyInt())).thenReturn(Duration.ofSeconds(1));
+        processQueue.eraseMessage(messageView, ConsumeResult.FAILURE);
+        verify(nackAggregator, times(1)).append(eq(messageView), eq(Duration.ofSeconds(1)));
+        verify(pushConsumer, never()).changeInvisibleDuration(any(MessageViewImpl.class), any(Duration.class));
+        assertEquals(0, processQueue.getCachedMessageCount());
+    }
+
     @Test
     public void testEraseFifoMessageWithConsumeOk() {
         List<MessageViewImpl> messageViewList = new ArrayList<>();
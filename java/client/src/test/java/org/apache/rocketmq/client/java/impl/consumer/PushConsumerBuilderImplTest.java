@@ -17,8 +17,11 @@
 
 package org.apache.rocketmq.client.java.impl.consumer;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.consumer.BatchConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.java.tool.TestBase;
 import org.junit.Test;
@@ -43,6 +46,24 @@ public class PushConsumerBuilderImplTest extends TestBase {
         builder.setMessageListener(null);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetBatchMessageListenerWithNonPositiveBatchSize() {
+        final PushConsumerBuilderImpl builder = new PushConsumerBuilderImpl();
+        builder.setBatchMessageListener(messageViews -> BatchConsumeResult.success(), 0, Duration.ofMillis(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildWithMultipleListeners() throws ClientException {
+        final PushConsumerBuilderImpl builder = new PushConsumerBuilderImpl();
+        ClientConfiguration clientConfiguration =
+            ClientConfiguration.newBuilder().setEndpoints(FAKE_ENDPOINTS).build();
+        builder.setClientConfiguration(clientConfiguration).setConsumerGroup(FAKE_CONSUMER_GROUP_0)
+            .setSubscriptionExpressions(createSubscriptionExpressions(FAKE_TOPIC_0))
+            .setMessageListener(messageView -> ConsumeResult.SUCCESS)
+            .setAsyncMessageListener(messageView -> CompletableFuture.completedFuture(ConsumeResult.SUCCESS), 16)
+            .build();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testSetNegativeMaxCacheMessageCount() {
         final PushConsumerBuilderImpl builder = new PushConsumerBuilderImpl();
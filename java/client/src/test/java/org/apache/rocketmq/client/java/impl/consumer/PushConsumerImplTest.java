@@ -18,6 +18,8 @@
 package org.apache.rocketmq.client.java.impl.consumer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -25,13 +27,16 @@ import static org.mockito.Mockito.verify;
 
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.FilterExpression;
 import org.apache.rocketmq.client.apis.consumer.MessageListener;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
 import org.apache.rocketmq.client.java.tool.TestBase;
 import org.junit.Test;
@@ -76,6 +81,28 @@ public class PushConsumerImplTest extends TestBase {
         mockedPushConsumer.queryAssignment(FAKE_TOPIC_0);
     }
 
+    @Test
+    public void testCacheBudgetSharedByProcessQueues() {
+        final ProcessQueueImpl pq0 = (ProcessQueueImpl) pushConsumer.createProcessQueue(fakeMessageQueueImpl(
+            FAKE_TOPIC_0), new FilterExpression()).get();
+        final ProcessQueueImpl pq1 = (ProcessQueueImpl) pushConsumer.createProcessQueue(fakeMessageQueueImpl(
+            FAKE_TOPIC_1), new FilterExpression()).get();
+        final List<MessageViewImpl> messageViews = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            messageViews.add(fakeMessageViewImpl(100, false));
+        }
+        pq0.cacheMessages(messageViews);
+        final CacheBudget cacheBudget = pushConsumer.getCacheBudget();
+        assertEquals(6, cacheBudget.getUsedCount());
+        assertEquals(600, cacheBudget.getUsedBytes());
+        // The borrower leaves the share of the other process queue free.
+        assertTrue(pq0.isCacheFull());
+        assertFalse(pq1.isCacheFull());
+        pushConsumer.dropProcessQueue(pq0.getMessageQueue());
+        assertEquals(0, cacheBudget.getUsedCount());
+        assertEquals(0, cacheBudget.getUsedBytes());
+    }
+
     @Test
     public void testScanAssignments() {
         final MessageQueueImpl messageQueue = fakeMessageQueueImpl0();
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import org.junit.Test;
+
+public class ReceptionControllerTest {
+    private static final int BASE_BATCH_SIZE = 32;
+    private static final int MAX_BATCH_SIZE = 128;
+    private static final Duration BASE_LONG_POLLING_TIMEOUT = Duration.ofSeconds(20);
+
+    @Test
+    public void testInitialValues() {
+        final ReceptionController controller = new ReceptionController();
+        assertEquals(BASE_BATCH_SIZE, controller.getBatchSize(BASE_BATCH_SIZE, MAX_BATCH_SIZE));
+        assertEquals(BASE_LONG_POLLING_TIMEOUT, controller.getLongPollingTimeout(BASE_LONG_POLLING_TIMEOUT));
+        // The max batch size less than the base one takes no effect.
+        assertEquals(BASE_BATCH_SIZE, controller.getBatchSize(BASE_BATCH_SIZE, 0));
+    }
+
+    @Test
+    public void testGrowOnFullBatch() {
+        final ReceptionController controller = new ReceptionController();
+        controller.onReceived(BASE_BATCH_SIZE, MAX_BATCH_SIZE, 32, 32, true);
+        assertEquals(64, controller.getBatchSize(BASE_BATCH_SIZE, MAX_BATCH_SIZE));
+        assertEquals(Duration.ofSeconds(10), controller.getLongPollingTimeout(BASE_LONG_POLLING_TIMEOUT));
+        controller.onReceived(BASE_BATCH_SIZE, MAX_BATCH_SIZE, 64, 64, true);
+        controller.onReceived(BASE_BATCH_SIZE, MAX_BATCH_SIZE, 128, 128, true);
+        assertEquals(MAX_BATCH_SIZE, controller.getBatchSize(BASE_BATCH_SIZE, MAX_BATCH_SIZE));
+        final Duration minLongPollingTimeout =
+            BASE_LONG_POLLING_TIMEOUT.dividedBy(ReceptionController.MAX_LONG_POLLING_TIMEOUT_DIVISOR);
+        assertEquals(minLongPollingTimeout, controller.getLongPollingTimeout(BASE_LONG_POLLING_TIMEOUT));
+    }
+
+    @Test
+    public void testNotGrowIfConsumptionFallsBehind() {
+        final ReceptionController controller = new ReceptionController();
+        controller.onReceived(BASE_BATCH_SIZE, MAX_BATCH_SIZE, 32, 32, false);
+        assertEquals(BASE_BATCH_SIZE, controller.getBatchSize(BASE_BATCH_SIZE, MAX_BATCH_SIZE));
+        assertEquals(Duration.ofSeconds(10), controller.getLongPollingTimeout(BASE_LONG_POLLING_TIMEOUT));
+    }
+
+    @Test
+    public void testShrinkOnCacheFull() {
+        final ReceptionController controller = new ReceptionController();
+        controller.onReceived(BASE_BATCH_SIZE, MAX_BATCH_SIZE, 32, 32, true);
+        controller.onCacheFull(BASE_BATCH_SIZE, MAX_BATCH_SIZE);
+        assertEquals(32, controller.getBatchSize(BASE_BATCH_SIZE, MAX_BATCH_SIZE));
+        assertEquals(BASE_LONG_POLLING_TIMEOUT, controller.getLongPollingTimeout(BASE_LONG_POLLING_TIMEOUT));
+        for (int i = 0; i < 8; i++) {
+            controller.onCacheFull(BASE_BATCH_SIZE, MAX_BATCH_SIZE);
+        }
+        assertEquals(1, controller.getBatchSize(BASE_BATCH_SIZE, MAX_BATCH_SIZE));
+        // Recover from the shrunk batch size.
+        controller.onReceived(BASE_BATCH_SIZE, MAX_BATCH_SIZE, 1, 1, true);
+        assertEquals(2, controller.getBatchSize(BASE_BATCH_SIZE, MAX_BATCH_SIZE));
+    }
+
+    @Test
+    public void testRestoreOnPartialBatch() {
+        final ReceptionController controller = new ReceptionController();
+        controller.onReceived(BASE_BATCH_SIZE, MAX_BATCH_SIZE, 32, 32, true);
+        controller.onReceived(BASE_BATCH_SIZE, MAX_BATCH_SIZE, 64, 10, true);
+        // Partial batch keeps the batch size but restores the long-polling timeout.
+        assertEquals(64, controller.getBatchSize(BASE_BATCH_SIZE, MAX_BATCH_SIZE));
+        assertEquals(BASE_LONG_POLLING_TIMEOUT, controller.getLongPollingTimeout(BASE_LONG_POLLING_TIMEOUT));
+        // Empty batch falls back to the base batch size.
+        controller.onReceived(BASE_BATCH_SIZE, MAX_BATCH_SIZE, 64, 0, true);
+        assertEquals(BASE_BATCH_SIZE, controller.getBatchSize(BASE_BATCH_SIZE, MAX_BATCH_SIZE));
+    }
+}
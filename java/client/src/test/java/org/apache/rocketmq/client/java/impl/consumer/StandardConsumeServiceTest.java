@@ -17,12 +17,144 @@
 
 package org.apache.rocketmq.client.java.impl.consumer;
 
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.rocketmq.client.apis.consumer.BatchConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.BatchMessageListener;
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.MessageListener;
+import org.apache.rocketmq.client.java.hook.MessageInterceptor;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.misc.ThreadFactoryImpl;
 import org.apache.rocketmq.client.java.tool.TestBase;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 public class StandardConsumeServiceTest extends TestBase {
+    private final ClientId clientId = new ClientId();
+    private final MessageInterceptor interceptor = Mockito.mock(MessageInterceptor.class);
+    private final ThreadPoolExecutor consumptionExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), new ThreadFactoryImpl("TestMessageConsumption"));
+    private final MessageListener messageListener = messageView -> ConsumeResult.SUCCESS;
+
+    private List<MessageViewImpl> fakeMessageViews(int count) {
+        final List<MessageViewImpl> messageViews = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messageViews.add(fakeMessageViewImpl());
+        }
+        return messageViews;
+    }
 
     @Test
     public void testDispatch() {
+        final ProcessQueue pq = Mockito.mock(ProcessQueue.class);
+        final StandardConsumeService consumeService = new StandardConsumeService(clientId, messageListener,
+            consumptionExecutor, interceptor, SCHEDULER);
+        final MessageViewImpl messageView = fakeMessageViewImpl();
+        consumeService.consume(pq, Arrays.asList(messageView, fakeMessageViewImpl(true)));
+        verify(pq, timeout(1000)).eraseMessage(eq(messageView), eq(ConsumeResult.SUCCESS));
+        verify(pq).discardMessage(any(MessageViewImpl.class));
+    }
+
+    @Test
+    public void testBatchDispatchOnMaxBatchSize() {
+        final ProcessQueue pq = Mockito.mock(ProcessQueue.class);
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final BatchMessageListener batchMessageListener = messageViews -> {
+            batchSizes.add(messageViews.size());
+            return BatchConsumeResult.success();
+        };
+        final StandardConsumeService consumeService = new StandardConsumeService(clientId, messageListener,
+            consumptionExecutor, interceptor, SCHEDULER, batchMessageListener, 3, Duration.ofHours(1));
+        consumeService.consume(pq, fakeMessageViews(2));
+        consumeService.consume(pq, fakeMessageViews(5));
+        // 7 messages are dispatched as 2 full batches, the rest is waiting for more messages.
+        await().atMost(Duration.ofSeconds(3)).until(() -> 2 == batchSizes.size());
+        assertEquals(Arrays.asList(3, 3), batchSizes);
+        verify(pq, timeout(1000).times(6)).eraseMessage(any(MessageViewImpl.class), eq(ConsumeResult.SUCCESS));
+    }
+
+    @Test
+    public void testBatchDispatchOnMaxWait() {
+        final ProcessQueue pq = Mockito.mock(ProcessQueue.class);
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final BatchMessageListener batchMessageListener = messageViews -> {
+            batchSizes.add(messageViews.size());
+            return BatchConsumeResult.success();
+        };
+        final StandardConsumeService consumeService = new StandardConsumeService(clientId, messageListener,
+            consumptionExecutor, interceptor, SCHEDULER, batchMessageListener, 16, Duration.ofMillis(100));
+        consumeService.consume(pq, fakeMessageViews(2));
+        consumeService.consume(pq, fakeMessageViews(1));
+        await().atMost(Duration.ofSeconds(3)).until(() -> 1 == batchSizes.size());
+        assertEquals(3, (int) batchSizes.get(0));
+        // Messages after the dispatching are accumulated into the next batch.
+        consumeService.consume(pq, fakeMessageViews(1));
+        await().atMost(Duration.ofSeconds(3)).until(() -> 2 == batchSizes.size());
+        assertEquals(1, (int) batchSizes.get(1));
+    }
+
+    @Test
+    public void testPendingBatchOfDroppedProcessQueue() throws InterruptedException {
+        final ProcessQueue pq = Mockito.mock(ProcessQueue.class);
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final BatchMessageListener batchMessageListener = messageViews -> {
+            batchSizes.add(messageViews.size());
+            return BatchConsumeResult.success();
+        };
+        final StandardConsumeService consumeService = new StandardConsumeService(clientId, messageListener,
+            consumptionExecutor, interceptor, SCHEDULER, batchMessageListener, 16, Duration.ofMillis(100));
+        consumeService.consume(pq, fakeMessageViews(2));
+        Mockito.doReturn(true).when(pq).isDropped();
+        verify(pq, timeout(1000)).isDropped();
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(0, batchSizes.size());
+        verify(pq, never()).eraseMessage(any(MessageViewImpl.class), any(ConsumeResult.class));
+    }
+
+    @Test
+    public void testBatchEraseMessageByResultOfEachMessage() {
+        final ProcessQueue pq = Mockito.mock(ProcessQueue.class);
+        final BatchMessageListener batchMessageListener = messageViews ->
+            BatchConsumeResult.of(Arrays.asList(ConsumeResult.SUCCESS, ConsumeResult.FAILURE));
+        final StandardConsumeService consumeService = new StandardConsumeService(clientId, messageListener,
+            consumptionExecutor, interceptor, SCHEDULER, batchMessageListener, 2, Duration.ofHours(1));
+        final List<MessageViewImpl> messageViews = fakeMessageViews(2);
+        final MessageViewImpl corrupted = fakeMessageViewImpl(true);
+        consumeService.consume(pq, Arrays.asList(messageViews.get(0), corrupted, messageViews.get(1)));
+        verify(pq, timeout(1000)).eraseMessage(eq(messageViews.get(0)), eq(ConsumeResult.SUCCESS));
+        verify(pq, timeout(1000)).eraseMessage(eq(messageViews.get(1)), eq(ConsumeResult.FAILURE));
+        verify(pq).discardMessage(eq(corrupted));
+        verify(pq, never()).eraseMessage(eq(corrupted), any(ConsumeResult.class));
+    }
+
+    @Test
+    public void testBatchEraseMessageOnRejectedConsumption() {
+        final ProcessQueue pq = Mockito.mock(ProcessQueue.class);
+        final ThreadPoolExecutor rejectedExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new ThreadFactoryImpl("TestRejectedMessageConsumption"));
+        rejectedExecutor.shutdown();
+        final BatchMessageListener batchMessageListener = messageViews -> BatchConsumeResult.success();
+        final StandardConsumeService consumeService = new StandardConsumeService(clientId, messageListener,
+            rejectedExecutor, interceptor, SCHEDULER, batchMessageListener, 2, Duration.ofHours(1));
+        final List<MessageViewImpl> messageViews = fakeMessageViews(2);
+        consumeService.consume(pq, messageViews);
+        verify(pq).eraseMessage(eq(messageViews.get(0)), eq(ConsumeResult.FAILURE));
+        verify(pq).eraseMessage(eq(messageViews.get(1)), eq(ConsumeResult.FAILURE));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import static org.awaitility.Awaitility.await;
+
+import apache.rocketmq.v2.Code;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.rocketmq.client.java.exception.TooManyRequestsException;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EndpointsCircuitBreakerTest extends TestBase {
+    private final Endpoints endpoints = fakeEndpoints();
+    private final Throwable failure = new RuntimeException();
+    private final Throwable throttling = new TooManyRequestsException(Code.TOO_MANY_REQUESTS_VALUE, "requestId",
+        "throttled");
+
+    private EndpointsCircuitBreaker createCircuitBreaker(Duration openDuration) {
+        return new EndpointsCircuitBreaker(FAKE_CLIENT_ID, 4, 2, 0.5, openDuration, 1);
+    }
+
+    @Test
+    public void testSingleFailureKeepsCircuitClosed() {
+        final EndpointsCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofHours(1));
+        Assert.assertTrue(circuitBreaker.tryAcquire(endpoints));
+        circuitBreaker.onFailure(endpoints, failure);
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().isEmpty());
+        Assert.assertTrue(circuitBreaker.tryAcquire(endpoints));
+    }
+
+    @Test
+    public void testOpenOnFailureRate() {
+        final EndpointsCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofHours(1));
+        circuitBreaker.onFailure(endpoints, failure);
+        circuitBreaker.onSuccess(endpoints);
+        circuitBreaker.onSuccess(endpoints);
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().isEmpty());
+        circuitBreaker.onFailure(endpoints, failure);
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().contains(endpoints));
+    }
+
+    @Test
+    public void testFailureSlidesOutOfWindow() {
+        final EndpointsCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofHours(1));
+        circuitBreaker.onFailure(endpoints, failure);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onSuccess(endpoints);
+        }
+        // The window only holds successes now.
+        circuitBreaker.onFailure(endpoints, failure);
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().isEmpty());
+    }
+
+    @Test
+    public void testHalfOpenTrialSucceeds() {
+        final EndpointsCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofMillis(10));
+        circuitBreaker.onFailure(endpoints, failure);
+        circuitBreaker.onFailure(endpoints, failure);
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().contains(endpoints));
+        Assert.assertFalse(circuitBreaker.tryAcquire(endpoints));
+        await().atMost(Duration.ofSeconds(3)).until(() -> circuitBreaker.getUnavailableEndpoints().isEmpty());
+        // Only one trial is permitted while half-open.
+        Assert.assertTrue(circuitBreaker.tryAcquire(endpoints));
+        Assert.assertFalse(circuitBreaker.tryAcquire(endpoints));
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().contains(endpoints));
+        circuitBreaker.onSuccess(endpoints);
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().isEmpty());
+        // Closed with a fresh window.
+        circuitBreaker.onFailure(endpoints, failure);
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().isEmpty());
+    }
+
+    @Test
+    public void testHalfOpenTrialFails() {
+        final EndpointsCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofMillis(10));
+        circuitBreaker.onFailure(endpoints, failure);
+        circuitBreaker.onFailure(endpoints, failure);
+        await().atMost(Duration.ofSeconds(3)).until(() -> circuitBreaker.getUnavailableEndpoints().isEmpty());
+        Assert.assertTrue(circuitBreaker.tryAcquire(endpoints));
+        circuitBreaker.onFailure(endpoints, failure);
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().contains(endpoints));
+    }
+
+    @Test
+    public void testThrottlingAndPartialFailureNotCounted() {
+        final EndpointsCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofHours(1));
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(endpoints, throttling);
+            circuitBreaker.onFailure(endpoints, new PartialSendException(Collections.emptyMap(),
+                Collections.emptyMap()));
+        }
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().isEmpty());
+    }
+
+    @Test
+    public void testThrottledTrialReleased() {
+        final EndpointsCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofMillis(10));
+        circuitBreaker.onFailure(endpoints, failure);
+        circuitBreaker.onFailure(endpoints, failure);
+        await().atMost(Duration.ofSeconds(3)).until(() -> circuitBreaker.getUnavailableEndpoints().isEmpty());
+        Assert.assertTrue(circuitBreaker.tryAcquire(endpoints));
+        Assert.assertFalse(circuitBreaker.tryAcquire(endpoints));
+        circuitBreaker.onFailure(endpoints, throttling);
+        // The trial is given back rather than counted as a failure.
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().isEmpty());
+        Assert.assertTrue(circuitBreaker.tryAcquire(endpoints));
+        circuitBreaker.onSuccess(endpoints);
+        Assert.assertTrue(circuitBreaker.getUnavailableEndpoints().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentTrialsLimited() throws InterruptedException {
+        final EndpointsCircuitBreaker circuitBreaker = new EndpointsCircuitBreaker(FAKE_CLIENT_ID, 4, 2, 0.5,
+            Duration.ofMillis(10), 2);
+        circuitBreaker.onFailure(endpoints, failure);
+        circuitBreaker.onFailure(endpoints, failure);
+        await().atMost(Duration.ofSeconds(3)).until(() -> circuitBreaker.getUnavailableEndpoints().isEmpty());
+        final AtomicInteger admitted = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Thread thread = new Thread(() -> {
+                if (circuitBreaker.tryAcquire(endpoints)) {
+                    admitted.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(2, admitted.get());
+    }
+}
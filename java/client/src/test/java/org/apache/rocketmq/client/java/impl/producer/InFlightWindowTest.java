@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.rocketmq.client.apis.producer.BackpressurePolicy;
+import org.apache.rocketmq.client.java.exception.InFlightWindowFullException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InFlightWindowTest {
+
+    @Test
+    public void testAcquireAndRelease() throws Exception {
+        final InFlightWindow window = new InFlightWindow(2, 16, BackpressurePolicy.FAIL_FAST, Duration.ZERO);
+        window.acquire(8);
+        window.acquire(8);
+        Assert.assertEquals(2, window.getInFlightRequests());
+        Assert.assertEquals(16, window.getInFlightBytes());
+        window.release(8);
+        window.release(8);
+        Assert.assertEquals(0, window.getInFlightRequests());
+        Assert.assertEquals(0, window.getInFlightBytes());
+    }
+
+    @Test(expected = InFlightWindowFullException.class)
+    public void testFailFastOnMaxRequests() throws Exception {
+        final InFlightWindow window = new InFlightWindow(1, 16, BackpressurePolicy.FAIL_FAST, Duration.ZERO);
+        window.acquire(1);
+        window.acquire(1);
+    }
+
+    @Test(expected = InFlightWindowFullException.class)
+    public void testFailFastOnMaxBytes() throws Exception {
+        final InFlightWindow window = new InFlightWindow(16, 16, BackpressurePolicy.FAIL_FAST, Duration.ZERO);
+        window.acquire(10);
+        window.acquire(10);
+    }
+
+    @Test
+    public void testAdmitOversizeWhenEmpty() throws Exception {
+        final InFlightWindow window = new InFlightWindow(16, 16, BackpressurePolicy.FAIL_FAST, Duration.ZERO);
+        window.acquire(32);
+        Assert.assertEquals(32, window.getInFlightBytes());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        final InFlightWindow window = new InFlightWindow(1, 16, BackpressurePolicy.TIMEOUT, Duration.ofMillis(50));
+        window.acquire(1);
+        final long begin = System.nanoTime();
+        try {
+            window.acquire(1);
+            Assert.fail();
+        } catch (InFlightWindowFullException ignore) {
+            // Expected.
+        }
+        Assert.assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void testBlockUntilReleased() throws Exception {
+        final InFlightWindow window = new InFlightWindow(1, 16, BackpressurePolicy.BLOCK, Duration.ZERO);
+        window.acquire(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final Future<?> future = executor.submit(() -> {
+                latch.countDown();
+                window.acquire(1);
+                return null;
+            });
+            latch.await();
+            Thread.sleep(50);
+            Assert.assertFalse(future.isDone());
+            window.release(1);
+            await().atMost(Duration.ofSeconds(3)).until(future::isDone);
+            future.get();
+            Assert.assertEquals(1, window.getInFlightRequests());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
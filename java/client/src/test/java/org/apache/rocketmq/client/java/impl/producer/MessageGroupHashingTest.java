@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MessageGroupHashingTest {
+
+    private static void assertSameAsGuava(String s) {
+        final long expected = Hashing.sipHash24().hashBytes(s.getBytes(StandardCharsets.UTF_8)).asLong();
+        Assert.assertEquals(s, expected, MessageGroupHashing.sipHash24(s));
+    }
+
+    @Test
+    public void testSipHash24() {
+        assertSameAsGuava("");
+        assertSameAsGuava("a");
+        assertSameAsGuava("1234567");
+        assertSameAsGuava("12345678");
+        assertSameAsGuava("123456789");
+        assertSameAsGuava("messageGroup-0123456789");
+        assertSameAsGuava("éè");
+        assertSameAsGuava("消息分组");
+        assertSameAsGuava("group-😀-emoji");
+        // Unpaired surrogates.
+        final char highSurrogate = (char) 0xd83d;
+        final char lowSurrogate = (char) 0xde00;
+        assertSameAsGuava("a" + highSurrogate);
+        assertSameAsGuava(lowSurrogate + "b");
+        assertSameAsGuava(highSurrogate + "😀");
+    }
+
+    @Test
+    public void testSipHash24WithRandomStrings() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 10000; i++) {
+            final char[] chars = new char[random.nextInt(32)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) random.nextInt(random.nextBoolean() ? 0x80 : Character.MAX_VALUE + 1);
+            }
+            assertSameAsGuava(new String(chars));
+        }
+    }
+}
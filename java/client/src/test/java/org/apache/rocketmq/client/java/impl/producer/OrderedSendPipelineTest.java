@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.SendMessageRequest;
+import apache.rocketmq.v2.SendMessageResponse;
+import apache.rocketmq.v2.SendResultEntry;
+import apache.rocketmq.v2.Status;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.java.message.MessageBuilderImpl;
+import org.apache.rocketmq.client.java.message.MessageType;
+import org.apache.rocketmq.client.java.message.PublishingMessageImpl;
+import org.apache.rocketmq.client.java.rpc.RpcFuture;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class OrderedSendPipelineTest extends TestBase {
+    private final List<List<PublishingMessageImpl>> publishedBatches = new ArrayList<>();
+    private final List<SettableFuture<List<SendReceiptImpl>>> publishFutures = new ArrayList<>();
+
+    private PublishingMessageImpl fakeFifoMessage(String messageGroup) throws Exception {
+        final PublishingMessageImpl message = new PublishingMessageImpl(new MessageBuilderImpl()
+            .setTopic(FAKE_TOPIC_0).setBody(new byte[1]).setMessageGroup(messageGroup).build(),
+            fakeProducerSettings(), false);
+        Assert.assertEquals(MessageType.FIFO, message.getMessageType());
+        return message;
+    }
+
+    private List<SendReceiptImpl> fakeSendReceipts(List<PublishingMessageImpl> messages) throws ClientException {
+        final Status status = Status.newBuilder().setCode(Code.OK).build();
+        final SendMessageResponse.Builder builder = SendMessageResponse.newBuilder().setStatus(status);
+        for (PublishingMessageImpl message : messages) {
+            builder.addEntries(SendResultEntry.newBuilder().setStatus(status)
+                .setMessageId(message.getMessageId().toString()).build());
+        }
+        final SendMessageResponse response = builder.build();
+        final RpcFuture<SendMessageRequest, SendMessageResponse> future =
+            new RpcFuture<>(fakeRpcContext(), null, Futures.immediateFuture(response));
+        return SendReceiptImpl.processResponseInvocation(fakeMessageQueueImpl0(), response, future);
+    }
+
+    private ProducerImpl mockProducer() {
+        final ProducerImpl producer = mock(ProducerImpl.class);
+        Mockito.doAnswer(invocation -> {
+            final List<PublishingMessageImpl> messages = new ArrayList<>(invocation.getArgument(0));
+            final SettableFuture<List<SendReceiptImpl>> future = SettableFuture.create();
+            publishedBatches.add(messages);
+            publishFutures.add(future);
+            return future;
+        }).when(producer).publish(anyList());
+        return producer;
+    }
+
+    @Test
+    public void testSameMessageGroupInOrder() throws Exception {
+        final OrderedSendPipeline pipeline = new OrderedSendPipeline(mockProducer(), 16, 1024);
+        final PublishingMessageImpl message0 = fakeFifoMessage("group0");
+        final PublishingMessageImpl message1 = fakeFifoMessage("group0");
+        final PublishingMessageImpl message2 = fakeFifoMessage("group0");
+        final ListenableFuture<SendReceiptImpl> future0 = pipeline.append(message0);
+        final ListenableFuture<SendReceiptImpl> future1 = pipeline.append(message1);
+        final ListenableFuture<SendReceiptImpl> future2 = pipeline.append(message2);
+        // Only the first message is in flight, others are waiting for it.
+        Assert.assertEquals(1, publishedBatches.size());
+        Assert.assertEquals(1, publishedBatches.get(0).size());
+        final List<Boolean> previousDone = new ArrayList<>();
+        future0.addListener(() -> previousDone.add(publishedBatches.size() == 1), Runnable::run);
+        publishFutures.get(0).set(fakeSendReceipts(publishedBatches.get(0)));
+        Assert.assertEquals(message0.getMessageId(), future0.get().getMessageId());
+        // The result of previous message is exposed before the next request is sent.
+        Assert.assertEquals(1, previousDone.size());
+        Assert.assertTrue(previousDone.get(0));
+        // Messages appended in the meantime are coalesced into the next request in order.
+        Assert.assertEquals(2, publishedBatches.size());
+        Assert.assertEquals(message1, publishedBatches.get(1).get(0));
+        Assert.assertEquals(message2, publishedBatches.get(1).get(1));
+        Assert.assertFalse(future1.isDone());
+        publishFutures.get(1).set(fakeSendReceipts(publishedBatches.get(1)));
+        Assert.assertEquals(message1.getMessageId(), future1.get().getMessageId());
+        Assert.assertEquals(message2.getMessageId(), future2.get().getMessageId());
+        Assert.assertEquals(0, pipeline.getInFlightGroups());
+    }
+
+    @Test
+    public void testDifferentMessageGroupsInParallel() throws Exception {
+        final OrderedSendPipeline pipeline = new OrderedSendPipeline(mockProducer(), 16, 1024);
+        pipeline.append(fakeFifoMessage("group0"));
+        pipeline.append(fakeFifoMessage("group1"));
+        Assert.assertEquals(2, publishedBatches.size());
+        Assert.assertEquals(2, pipeline.getInFlightGroups());
+    }
+
+    @Test
+    public void testBatchBoundedByMessageCount() throws Exception {
+        final OrderedSendPipeline pipeline = new OrderedSendPipeline(mockProducer(), 2, 1024);
+        for (int i = 0; i < 4; i++) {
+            pipeline.append(fakeFifoMessage("group0"));
+        }
+        publishFutures.get(0).set(fakeSendReceipts(publishedBatches.get(0)));
+        Assert.assertEquals(2, publishedBatches.get(1).size());
+        publishFutures.get(1).set(fakeSendReceipts(publishedBatches.get(1)));
+        Assert.assertEquals(1, publishedBatches.get(2).size());
+    }
+
+    @Test
+    public void testFailureFailsFollowing() throws Exception {
+        final OrderedSendPipeline pipeline = new OrderedSendPipeline(mockProducer(), 16, 1024);
+        final ListenableFuture<SendReceiptImpl> future0 = pipeline.append(fakeFifoMessage("group0"));
+        final ListenableFuture<SendReceiptImpl> future1 = pipeline.append(fakeFifoMessage("group0"));
+        final ListenableFuture<SendReceiptImpl> future2 = pipeline.append(fakeFifoMessage("group1"));
+        final Exception exception = new Exception();
+        publishFutures.get(0).setException(exception);
+        ExecutionException e = Assert.assertThrows(ExecutionException.class, future0::get);
+        Assert.assertSame(exception, e.getCause());
+        // The following message of the same message group is failed rather than sent.
+        e = Assert.assertThrows(ExecutionException.class, future1::get);
+        Assert.assertSame(exception, e.getCause());
+        Assert.assertEquals(2, publishedBatches.size());
+        Assert.assertEquals(1, pipeline.getInFlightGroups());
+        Assert.assertFalse(future2.isDone());
+        // The message group is sent again once new message is appended.
+        final PublishingMessageImpl message3 = fakeFifoMessage("group0");
+        final ListenableFuture<SendReceiptImpl> future3 = pipeline.append(message3);
+        Assert.assertEquals(3, publishedBatches.size());
+        publishFutures.get(2).set(fakeSendReceipts(publishedBatches.get(2)));
+        Assert.assertEquals(message3.getMessageId(), future3.get().getMessageId());
+    }
+}
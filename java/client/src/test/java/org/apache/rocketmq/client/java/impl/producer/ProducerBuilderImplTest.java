@@ -17,8 +17,11 @@
 
 package org.apache.rocketmq.client.java.impl.producer;
 
+import java.time.Duration;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.producer.BackpressurePolicy;
+import org.apache.rocketmq.client.apis.producer.CompressionType;
 import org.apache.rocketmq.client.apis.producer.TransactionResolution;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -76,6 +79,129 @@ public class ProducerBuilderImplTest {
         builder.setTransactionChecker(messageView -> TransactionResolution.COMMIT);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNegativeBatchLingerDuration() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setBatchLingerDuration(Duration.ofMillis(-1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNonPositiveMaxBatchMessageCount() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setMaxBatchMessageCount(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNonPositiveMaxBatchSizeInBytes() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setMaxBatchSizeInBytes(0);
+    }
+
+    @Test
+    public void testSetAutoBatching() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setBatchLingerDuration(Duration.ofMillis(5)).setMaxBatchMessageCount(64)
+            .setMaxBatchSizeInBytes(64 * 1024);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetInvalidCompressionLevel() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setCompression(CompressionType.GZIP, 10, 1024);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNegativeCompressionThreshold() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setCompression(CompressionType.GZIP, 5, -1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSetNullTopicCompression() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setCompression(null, CompressionType.GZIP, 5, 1024);
+    }
+
+    @Test
+    public void testSetCompression() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setCompression(CompressionType.GZIP, 5, 4 * 1024).setCompression("topicA", CompressionType.NONE,
+            0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNonPositiveMaxInFlightRequests() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setMaxInFlightRequests(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNonPositiveMaxInFlightSizeInBytes() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setMaxInFlightSizeInBytes(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSetNullBackpressurePolicy() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setBackpressurePolicy(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNegativeBackpressureTimeout() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setBackpressureTimeout(Duration.ofMillis(-1));
+    }
+
+    @Test
+    public void testSetInFlightWindow() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setMaxInFlightRequests(1024).setMaxInFlightSizeInBytes(64 * 1024 * 1024)
+            .setBackpressurePolicy(BackpressurePolicy.TIMEOUT).setBackpressureTimeout(Duration.ofSeconds(1));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSetNullQueueSelectionStrategy() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setQueueSelectionStrategy(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetRetryBudgetWithNonPositiveRatio() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setRetryBudget(0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetRetryBudgetWithRatioExceeded() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setRetryBudget(1.5, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetRetryBudgetWithNonPositiveMaxTokens() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setRetryBudget(0.1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetCircuitBreakerWithMinRequestsExceeded() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setCircuitBreaker(10, 11, 0.5, Duration.ofMillis(500), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetCircuitBreakerWithFailureRateExceeded() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setCircuitBreaker(10, 3, 1.5, Duration.ofMillis(500), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetCircuitBreakerWithNonPositiveHalfOpenTrials() {
+        final ProducerBuilderImpl builder = new ProducerBuilderImpl();
+        builder.setCircuitBreaker(10, 3, 0.5, Duration.ofMillis(500), 0);
+    }
+
     @Test(expected = NullPointerException.class)
     public void testBuildWithoutClientConfiguration() {
         final ProducerBuilderImpl builder = new ProducerBuilderImpl();
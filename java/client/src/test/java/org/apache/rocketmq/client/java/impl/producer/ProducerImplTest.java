@@ -19,6 +19,8 @@ package org.apache.rocketmq.client.java.impl.producer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -29,21 +31,41 @@ import apache.rocketmq.v2.MessageQueue;
 import apache.rocketmq.v2.MessageType;
 import apache.rocketmq.v2.Permission;
 import apache.rocketmq.v2.RecallMessageResponse;
+import apache.rocketmq.v2.RecoverOrphanedTransactionCommand;
 import apache.rocketmq.v2.Resource;
+import apache.rocketmq.v2.SendMessageRequest;
+import apache.rocketmq.v2.SendMessageResponse;
+import apache.rocketmq.v2.SendResultEntry;
 import apache.rocketmq.v2.Status;
+import apache.rocketmq.v2.TransactionSource;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.Service;
+import com.google.common.util.concurrent.SettableFuture;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.apache.commons.lang3.RandomUtils;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.message.Message;
+import org.apache.rocketmq.client.apis.message.MessageId;
+import org.apache.rocketmq.client.apis.producer.BackpressurePolicy;
+import org.apache.rocketmq.client.apis.producer.BatchSendException;
+import org.apache.rocketmq.client.apis.producer.SendReceipt;
+import org.apache.rocketmq.client.apis.producer.TransactionResolution;
+import org.apache.rocketmq.client.java.exception.InFlightWindowFullException;
 import org.apache.rocketmq.client.java.exception.InternalErrorException;
 import org.apache.rocketmq.client.java.impl.ClientManagerImpl;
+import org.apache.rocketmq.client.java.message.GeneralMessage;
+import org.apache.rocketmq.client.java.message.MessageBuilderImpl;
 import org.apache.rocketmq.client.java.message.MessageIdCodec;
+import org.apache.rocketmq.client.java.message.PublishingMessageImpl;
 import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
 import org.apache.rocketmq.client.java.route.TopicRouteData;
@@ -52,8 +74,10 @@ import org.apache.rocketmq.client.java.tool.TestBase;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ProducerImplTest extends TestBase {
@@ -62,18 +86,33 @@ public class ProducerImplTest extends TestBase {
 
     @SuppressWarnings("SameParameterValue")
     private ProducerImpl createProducerWithTopic(String topic) {
+        return createProducerWithTopic(topic, 1);
+    }
+
+    private TopicRouteData fakeTopicRouteData(String topic) {
         List<MessageQueue> messageQueueList = new ArrayList<>();
         MessageQueue mq = MessageQueue.newBuilder().setTopic(Resource.newBuilder().setName(topic))
             .setPermission(Permission.READ_WRITE)
             .addAcceptMessageTypes(MessageType.NORMAL)
+            .addAcceptMessageTypes(MessageType.FIFO)
             .setBroker(Broker.newBuilder().setName(FAKE_BROKER_NAME_0).setEndpoints(fakePbEndpoints0()))
             .setId(0).build();
         messageQueueList.add(mq);
-        final TopicRouteData topicRouteData = new TopicRouteData(messageQueueList);
+        return new TopicRouteData(messageQueueList);
+    }
+
+    @SuppressWarnings("SameParameterValue")
+    private ProducerImpl createProducerWithTopic(String topic, int maxAttempts) {
+        return createProducerWithTopic(topic, maxAttempts, new ProducerOptions());
+    }
+
+    private ProducerImpl createProducerWithTopic(String topic, int maxAttempts, ProducerOptions options) {
+        final TopicRouteData topicRouteData = fakeTopicRouteData(topic);
         final PublishingLoadBalancer publishingLoadBalancer = new PublishingLoadBalancer(topicRouteData);
         final Set<String> set = new HashSet<>();
         set.add(topic);
-        final ProducerImpl producer = Mockito.spy(new ProducerImpl(clientConfiguration, set, 1, null));
+        final ProducerImpl producer = Mockito.spy(new ProducerImpl(clientConfiguration, set, maxAttempts, null,
+            options));
         producer.publishingRouteDataCache.put(topic, publishingLoadBalancer);
         final Service mockedService = mock(Service.class);
         Mockito.doReturn(mockedService).when(producer).startAsync();
@@ -118,6 +157,294 @@ public class ProducerImplTest extends TestBase {
         producer.close();
     }
 
+    /**
+     * Mock the response of {@link SendMessageRequest}, entries whose index is included by {@code failedIndexes}
+     * would be failed.
+     */
+    private Answer<RpcFuture<SendMessageRequest, SendMessageResponse>> sendMessageAnswer(Set<Integer> failedIndexes) {
+        return invocation -> {
+            final SendMessageRequest request = invocation.getArgument(1);
+            return new RpcFuture<>(fakeRpcContext(), request,
+                Futures.immediateFuture(fakeSendMessageResponse(request, failedIndexes)));
+        };
+    }
+
+    private SendMessageResponse fakeSendMessageResponse(SendMessageRequest request, Set<Integer> failedIndexes) {
+        final SendMessageResponse.Builder builder = SendMessageResponse.newBuilder();
+        boolean failed = false;
+        for (int i = 0; i < request.getMessagesCount(); i++) {
+            final String messageId = request.getMessages(i).getSystemProperties().getMessageId();
+            final Code code = failedIndexes.contains(i) ? Code.INTERNAL_ERROR : Code.OK;
+            failed |= Code.OK != code;
+            builder.addEntries(SendResultEntry.newBuilder().setMessageId(messageId).setOffset(i)
+                .setStatus(Status.newBuilder().setCode(code)));
+        }
+        builder.setStatus(Status.newBuilder().setCode(failed ? Code.MULTIPLE_RESULTS : Code.OK));
+        return builder.build();
+    }
+
+    @Test
+    public void testSendFailureWithRetryBudgetExhausted() throws ClientException {
+        final RetryBudget retryBudget = new RetryBudget(0.1, 1);
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0, 3,
+            new ProducerOptions().setRetryBudget(retryBudget));
+        final Exception exception = new IllegalArgumentException();
+        Mockito.doReturn(Futures.immediateFailedFuture(exception))
+            .when(producer).send0(any(Endpoints.class), anyList(), any(MessageQueueImpl.class));
+        Assert.assertThrows(IllegalArgumentException.class, () -> producer.send(fakeMessage(FAKE_TOPIC_0)));
+        // Only one token for retry, the second retry is refused.
+        verify(producer, times(2)).send0(any(Endpoints.class), anyList(), any(MessageQueueImpl.class));
+        Assert.assertEquals(1, retryBudget.getExhaustedCount());
+        producer.close();
+    }
+
+    @Test
+    public void testEndTransactionAsyncAfterChecking() throws Exception {
+        final Set<String> set = Collections.singleton(FAKE_TOPIC_0);
+        final ProducerImpl producer = Mockito.spy(new ProducerImpl(clientConfiguration, set, 1,
+            messageView -> TransactionResolution.COMMIT));
+        // The transaction is never ended, which should not block the following checks.
+        Mockito.doReturn(SettableFuture.create()).when(producer).endTransactionAsync(any(Endpoints.class),
+            any(GeneralMessage.class), any(MessageId.class), anyString(), any(TransactionResolution.class),
+            any(TransactionSource.class));
+        final PublishingSettings settings = (PublishingSettings) producer.getSettings();
+        for (int i = 0; i < 2; i++) {
+            final apache.rocketmq.v2.Message message = new PublishingMessageImpl(fakeMessage(FAKE_TOPIC_0),
+                settings, true).toProtobuf(FAKE_NAMESPACE, fakeMessageQueueImpl0());
+            final RecoverOrphanedTransactionCommand command = RecoverOrphanedTransactionCommand.newBuilder()
+                .setTransactionId(FAKE_TRANSACTION_ID + i).setMessage(message).build();
+            producer.onRecoverOrphanedTransactionCommand(fakeEndpoints(), command);
+        }
+        // The checker has a single thread.
+        verify(producer, Mockito.timeout(3000).times(2)).endTransactionAsync(any(Endpoints.class),
+            any(GeneralMessage.class), any(MessageId.class), anyString(), eq(TransactionResolution.COMMIT),
+            eq(TransactionSource.SOURCE_SERVER_CHECK));
+        producer.close();
+    }
+
+    @Test
+    public void testJitter() {
+        Assert.assertEquals(Duration.ZERO, ProducerImpl.jitter(Duration.ZERO));
+        final Duration delay = Duration.ofMillis(100);
+        for (int i = 0; i < 100; i++) {
+            final Duration jittered = ProducerImpl.jitter(delay);
+            Assert.assertTrue(jittered.compareTo(Duration.ofMillis(50)) >= 0);
+            Assert.assertTrue(jittered.compareTo(delay) <= 0);
+        }
+    }
+
+    @Test
+    public void testSendBatch() throws ClientException {
+        final ClientManagerImpl clientManager = mock(ClientManagerImpl.class);
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0);
+        Mockito.doReturn(clientManager).when(producer).getClientManager();
+        Mockito.doAnswer(sendMessageAnswer(Collections.emptySet())).when(clientManager)
+            .sendMessage(any(), any(), any());
+        final List<Message> messages = new ArrayList<>();
+        messages.add(fakeMessage(FAKE_TOPIC_0));
+        messages.add(fakeMessage(FAKE_TOPIC_0));
+        final List<SendReceipt> receipts = producer.send(messages);
+        Assert.assertEquals(2, receipts.size());
+        verify(clientManager, times(1)).sendMessage(any(), any(), any());
+        producer.close();
+    }
+
+    @Test
+    public void testPublishingTemplateCache() throws ClientException {
+        final ClientManagerImpl clientManager = mock(ClientManagerImpl.class);
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0);
+        Mockito.doReturn(clientManager).when(producer).getClientManager();
+        Mockito.doAnswer(sendMessageAnswer(Collections.emptySet())).when(clientManager)
+            .sendMessage(any(), any(), any());
+        producer.send(fakeMessage(FAKE_TOPIC_0));
+        producer.send(fakeMessage(FAKE_TOPIC_0));
+        final ArgumentCaptor<SendMessageRequest> captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(clientManager, times(2)).sendMessage(any(), captor.capture(), any());
+        Assert.assertEquals(1, producer.publishingTemplateCache.size());
+        final List<SendMessageRequest> requests = captor.getAllValues();
+        Assert.assertSame(requests.get(0).getMessages(0).getTopic(), requests.get(1).getMessages(0).getTopic());
+        producer.onTopicRouteDataUpdate0(FAKE_TOPIC_0, fakeTopicRouteData(FAKE_TOPIC_0));
+        Assert.assertTrue(producer.publishingTemplateCache.isEmpty());
+        producer.close();
+    }
+
+    @Test
+    public void testHalfOpenTrialReleasedOnMessageTypeMismatch() throws Exception {
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0, 1,
+            new ProducerOptions().setCircuitBreaker(1, 1, 0.5, Duration.ZERO, 1));
+        final Endpoints endpoints = fakeEndpoints();
+        producer.circuitBreaker.onFailure(endpoints, new RuntimeException());
+        // The delay message is not accepted by the topic.
+        final Message message = new MessageBuilderImpl().setTopic(FAKE_TOPIC_0).setBody(RandomUtils.nextBytes(1))
+            .setDeliveryTimestamp(System.currentTimeMillis() + 1000).build();
+        try {
+            producer.sendAsync(message).get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        Assert.assertTrue(producer.circuitBreaker.getUnavailableEndpoints().isEmpty());
+        Assert.assertTrue(producer.circuitBreaker.tryAcquire(endpoints));
+        producer.close();
+    }
+
+    @Test
+    public void testSendAsyncWithInFlightWindowFull() throws Exception {
+        final InFlightWindow inFlightWindow = new InFlightWindow(1, Integer.MAX_VALUE, BackpressurePolicy.FAIL_FAST,
+            Duration.ZERO);
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0, 1,
+            new ProducerOptions().setInFlightWindow(inFlightWindow));
+        final SettableFuture<List<SendReceiptImpl>> future = SettableFuture.create();
+        Mockito.doReturn(future).when(producer).publish(anyList());
+        final CompletableFuture<SendReceipt> future0 = producer.sendAsync(fakeMessage(FAKE_TOPIC_0));
+        Assert.assertEquals(1, inFlightWindow.getInFlightRequests());
+        final CompletableFuture<SendReceipt> future1 = producer.sendAsync(fakeMessage(FAKE_TOPIC_0));
+        try {
+            future1.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof InFlightWindowFullException);
+        }
+        final SendReceiptImpl sendReceipt = fakeSendReceiptImpl(fakeMessageQueueImpl0());
+        future.set(Collections.singletonList(sendReceipt));
+        Assert.assertSame(sendReceipt, future0.get());
+        Assert.assertEquals(0, inFlightWindow.getInFlightRequests());
+        Assert.assertEquals(0, inFlightWindow.getInFlightBytes());
+        producer.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSendEmptyBatch() throws ClientException {
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0);
+        producer.send(Collections.<Message>emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSendBatchWithDifferentTopics() throws ClientException {
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0);
+        final List<Message> messages = new ArrayList<>();
+        messages.add(fakeMessage(FAKE_TOPIC_0));
+        messages.add(fakeMessage(FAKE_TOPIC_1));
+        producer.send(messages);
+    }
+
+    @Test
+    public void testSendBatchWithPartialFailure() {
+        final ClientManagerImpl clientManager = mock(ClientManagerImpl.class);
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0);
+        Mockito.doReturn(clientManager).when(producer).getClientManager();
+        Mockito.doAnswer(sendMessageAnswer(Collections.singleton(1))).when(clientManager)
+            .sendMessage(any(), any(), any());
+        final List<Message> messages = new ArrayList<>();
+        messages.add(fakeMessage(FAKE_TOPIC_0));
+        messages.add(fakeMessage(FAKE_TOPIC_0));
+        messages.add(fakeMessage(FAKE_TOPIC_0));
+        final BatchSendException e = Assert.assertThrows(BatchSendException.class, () -> producer.send(messages));
+        final List<SendReceipt> receipts = e.getSendReceipts();
+        Assert.assertEquals(3, receipts.size());
+        Assert.assertNotNull(receipts.get(0));
+        Assert.assertNull(receipts.get(1));
+        Assert.assertNotNull(receipts.get(2));
+        Assert.assertEquals(Collections.singleton(1), e.getCauses().keySet());
+        Assert.assertTrue(e.getCauses().get(1) instanceof InternalErrorException);
+        producer.close();
+    }
+
+    @Test
+    public void testSendBatchResendFailedPartOnly() throws ClientException {
+        final ClientManagerImpl clientManager = mock(ClientManagerImpl.class);
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0, 2);
+        Mockito.doReturn(clientManager).when(producer).getClientManager();
+        Mockito.doAnswer(sendMessageAnswer(Collections.singleton(0)))
+            .doAnswer(sendMessageAnswer(Collections.emptySet()))
+            .when(clientManager).sendMessage(any(), any(), any());
+        final List<Message> messages = new ArrayList<>();
+        messages.add(fakeMessage(FAKE_TOPIC_0));
+        messages.add(fakeMessage(FAKE_TOPIC_0));
+        final List<SendReceipt> receipts = producer.send(messages);
+        Assert.assertEquals(2, receipts.size());
+        final ArgumentCaptor<SendMessageRequest> captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(clientManager, times(2)).sendMessage(any(), captor.capture(), any());
+        final List<SendMessageRequest> requests = captor.getAllValues();
+        Assert.assertEquals(2, requests.get(0).getMessagesCount());
+        Assert.assertEquals(1, requests.get(1).getMessagesCount());
+        final String resentMessageId = requests.get(1).getMessages(0).getSystemProperties().getMessageId();
+        Assert.assertEquals(requests.get(0).getMessages(0).getSystemProperties().getMessageId(), resentMessageId);
+        Assert.assertEquals(resentMessageId, receipts.get(0).getMessageId().toString());
+        Assert.assertEquals(requests.get(0).getMessages(1).getSystemProperties().getMessageId(),
+            receipts.get(1).getMessageId().toString());
+        producer.close();
+    }
+
+    @Test
+    public void testSendFifoBatchResendAsWhole() throws ClientException {
+        final ClientManagerImpl clientManager = mock(ClientManagerImpl.class);
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0, 2);
+        Mockito.doReturn(clientManager).when(producer).getClientManager();
+        Mockito.doAnswer(sendMessageAnswer(Collections.singleton(1)))
+            .doAnswer(sendMessageAnswer(Collections.emptySet()))
+            .when(clientManager).sendMessage(any(), any(), any());
+        final List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            messages.add(new MessageBuilderImpl().setTopic(FAKE_TOPIC_0).setBody(new byte[1])
+                .setMessageGroup("group0").build());
+        }
+        final List<SendReceipt> receipts = producer.send(messages);
+        Assert.assertEquals(3, receipts.size());
+        final ArgumentCaptor<SendMessageRequest> captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(clientManager, times(2)).sendMessage(any(), captor.capture(), any());
+        final List<SendMessageRequest> requests = captor.getAllValues();
+        // The whole batch is resent in the original order rather than the failed message only.
+        Assert.assertEquals(3, requests.get(1).getMessagesCount());
+        for (int i = 0; i < 3; i++) {
+            final String messageId = requests.get(0).getMessages(i).getSystemProperties().getMessageId();
+            Assert.assertEquals(messageId, requests.get(1).getMessages(i).getSystemProperties().getMessageId());
+            Assert.assertEquals(messageId, receipts.get(i).getMessageId().toString());
+        }
+        producer.close();
+    }
+
+    @Test
+    public void testOrderedSendPartialFailure() throws Exception {
+        final ClientManagerImpl clientManager = mock(ClientManagerImpl.class);
+        final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0, 2);
+        final OrderedSendPipeline pipeline = new OrderedSendPipeline(producer, 3, 1024);
+        Mockito.doReturn(clientManager).when(producer).getClientManager();
+        final SettableFuture<SendMessageResponse> responseFuture0 = SettableFuture.create();
+        Mockito.doAnswer(invocation -> new RpcFuture<>(fakeRpcContext(), invocation.getArgument(1), responseFuture0))
+            .doAnswer(sendMessageAnswer(Collections.singleton(1)))
+            .when(clientManager).sendMessage(any(), any(), any());
+        final List<ListenableFuture<SendReceiptImpl>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(pipeline.append(new PublishingMessageImpl(new MessageBuilderImpl().setTopic(FAKE_TOPIC_0)
+                .setBody(new byte[1]).setMessageGroup("group0").build(), producer.publishingSettings, false)));
+        }
+        final ArgumentCaptor<SendMessageRequest> captor0 = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(clientManager, times(1)).sendMessage(any(), captor0.capture(), any());
+        // Messages appended in the meantime are coalesced into the following batches.
+        responseFuture0.set(fakeSendMessageResponse(captor0.getValue(), Collections.emptySet()));
+        // The last message is failed rather than sent since the batch ahead of it is failed finally.
+        Assert.assertThrows(ExecutionException.class, futures.get(4)::get);
+        final ArgumentCaptor<SendMessageRequest> captor1 = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(clientManager, times(3)).sendMessage(any(), captor1.capture(), any());
+        final List<SendMessageRequest> requests = captor1.getAllValues();
+        Assert.assertEquals(1, requests.get(0).getMessagesCount());
+        Assert.assertEquals(requests.get(0).getMessages(0).getSystemProperties().getMessageId(),
+            futures.get(0).get().getMessageId().toString());
+        // The partially failed batch is resent as a whole in the original order.
+        Assert.assertEquals(3, requests.get(1).getMessagesCount());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(requests.get(1).getMessages(i).getSystemProperties().getMessageId(),
+                requests.get(2).getMessages(i).getSystemProperties().getMessageId());
+        }
+        Assert.assertEquals(requests.get(1).getMessages(0).getSystemProperties().getMessageId(),
+            futures.get(1).get().getMessageId().toString());
+        Assert.assertThrows(ExecutionException.class, futures.get(2)::get);
+        Assert.assertEquals(requests.get(1).getMessages(2).getSystemProperties().getMessageId(),
+            futures.get(3).get().getMessageId().toString());
+        producer.close();
+    }
+
     @Test
     public void testRecall() throws Exception {
         final ProducerImpl producer = createProducerWithTopic(FAKE_TOPIC_0);
@@ -18,10 +18,16 @@
 package org.apache.rocketmq.client.java.impl.producer;
 
 import apache.rocketmq.v2.MessageQueue;
+import com.google.common.hash.Hashing;
+import com.google.common.math.LongMath;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.rocketmq.client.apis.producer.MessageGroupQueueSelectionStrategy;
 import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
 import org.apache.rocketmq.client.java.route.TopicRouteData;
@@ -70,4 +76,125 @@ public class PublishingLoadBalancerTest extends TestBase {
         final List<MessageQueueImpl> result = publishingLoadBalancer.takeMessageQueues(isolated, 1);
         Assert.assertEquals(result, messageQueueImpls);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testTakeMessageQueuesByLatency() {
+        List<MessageQueue> mqs = new ArrayList<>();
+        mqs.add(fakePbMessageQueue0());
+        mqs.add(fakePbMessageQueue1());
+        final PublishingLoadBalancer publishingLoadBalancer = new PublishingLoadBalancer(new TopicRouteData(mqs));
+        final MessageQueueImpl fastMessageQueue = new MessageQueueImpl(fakePbMessageQueue0());
+        final MessageQueueImpl slowMessageQueue = new MessageQueueImpl(fakePbMessageQueue1());
+        final PublishingLatencyStats stats = new PublishingLatencyStats();
+        stats.record(fastMessageQueue.getBroker().getEndpoints(), TimeUnit.MILLISECONDS.toNanos(1), true);
+        stats.record(slowMessageQueue.getBroker().getEndpoints(), TimeUnit.MILLISECONDS.toNanos(100), true);
+        for (int i = 0; i < 16; i++) {
+            final List<MessageQueueImpl> result = publishingLoadBalancer.takeMessageQueues(new HashSet<>(), 2, stats);
+            Assert.assertEquals(2, result.size());
+            Assert.assertEquals(fastMessageQueue, result.get(0));
+            Assert.assertEquals(slowMessageQueue, result.get(1));
+        }
+        final List<MessageQueueImpl> result = publishingLoadBalancer.takeMessageQueues(new HashSet<>(), 1, stats);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(fastMessageQueue, result.get(0));
+    }
+
+    @Test
+    public void testTakeMessageQueuesByErrorRate() {
+        List<MessageQueue> mqs = new ArrayList<>();
+        mqs.add(fakePbMessageQueue0());
+        mqs.add(fakePbMessageQueue1());
+        final PublishingLoadBalancer publishingLoadBalancer = new PublishingLoadBalancer(new TopicRouteData(mqs));
+        final MessageQueueImpl failingMessageQueue = new MessageQueueImpl(fakePbMessageQueue0());
+        final MessageQueueImpl healthyMessageQueue = new MessageQueueImpl(fakePbMessageQueue1());
+        final PublishingLatencyStats stats = new PublishingLatencyStats();
+        stats.record(failingMessageQueue.getBroker().getEndpoints(), TimeUnit.MILLISECONDS.toNanos(1), false);
+        stats.record(healthyMessageQueue.getBroker().getEndpoints(), TimeUnit.MILLISECONDS.toNanos(5), true);
+        for (int i = 0; i < 16; i++) {
+            final List<MessageQueueImpl> result = publishingLoadBalancer.takeMessageQueues(new HashSet<>(), 1, stats);
+            Assert.assertEquals(healthyMessageQueue, result.get(0));
+        }
+    }
+
+    private List<MessageQueue> fakePbMessageQueues(int brokerCount, int queueCountPerBroker) {
+        List<MessageQueue> mqs = new ArrayList<>();
+        for (int i = 0; i < brokerCount; i++) {
+            for (int j = 0; j < queueCountPerBroker; j++) {
+                mqs.add(fakePbMessageQueue0().toBuilder().setId(j)
+                    .setBroker(fakePbBroker0().toBuilder().setName("broker" + i)).build());
+            }
+        }
+        return mqs;
+    }
+
+    private int countRemappedMessageGroups(List<MessageQueue> before, List<MessageQueue> after,
+        MessageGroupQueueSelectionStrategy strategy, int groupCount) {
+        final PublishingLoadBalancer loadBalancer0 = new PublishingLoadBalancer(new TopicRouteData(before));
+        final PublishingLoadBalancer loadBalancer1 = new PublishingLoadBalancer(new TopicRouteData(after));
+        int remapped = 0;
+        for (int i = 0; i < groupCount; i++) {
+            final String messageGroup = "group" + i;
+            if (!loadBalancer0.takeMessageQueueByMessageGroup(messageGroup, strategy)
+                .equals(loadBalancer1.takeMessageQueueByMessageGroup(messageGroup, strategy))) {
+                remapped++;
+            }
+        }
+        return remapped;
+    }
+
+    @Test
+    public void testTakeMessageQueueByMessageGroupWithHashModulo() {
+        final List<MessageQueue> mqs = fakePbMessageQueues(2, 4);
+        final PublishingLoadBalancer publishingLoadBalancer = new PublishingLoadBalancer(new TopicRouteData(mqs));
+        for (int i = 0; i < 1000; i++) {
+            final String messageGroup = "group" + i;
+            // Keep the same mapping as before.
+            final long hashCode = Hashing.sipHash24().hashBytes(messageGroup.getBytes(StandardCharsets.UTF_8))
+                .asLong();
+            final MessageQueueImpl expected = new MessageQueueImpl(mqs.get(LongMath.mod(hashCode, mqs.size())));
+            Assert.assertEquals(expected, publishingLoadBalancer.takeMessageQueueByMessageGroup(messageGroup));
+            Assert.assertEquals(expected, publishingLoadBalancer.takeMessageQueueByMessageGroup(messageGroup,
+                MessageGroupQueueSelectionStrategy.HASH_MODULO));
+        }
+    }
+
+    @Test
+    public void testTakeMessageQueueByMessageGroupWithRendezvousHash() {
+        final List<MessageQueue> mqs = fakePbMessageQueues(2, 4);
+        final PublishingLoadBalancer publishingLoadBalancer = new PublishingLoadBalancer(new TopicRouteData(mqs));
+        final List<MessageQueue> shuffled = new ArrayList<>(mqs);
+        Collections.reverse(shuffled);
+        final PublishingLoadBalancer shuffledLoadBalancer = new PublishingLoadBalancer(new TopicRouteData(shuffled));
+        final Set<MessageQueueImpl> taken = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            final String messageGroup = "group" + i;
+            final MessageQueueImpl mq = publishingLoadBalancer.takeMessageQueueByMessageGroup(messageGroup,
+                MessageGroupQueueSelectionStrategy.RENDEZVOUS_HASH);
+            // Mapping is independent of the order of message queues.
+            Assert.assertEquals(mq, shuffledLoadBalancer.takeMessageQueueByMessageGroup(messageGroup,
+                MessageGroupQueueSelectionStrategy.RENDEZVOUS_HASH));
+            taken.add(mq);
+        }
+        Assert.assertEquals(mqs.size(), taken.size());
+    }
+
+    @Test
+    public void testRemapRatioOfMessageGroups() {
+        final int groupCount = 10000;
+        final List<MessageQueue> before = fakePbMessageQueues(4, 4);
+        final List<MessageQueue> added = fakePbMessageQueues(5, 4);
+        final List<MessageQueue> removed = new ArrayList<>(before);
+        removed.remove(5);
+        // Ideally 4/20 of message groups are moved to the new broker, 1/16 are moved from the removed queue.
+        int remapped = countRemappedMessageGroups(before, added, MessageGroupQueueSelectionStrategy.RENDEZVOUS_HASH,
+            groupCount);
+        Assert.assertTrue(remapped < groupCount * 0.25);
+        remapped = countRemappedMessageGroups(before, removed, MessageGroupQueueSelectionStrategy.RENDEZVOUS_HASH,
+            groupCount);
+        Assert.assertTrue(remapped < groupCount * 0.1);
+        // Most of message groups are moved for hash modulo.
+        remapped = countRemappedMessageGroups(before, added, MessageGroupQueueSelectionStrategy.HASH_MODULO,
+            groupCount);
+        Assert.assertTrue(remapped > groupCount * 0.5);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void testExhausted() {
+        final RetryBudget budget = new RetryBudget(0.5, 2);
+        Assert.assertEquals(2, budget.getTokens(), 0.0001);
+        Assert.assertTrue(budget.tryAcquire());
+        Assert.assertTrue(budget.tryAcquire());
+        Assert.assertFalse(budget.tryAcquire());
+        Assert.assertEquals(1, budget.getExhaustedCount());
+    }
+
+    @Test
+    public void testReplenishedBySuccess() {
+        final RetryBudget budget = new RetryBudget(0.5, 1);
+        Assert.assertTrue(budget.tryAcquire());
+        budget.onSuccess();
+        // Half a token is not enough for one retry.
+        Assert.assertFalse(budget.tryAcquire());
+        budget.onSuccess();
+        Assert.assertTrue(budget.tryAcquire());
+        Assert.assertEquals(1, budget.getExhaustedCount());
+    }
+
+    @Test
+    public void testCapacity() {
+        final RetryBudget budget = new RetryBudget(1, 2);
+        for (int i = 0; i < 10; i++) {
+            budget.onSuccess();
+        }
+        Assert.assertEquals(2, budget.getTokens(), 0.0001);
+    }
+}
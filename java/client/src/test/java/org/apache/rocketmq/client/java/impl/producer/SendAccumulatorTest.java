@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.SendMessageRequest;
+import apache.rocketmq.v2.SendMessageResponse;
+import apache.rocketmq.v2.SendResultEntry;
+import apache.rocketmq.v2.Status;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.producer.BatchSendException;
+import org.apache.rocketmq.client.apis.producer.SendReceipt;
+import org.apache.rocketmq.client.java.message.MessageBuilderImpl;
+import org.apache.rocketmq.client.java.message.PublishingMessageImpl;
+import org.apache.rocketmq.client.java.rpc.RpcFuture;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class SendAccumulatorTest extends TestBase {
+
+    private PublishingMessageImpl fakePublishingMessage(int bodySize) throws Exception {
+        return new PublishingMessageImpl(new MessageBuilderImpl().setTopic(FAKE_TOPIC_0)
+            .setBody(new byte[bodySize]).build(), fakeProducerSettings(), false);
+    }
+
+    private SendReceiptImpl fakeSendReceiptImpl(PublishingMessageImpl message) throws ClientException {
+        final Status status = Status.newBuilder().setCode(Code.OK).build();
+        final SendResultEntry entry = SendResultEntry.newBuilder().setStatus(status)
+            .setMessageId(message.getMessageId().toString()).build();
+        final SendMessageResponse response = SendMessageResponse.newBuilder().setStatus(status).addEntries(entry)
+            .build();
+        final RpcFuture<SendMessageRequest, SendMessageResponse> future =
+            new RpcFuture<>(fakeRpcContext(), null, Futures.immediateFuture(response));
+        return SendReceiptImpl.processResponseInvocation(fakeMessageQueueImpl0(), response, future).get(0);
+    }
+
+    private ProducerImpl mockProducer() {
+        final ProducerImpl producer = mock(ProducerImpl.class);
+        Mockito.doReturn(SCHEDULER).when(producer).getScheduler();
+        Mockito.doAnswer(invocation -> {
+            final List<PublishingMessageImpl> messages = invocation.getArgument(0);
+            List<SendReceiptImpl> receipts = new ArrayList<>();
+            // Reverse the order of receipts on purpose.
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                receipts.add(fakeSendReceiptImpl(messages.get(i)));
+            }
+            return Futures.immediateFuture(receipts);
+        }).when(producer).publish(anyList());
+        return producer;
+    }
+
+    @Test
+    public void testFlushOnMaxMessageCount() throws Exception {
+        final ProducerImpl producer = mockProducer();
+        final SendAccumulator accumulator = new SendAccumulator(producer, Duration.ofHours(1), 2, 1024);
+        final PublishingMessageImpl message0 = fakePublishingMessage(1);
+        final PublishingMessageImpl message1 = fakePublishingMessage(1);
+        final ListenableFuture<SendReceiptImpl> future0 = accumulator.append(message0);
+        verify(producer, never()).publish(anyList());
+        final ListenableFuture<SendReceiptImpl> future1 = accumulator.append(message1);
+        verify(producer, times(1)).publish(anyList());
+        Assert.assertEquals(message0.getMessageId(), future0.get().getMessageId());
+        Assert.assertEquals(message1.getMessageId(), future1.get().getMessageId());
+    }
+
+    @Test
+    public void testFlushOnMaxBytes() throws Exception {
+        final ProducerImpl producer = mockProducer();
+        final SendAccumulator accumulator = new SendAccumulator(producer, Duration.ofHours(1), 16, 8);
+        accumulator.append(fakePublishingMessage(5));
+        verify(producer, never()).publish(anyList());
+        // Exceeds the bytes threshold, flush the previous batch ahead of time.
+        accumulator.append(fakePublishingMessage(5));
+        verify(producer, times(1)).publish(anyList());
+        // Reaches the bytes threshold, flush the current batch right now.
+        accumulator.append(fakePublishingMessage(3));
+        verify(producer, times(2)).publish(anyList());
+    }
+
+    @Test
+    public void testFlushOnLinger() throws Exception {
+        final ProducerImpl producer = mockProducer();
+        final SendAccumulator accumulator = new SendAccumulator(producer, Duration.ofMillis(50), 16, 1024);
+        final ListenableFuture<SendReceiptImpl> future0 = accumulator.append(fakePublishingMessage(1));
+        final ListenableFuture<SendReceiptImpl> future1 = accumulator.append(fakePublishingMessage(1));
+        await().atMost(Duration.ofSeconds(3)).until(() -> future0.isDone() && future1.isDone());
+        final ArgumentCaptor<List<PublishingMessageImpl>> captor = ArgumentCaptor.forClass(List.class);
+        verify(producer, times(1)).publish(captor.capture());
+        Assert.assertEquals(2, captor.getValue().size());
+    }
+
+    @Test
+    public void testFlushAll() throws Exception {
+        final ProducerImpl producer = mockProducer();
+        final SendAccumulator accumulator = new SendAccumulator(producer, Duration.ofHours(1), 16, 1024);
+        final ListenableFuture<SendReceiptImpl> future = accumulator.append(fakePublishingMessage(1));
+        Assert.assertFalse(future.isDone());
+        accumulator.flushAll();
+        Assert.assertTrue(future.isDone());
+        verify(producer, times(1)).publish(anyList());
+    }
+
+    @Test
+    public void testPartialFailure() throws Exception {
+        final ProducerImpl producer = mock(ProducerImpl.class);
+        Mockito.doReturn(SCHEDULER).when(producer).getScheduler();
+        final SendReceiptImpl receipt = fakeSendReceiptImpl(fakePublishingMessage(1));
+        final Exception cause = new Exception();
+        final List<SendReceipt> receipts = new ArrayList<>();
+        receipts.add(receipt);
+        receipts.add(null);
+        final BatchSendException e = new BatchSendException("partial", receipts, Collections.singletonMap(1, cause));
+        Mockito.doReturn(Futures.immediateFailedFuture(e)).when(producer).publish(anyList());
+        final SendAccumulator accumulator = new SendAccumulator(producer, Duration.ofHours(1), 2, 1024);
+        final ListenableFuture<SendReceiptImpl> future0 = accumulator.append(fakePublishingMessage(1));
+        final ListenableFuture<SendReceiptImpl> future1 = accumulator.append(fakePublishingMessage(1));
+        Assert.assertSame(receipt, future0.get());
+        try {
+            future1.get();
+            Assert.fail();
+        } catch (ExecutionException ex) {
+            Assert.assertSame(cause, ex.getCause());
+        }
+    }
+}
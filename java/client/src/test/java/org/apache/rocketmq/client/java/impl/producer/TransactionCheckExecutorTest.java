@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.apis.producer.TransactionChecker;
+import org.apache.rocketmq.client.apis.producer.TransactionResolution;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.metrics.ClientMeterManager;
+import org.apache.rocketmq.client.java.misc.ClientId;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TransactionCheckExecutorTest extends TestBase {
+
+    private TransactionCheckExecutor createExecutor(TransactionChecker checker, int parallelism,
+        Duration resolutionCacheDuration) {
+        final ClientId clientId = new ClientId();
+        final ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder()
+            .setEndpoints(FAKE_ENDPOINTS).build();
+        return new TransactionCheckExecutor(clientId, checker, parallelism, resolutionCacheDuration,
+            new ClientMeterManager(clientId, clientConfiguration));
+    }
+
+    @Test
+    public void testCheckDeduplicated() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger checkTimes = new AtomicInteger(0);
+        final TransactionCheckExecutor executor = createExecutor(messageView -> {
+            checkTimes.incrementAndGet();
+            Uninterruptibles.awaitUninterruptibly(latch);
+            return TransactionResolution.COMMIT;
+        }, 4, Duration.ZERO);
+        final MessageViewImpl messageView = fakeMessageViewImpl();
+        final ListenableFuture<TransactionResolution> future0 = executor.check("transactionId", messageView);
+        final ListenableFuture<TransactionResolution> future1 = executor.check("transactionId", messageView);
+        Assert.assertSame(future0, future1);
+        latch.countDown();
+        Assert.assertEquals(TransactionResolution.COMMIT, future0.get());
+        Assert.assertEquals(1, checkTimes.get());
+        // The cache is disabled, so the transaction is checked again.
+        Assert.assertEquals(TransactionResolution.COMMIT, executor.check("transactionId", messageView).get());
+        Assert.assertEquals(2, checkTimes.get());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testResolutionCached() throws Exception {
+        final AtomicInteger checkTimes = new AtomicInteger(0);
+        final TransactionCheckExecutor executor = createExecutor(messageView -> {
+            checkTimes.incrementAndGet();
+            return TransactionResolution.ROLLBACK;
+        }, 1, Duration.ofMinutes(1));
+        final MessageViewImpl messageView = fakeMessageViewImpl();
+        Assert.assertEquals(TransactionResolution.ROLLBACK, executor.check("transactionId", messageView).get());
+        final ListenableFuture<TransactionResolution> future = executor.check("transactionId", messageView);
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals(TransactionResolution.ROLLBACK, future.get());
+        Assert.assertEquals(1, checkTimes.get());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testUnknownResolutionNotCached() throws Exception {
+        final AtomicInteger checkTimes = new AtomicInteger(0);
+        final TransactionCheckExecutor executor = createExecutor(messageView -> {
+            checkTimes.incrementAndGet();
+            return TransactionResolution.UNKNOWN;
+        }, 1, Duration.ofMinutes(1));
+        final MessageViewImpl messageView = fakeMessageViewImpl();
+        executor.check("transactionId", messageView).get();
+        executor.check("transactionId", messageView).get();
+        Assert.assertEquals(2, checkTimes.get());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testParallelismBounded() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final TransactionCheckExecutor executor = createExecutor(messageView -> {
+            Uninterruptibles.awaitUninterruptibly(latch);
+            return TransactionResolution.COMMIT;
+        }, 1, Duration.ZERO);
+        final MessageViewImpl messageView = fakeMessageViewImpl();
+        final ListenableFuture<TransactionResolution> future0 = executor.check("transactionId0", messageView);
+        final ListenableFuture<TransactionResolution> future1 = executor.check("transactionId1", messageView);
+        Assert.assertEquals(1, executor.getQueuedChecks());
+        latch.countDown();
+        Assert.assertEquals(TransactionResolution.COMMIT, future0.get());
+        Assert.assertEquals(TransactionResolution.COMMIT, future1.get());
+        Assert.assertEquals(0, executor.getQueuedChecks());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCheckFailure() throws Exception {
+        final RuntimeException exception = new RuntimeException();
+        final TransactionCheckExecutor executor = createExecutor(messageView -> {
+            throw exception;
+        }, 1, Duration.ofMinutes(1));
+        final ListenableFuture<TransactionResolution> future = executor.check("transactionId",
+            fakeMessageViewImpl());
+        final ExecutionException e = Assert.assertThrows(ExecutionException.class, future::get);
+        Assert.assertSame(exception, e.getCause());
+        executor.shutdown();
+    }
+}
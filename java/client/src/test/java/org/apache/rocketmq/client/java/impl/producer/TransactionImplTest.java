@@ -19,11 +19,15 @@ package org.apache.rocketmq.client.java.impl.producer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 
 import apache.rocketmq.v2.TransactionSource;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
@@ -97,6 +101,9 @@ public class TransactionImplTest extends TestBase {
     public void testCommitWithNoReceipts() throws ClientException {
         final TransactionImpl transaction = new TransactionImpl(producer);
         transaction.commit();
+        Mockito.verify(producer, Mockito.times(1)).endTransactionAsync(any(Endpoints.class),
+            any(GeneralMessage.class), any(MessageId.class), anyString(), eq(TransactionResolution.COMMIT),
+            eq(TransactionSource.SOURCE_CLIENT));
     }
 
     @Test(expected = IllegalStateException.class)
@@ -115,9 +122,13 @@ public class TransactionImplTest extends TestBase {
         final PublishingMessageImpl publishingMessage = transaction.tryAddMessage(message);
         final SendReceiptImpl sendReceipt = fakeSendReceiptImpl(fakeMessageQueueImpl(FAKE_TOPIC_0));
         transaction.tryAddReceipt(publishingMessage, sendReceipt);
-        Mockito.doNothing().when(producer).endTransaction(any(Endpoints.class), any(GeneralMessage.class),
-            any(MessageId.class), anyString(), any(TransactionResolution.class), any(TransactionSource.class));
+        Mockito.doReturn(Futures.immediateVoidFuture()).when(producer).endTransactionAsync(any(Endpoints.class),
+            any(GeneralMessage.class), any(MessageId.class), anyString(), any(TransactionResolution.class),
+            any(TransactionSource.class));
         transaction.commit();
+        Mockito.verify(producer, Mockito.times(1)).endTransactionAsync(any(Endpoints.class),
+            any(GeneralMessage.class), any(MessageId.class), anyString(), eq(TransactionResolution.COMMIT),
+            eq(TransactionSource.SOURCE_CLIENT));
     }
 
     @Test
@@ -130,8 +141,54 @@ public class TransactionImplTest extends TestBase {
         final PublishingMessageImpl publishingMessage = transaction.tryAddMessage(message);
         final SendReceiptImpl sendReceipt = fakeSendReceiptImpl(fakeMessageQueueImpl(FAKE_TOPIC_0));
         transaction.tryAddReceipt(publishingMessage, sendReceipt);
-        Mockito.doNothing().when(producer).endTransaction(any(Endpoints.class), any(GeneralMessage.class),
-            any(MessageId.class), anyString(), any(TransactionResolution.class), any(TransactionSource.class));
+        Mockito.doReturn(Futures.immediateVoidFuture()).when(producer).endTransactionAsync(any(Endpoints.class),
+            any(GeneralMessage.class), any(MessageId.class), anyString(), any(TransactionResolution.class),
+            any(TransactionSource.class));
         transaction.rollback();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCommitAsyncWithNoReceipts() {
+        final TransactionImpl transaction = new TransactionImpl(producer);
+        final CompletableFuture<Void> future = transaction.commitAsync();
+        final ExecutionException e = Assert.assertThrows(ExecutionException.class, future::get);
+        Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testCommitAsync() throws Exception {
+        Set<String> set = new HashSet<>();
+        ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder().setEndpoints(FAKE_ENDPOINTS).build();
+        final ProducerImpl producer = Mockito.spy(new ProducerImpl(clientConfiguration, set, 1, null));
+        final TransactionImpl transaction = new TransactionImpl(producer);
+        final PublishingMessageImpl publishingMessage = transaction.tryAddMessage(fakeMessage(FAKE_TOPIC_0));
+        transaction.tryAddReceipt(publishingMessage, fakeSendReceiptImpl(fakeMessageQueueImpl(FAKE_TOPIC_0)));
+        final SettableFuture<Void> endFuture = SettableFuture.create();
+        Mockito.doReturn(endFuture).when(producer).endTransactionAsync(any(Endpoints.class),
+            any(GeneralMessage.class), any(MessageId.class), anyString(), any(TransactionResolution.class),
+            any(TransactionSource.class));
+        final CompletableFuture<Void> future = transaction.commitAsync();
+        Assert.assertFalse(future.isDone());
+        endFuture.set(null);
+        future.get();
+    }
+
+    @Test
+    public void testRollbackAsyncFailure() throws Exception {
+        Set<String> set = new HashSet<>();
+        ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder().setEndpoints(FAKE_ENDPOINTS).build();
+        final ProducerImpl producer = Mockito.spy(new ProducerImpl(clientConfiguration, set, 1, null));
+        final TransactionImpl transaction = new TransactionImpl(producer);
+        final PublishingMessageImpl publishingMessage = transaction.tryAddMessage(fakeMessage(FAKE_TOPIC_0));
+        transaction.tryAddReceipt(publishingMessage, fakeSendReceiptImpl(fakeMessageQueueImpl(FAKE_TOPIC_0)));
+        final ClientException exception = new ClientException("end transaction failed");
+        Mockito.doReturn(Futures.immediateFailedFuture(exception)).when(producer).endTransactionAsync(
+            any(Endpoints.class), any(GeneralMessage.class), any(MessageId.class), anyString(),
+            eq(TransactionResolution.ROLLBACK), any(TransactionSource.class));
+        final ExecutionException e = Assert.assertThrows(ExecutionException.class,
+            () -> transaction.rollbackAsync().get());
+        Assert.assertSame(exception, e.getCause());
+        final ClientException e1 = Assert.assertThrows(ClientException.class, transaction::rollback);
+        Assert.assertSame(exception, e1);
+    }
+}
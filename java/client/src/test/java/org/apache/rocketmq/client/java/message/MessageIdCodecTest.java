@@ -17,8 +17,15 @@
 
 package org.apache.rocketmq.client.java.message;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.rocketmq.client.apis.message.MessageId;
 import org.junit.Assert;
 import org.junit.Test;
@@ -42,6 +49,57 @@ public class MessageIdCodecTest {
         Assert.assertEquals(messageIdCount, messageIds.size());
     }
 
+    @Test
+    public void testNextMessageIdWithNoRepetitionConcurrently() throws Exception {
+        final int threadCount = 32;
+        final int messageIdCountPerThread = 10000;
+        final Set<String> messageIds = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    for (int j = 0; j < messageIdCountPerThread; j++) {
+                        messageIds.add(codec.nextMessageId().toString());
+                    }
+                    return null;
+                }));
+            }
+            latch.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(threadCount * messageIdCountPerThread, messageIds.size());
+    }
+
+    @Test
+    public void testNextMessageIdFormat() {
+        final MessageId messageId = codec.nextMessageId();
+        final String messageIdString = messageId.toString();
+        Assert.assertEquals(MessageIdCodec.MESSAGE_ID_VERSION_V1, messageId.getVersion());
+        Assert.assertTrue(messageIdString.matches("01[0-9A-F]{32}"));
+        // The decoded message id equals to the generated one.
+        final MessageId decoded = codec.decode(messageIdString);
+        Assert.assertEquals(messageId, decoded);
+        Assert.assertEquals(messageId.hashCode(), decoded.hashCode());
+    }
+
+    @Test
+    public void testNextMessageIdSequence() {
+        final String messageId0 = codec.nextMessageId().toString();
+        final String messageId1 = codec.nextMessageId().toString();
+        // Process fixed part is the same.
+        Assert.assertEquals(messageId0.substring(0, 18), messageId1.substring(0, 18));
+        final long sequence0 = Long.parseLong(messageId0.substring(26), 16);
+        final long sequence1 = Long.parseLong(messageId1.substring(26), 16);
+        Assert.assertEquals(1, (sequence1 - sequence0) & 0xFFFFFFFFL);
+    }
+
     @Test
     public void testDecode() {
         String messageIdString = "0156F7E71C361B21BC024CCDBE00000000";
@@ -20,8 +20,10 @@ package org.apache.rocketmq.client.java.message;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.rocketmq.client.apis.ClientServiceProvider;
@@ -60,6 +62,42 @@ public class MessageImplTest extends TestBase {
         provider.newMessageBuilder().setTag("  ");
     }
 
+    @Test
+    public void testTransferBodyWithoutCopy() {
+        final byte[] body = sampleBody.clone();
+        final Message message = provider.newMessageBuilder().setTopic(FAKE_TOPIC_0).transferBody(body).build();
+        assertSame(body, ((MessageImpl) message).body);
+    }
+
+    @Test
+    public void testTransferBodyWithWholeByteBuffer() {
+        final byte[] body = sampleBody.clone();
+        final Message message = provider.newMessageBuilder().setTopic(FAKE_TOPIC_0)
+            .transferBody(ByteBuffer.wrap(body)).build();
+        assertSame(body, ((MessageImpl) message).body);
+    }
+
+    @Test
+    public void testTransferBodyWithPartialByteBuffer() {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {'b', 'f', 'o', 'o', 'r'}, 1, 3);
+        final Message message = provider.newMessageBuilder().setTopic(FAKE_TOPIC_0).transferBody(buffer).build();
+        assertArrayEquals(sampleBody, ((MessageImpl) message).body);
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    public void testTransferBodyWithDirectByteBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(sampleBody.length);
+        buffer.put(sampleBody).flip();
+        final Message message = provider.newMessageBuilder().setTopic(FAKE_TOPIC_0).transferBody(buffer).build();
+        assertEquals(ByteBuffer.wrap(sampleBody), message.getBody());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTransferEmptyBody() {
+        provider.newMessageBuilder().transferBody(ByteBuffer.allocate(0));
+    }
+
     @Test
     public void testTagSetter() {
         final Message message = provider.newMessageBuilder().setTag("tagA").setTopic(FAKE_TOPIC_0)
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.rocketmq.client.apis.message.Message;
+import org.apache.rocketmq.client.apis.producer.CompressionType;
+import org.apache.rocketmq.client.java.impl.producer.Compression;
+import org.apache.rocketmq.client.java.impl.producer.PublishingSettings;
+import org.apache.rocketmq.client.java.message.protocol.Encoding;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class PublishingMessageImplTest extends TestBase {
+    private final byte[] body = StringUtils.repeat("{\"foo\":\"bar\"}", 64).getBytes(StandardCharsets.UTF_8);
+
+    private PublishingSettings fakeProducerSettings(Compression compression) {
+        return new PublishingSettings(FAKE_NAMESPACE, FAKE_CLIENT_ID, fakeEndpoints(),
+            fakeExponentialBackoffRetryPolicy(), Duration.ofSeconds(1), new HashSet<>(), compression,
+            Collections.singletonMap(FAKE_TOPIC_1, Compression.DISABLED));
+    }
+
+    private Message fakeJsonMessage(String topic) {
+        return new MessageBuilderImpl().setTopic(topic).setBody(body).build();
+    }
+
+    @Test
+    public void testCompressionDisabledByDefault() throws Exception {
+        final PublishingMessageImpl message = new PublishingMessageImpl(fakeJsonMessage(FAKE_TOPIC_0),
+            fakeProducerSettings(), false);
+        assertEquals(Encoding.IDENTITY, message.getBodyEncoding());
+        assertEquals(ByteBuffer.wrap(body), message.getEncodedBody());
+    }
+
+    @Test
+    public void testCompressionBelowThreshold() throws Exception {
+        final Compression compression = new Compression(CompressionType.GZIP, 5, body.length + 1);
+        final PublishingMessageImpl message = new PublishingMessageImpl(fakeJsonMessage(FAKE_TOPIC_0),
+            fakeProducerSettings(compression), false);
+        assertEquals(Encoding.IDENTITY, message.getBodyEncoding());
+    }
+
+    @Test
+    public void testCompressionOverriddenByTopic() throws Exception {
+        final Compression compression = new Compression(CompressionType.GZIP, 5, 0);
+        final PublishingMessageImpl message = new PublishingMessageImpl(fakeJsonMessage(FAKE_TOPIC_1),
+            fakeProducerSettings(compression), false);
+        assertEquals(Encoding.IDENTITY, message.getBodyEncoding());
+    }
+
+    @Test
+    public void testCompressionNotSmaller() throws Exception {
+        final Compression compression = new Compression(CompressionType.GZIP, 5, 0);
+        final Message message = new MessageBuilderImpl().setTopic(FAKE_TOPIC_0)
+            .setBody("foobar".getBytes(StandardCharsets.UTF_8)).build();
+        final PublishingMessageImpl publishingMessage = new PublishingMessageImpl(message,
+            fakeProducerSettings(compression), false);
+        assertEquals(Encoding.IDENTITY, publishingMessage.getBodyEncoding());
+    }
+
+    @Test
+    public void testCompressAndDecompress() throws Exception {
+        final Compression[] compressions = new Compression[] {
+            new Compression(CompressionType.GZIP, 5, 0),
+            new Compression(CompressionType.GZIP, -1, 0),
+            new Compression(CompressionType.GZIP, 9, 0)
+        };
+        for (Compression compression : compressions) {
+            final PublishingMessageImpl message = new PublishingMessageImpl(fakeJsonMessage(FAKE_TOPIC_0),
+                fakeProducerSettings(compression), false);
+            assertEquals(Encoding.GZIP, message.getBodyEncoding());
+            assertTrue(message.getEncodedBody().remaining() < body.length);
+            assertEquals(ByteBuffer.wrap(body), message.getBody());
+            final apache.rocketmq.v2.Message protobuf = message.toProtobuf(FAKE_NAMESPACE, fakeMessageQueueImpl0());
+            assertEquals(apache.rocketmq.v2.Encoding.GZIP, protobuf.getSystemProperties().getBodyEncoding());
+            final MessageViewImpl messageView = MessageViewImpl.fromProtobuf(protobuf);
+            assertFalse(messageView.isCorrupted());
+            assertEquals(ByteBuffer.wrap(body), messageView.getBody());
+        }
+    }
+
+    @Test
+    public void testToProtobufReusesBody() throws Exception {
+        final PublishingMessageImpl message = new PublishingMessageImpl(fakeJsonMessage(FAKE_TOPIC_0),
+            fakeProducerSettings(), false);
+        final apache.rocketmq.v2.Message protobuf0 = message.toProtobuf(FAKE_NAMESPACE, fakeMessageQueueImpl0());
+        final apache.rocketmq.v2.Message protobuf1 = message.toProtobuf(FAKE_NAMESPACE, fakeMessageQueueImpl1());
+        assertSame(protobuf0.getBody(), protobuf1.getBody());
+        assertEquals(ByteBuffer.wrap(body), protobuf0.getBody().asReadOnlyByteBuffer());
+        assertEquals(fakeMessageQueueImpl0().getQueueId(), protobuf0.getSystemProperties().getQueueId());
+        assertEquals(fakeMessageQueueImpl1().getQueueId(), protobuf1.getSystemProperties().getQueueId());
+        assertEquals(protobuf0.getSystemProperties().getMessageId(), protobuf1.getSystemProperties().getMessageId());
+    }
+
+    @Test
+    public void testToProtobufSharesTemplate() throws Exception {
+        final PublishingTemplate template = new PublishingTemplate(FAKE_NAMESPACE, fakeMessageQueueImpl0());
+        final PublishingMessageImpl message0 = new PublishingMessageImpl(fakeJsonMessage(FAKE_TOPIC_0),
+            fakeProducerSettings(), false);
+        final PublishingMessageImpl message1 = new PublishingMessageImpl(fakeJsonMessage(FAKE_TOPIC_0),
+            fakeProducerSettings(), false);
+        final apache.rocketmq.v2.Message protobuf0 = message0.toProtobuf(template);
+        final apache.rocketmq.v2.Message protobuf1 = message1.toProtobuf(template);
+        assertSame(protobuf0.getTopic(), protobuf1.getTopic());
+        assertEquals(FAKE_NAMESPACE, protobuf0.getTopic().getResourceNamespace());
+        assertEquals(fakeMessageQueueImpl0().getTopic(), protobuf0.getTopic().getName());
+        assertEquals(protobuf0.getSystemProperties().getBornHost(), protobuf1.getSystemProperties().getBornHost());
+        assertEquals(fakeMessageQueueImpl0().getQueueId(), protobuf1.getSystemProperties().getQueueId());
+    }
+}
@@ -52,7 +52,17 @@ public class UtilitiesTest {
             final byte[] originalBytes = Utilities.decompressBytes(compressedBytes);
             assertEquals(new String(originalBytes, StandardCharsets.UTF_8), body);
         }
+        {
+            final byte[] compressedBytes = Utilities.compressBytesGZIP(bytes, 9);
+            final byte[] originalBytes = Utilities.decompressBytes(compressedBytes);
+            assertEquals(new String(originalBytes, StandardCharsets.UTF_8), body);
+        }
+
+    }
 
+    @Test(expected = IOException.class)
+    public void testDecompressUnknownFormat() throws IOException {
+        Utilities.decompressBytes(new byte[] {0x01});
     }
 
     @Test